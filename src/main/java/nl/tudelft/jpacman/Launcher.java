@@ -30,6 +30,18 @@ public class Launcher {
     private PacManUI pacManUI;
     private Game game;
 
+    /**
+     * The template of the default level, or <code>null</code> as long as it
+     * was not read.
+     */
+    private LevelTemplate levelTemplate;
+
+    /**
+     * The pellets shared by all levels of this launcher, or <code>null</code>
+     * as long as no level was created.
+     */
+    private PelletPool pelletPool;
+
     /**
      * Main execution method for the Launcher.
      *
@@ -61,19 +73,32 @@ public class Launcher {
     }
 
     /**
-     * Creates a new level. By default this method will use the map parser to
-     * parse the default board stored in the <code>board.txt</code> resource.
+     * Creates a new level. By default this method will stamp the level out of
+     * the template from {@link #getLevelTemplate()}, using the factories of
+     * the map parser.
      *
      * @return A new level.
      */
     public Level makeLevel() {
-        MapParser parser = getMapParser();
-        try (InputStream boardStream = Launcher.class
-                .getResourceAsStream("/board.txt")) {
-            return parser.parseMap(boardStream);
-        } catch (IOException e) {
-            throw new PacmanConfigurationException("Unable to create level.", e);
+        return getLevelTemplate().createLevel(getMapParser());
+    }
+
+    /**
+     * Returns the template of the default board stored in the
+     * <code>board.txt</code> resource, which is read only once.
+     *
+     * @return The template of the default level.
+     */
+    protected synchronized LevelTemplate getLevelTemplate() {
+        if (levelTemplate == null) {
+            try (InputStream boardStream = Launcher.class
+                    .getResourceAsStream("/board.txt")) {
+                levelTemplate = LevelTemplate.fromText(boardStream);
+            } catch (IOException e) {
+                throw new PacmanConfigurationException("Unable to create level.", e);
+            }
         }
+        return levelTemplate;
     }
 
     /**
@@ -104,7 +129,17 @@ public class Launcher {
      * and the ghosts from {@link #getGhostFactory()}.
      */
     protected LevelFactory getLevelFactory() {
-        return new LevelFactory(getSpriteStore(), getGhostFactory());
+        return new LevelFactory(getSpriteStore(), getGhostFactory(), getPelletPool());
+    }
+
+    /**
+     * @return The pool of pellets shared by all levels of this launcher.
+     */
+    protected synchronized PelletPool getPelletPool() {
+        if (pelletPool == null) {
+            pelletPool = LevelFactory.createPelletPool(getSpriteStore());
+        }
+        return pelletPool;
     }
 
     /**
@@ -191,8 +226,13 @@ public class Launcher {
 
     /**
      * Disposes of the UI. For more information see {@link javax.swing.JFrame#dispose()}.
+     * The pellets of the level go back to the pool of this launcher, for the
+     * next game it launches.
      */
     public void dispose() {
         pacManUI.dispose();
+        Level level = game.getLevel();
+        level.dispose();
+        level.releasePellets(getPelletPool());
     }
 }
@@ -22,6 +22,11 @@ public class Board {
         assert grid != null;
         this.board = grid;
         assert invariant() : "Initial grid cannot contain null squares";
+        for (int x = 0; x < grid.length; x++) {
+            for (int y = 0; y < grid[x].length; y++) {
+                grid[x][y].setPosition(x, y);
+            }
+        }
     }
 
     /**
@@ -3,19 +3,48 @@ package nl.tudelft.jpacman.board;
 import nl.tudelft.jpacman.sprite.PacManSprites;
 import nl.tudelft.jpacman.sprite.Sprite;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * A factory that creates {@link Board} objects from 2-dimensional arrays of
  * {@link Square}s.
+ * <p>
+ * Boards with more squares than the parallel threshold have their squares
+ * linked by a fork-join pool, in bands of columns. Linking a square only
+ * changes that square, so the bands are independent and the result is the
+ * same as linking all squares one by one.
  *
  * @author Jeroen Roosen
  */
 public class BoardFactory {
 
+    /**
+     * The default amount of squares above which boards are linked in
+     * parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 250_000;
+
+    /**
+     * The amount of columns linked by a single task.
+     */
+    private static final int BAND_WIDTH = 64;
+
     /**
      * The sprite store providing the sprites for the background.
      */
     private final PacManSprites sprites;
 
+    /**
+     * The amount of squares above which boards are linked in parallel.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * The pool linking the squares of large boards.
+     */
+    private final ForkJoinPool pool;
+
     /**
      * Creates a new BoardFactory that will create a board with the provided
      * background sprites.
@@ -23,7 +52,42 @@ public class BoardFactory {
      * @param spriteStore The sprite store providing the sprites for the background.
      */
     public BoardFactory(PacManSprites spriteStore) {
+        this(spriteStore, DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new BoardFactory that will create a board with the provided
+     * background sprites.
+     *
+     * @param spriteStore       The sprite store providing the sprites for the
+     *                          background.
+     * @param parallelThreshold The amount of squares above which boards are
+     *                          linked in parallel.
+     * @param pool              The pool linking the squares of large boards.
+     */
+    public BoardFactory(PacManSprites spriteStore, int parallelThreshold, ForkJoinPool pool) {
+        assert parallelThreshold >= 0;
+        assert pool != null;
         this.sprites = spriteStore;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    /**
+     * @param width  The amount of columns.
+     * @param height The amount of rows.
+     * @return <code>true</code> iff a grid of this size is large enough to be
+     * processed in parallel.
+     */
+    public boolean isParallel(int width, int height) {
+        return (long) width * height > parallelThreshold;
+    }
+
+    /**
+     * @return The pool processing large grids.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
     }
 
     /**
@@ -40,7 +104,27 @@ public class BoardFactory {
 
         int width = board.getWidth();
         int height = board.getHeight();
-        for (int x = 0; x < width; x++) {
+        if (isParallel(width, height)) {
+            pool.invoke(new LinkTask(grid, 0, width));
+        } else {
+            link(grid, 0, width);
+        }
+
+        return board;
+    }
+
+    /**
+     * Links the squares in a band of columns to their neighbours, wrapping
+     * around the edges of the grid.
+     *
+     * @param grid  The grid of squares.
+     * @param fromX The first column of the band.
+     * @param toX   The column after the last column of the band.
+     */
+    private static void link(Square[][] grid, int fromX, int toX) {
+        int width = grid.length;
+        int height = grid[0].length;
+        for (int x = fromX; x < toX; x++) {
             for (int y = 0; y < height; y++) {
                 Square square = grid[x][y];
                 for (Direction dir : Direction.values()) {
@@ -51,8 +135,6 @@ public class BoardFactory {
                 }
             }
         }
-
-        return board;
     }
 
     /**
@@ -136,4 +218,54 @@ public class BoardFactory {
             return background;
         }
     }
+
+    /**
+     * Task linking a band of columns, splitting it in halves until it is no
+     * wider than {@value #BAND_WIDTH} columns.
+     */
+    private static final class LinkTask extends RecursiveAction {
+
+        /**
+         * Default serialisation ID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The grid of squares.
+         */
+        private final transient Square[][] grid;
+
+        /**
+         * The first column of the band.
+         */
+        private final int fromX;
+
+        /**
+         * The column after the last column of the band.
+         */
+        private final int toX;
+
+        /**
+         * Creates a new task linking a band of columns.
+         *
+         * @param grid  The grid of squares.
+         * @param fromX The first column of the band.
+         * @param toX   The column after the last column of the band.
+         */
+        private LinkTask(Square[][] grid, int fromX, int toX) {
+            this.grid = grid;
+            this.fromX = fromX;
+            this.toX = toX;
+        }
+
+        @Override
+        protected void compute() {
+            if (toX - fromX <= BAND_WIDTH) {
+                link(grid, fromX, toX);
+                return;
+            }
+            int half = fromX + (toX - fromX) / 2;
+            invokeAll(new LinkTask(grid, fromX, half), new LinkTask(grid, half, toX));
+        }
+    }
 }
@@ -4,9 +4,7 @@ import com.google.common.collect.ImmutableList;
 import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A square on a {@link Board}, which can (or cannot, depending on the type) be
@@ -17,21 +15,44 @@ import java.util.Map;
 public abstract class Square {
 
     /**
-     * The units occupying this square, in order of appearance.
+     * The initial capacity of the list of occupants, as squares rarely hold
+     * more than a pellet and a unit passing by.
      */
-    private final List<Unit> occupants;
+    private static final int OCCUPANTS_CAPACITY = 2;
 
     /**
-     * The collection of squares adjacent to this square.
+     * The amount of directions a square has neighbours in.
      */
-    private final Map<Direction, Square> neighbours;
+    private static final int DIRECTIONS = Direction.values().length;
+
+    /**
+     * The units occupying this square, in order of appearance, or
+     * <code>null</code> as long as no unit ever occupied this square. Most
+     * squares, such as walls, never hold any unit.
+     */
+    private List<Unit> occupants;
+
+    /**
+     * The squares adjacent to this square, indexed by the ordinal of their
+     * direction.
+     */
+    private final Square[] neighbours;
+
+    /**
+     * The column of this square on its board, or -1 if it is not on a board.
+     */
+    private int x = -1;
+
+    /**
+     * The row of this square on its board, or -1 if it is not on a board.
+     */
+    private int y = -1;
 
     /**
      * Creates a new, empty square.
      */
     protected Square() {
-        this.occupants = new ArrayList<>();
-        this.neighbours = new EnumMap<>(Direction.class);
+        this.neighbours = new Square[DIRECTIONS];
     }
 
     /**
@@ -41,7 +62,7 @@ public abstract class Square {
      * @return The adjacent square in the given direction.
      */
     public Square getSquareAt(Direction direction) {
-        return neighbours.get(direction);
+        return neighbours[direction.ordinal()];
     }
 
     /**
@@ -52,7 +73,38 @@ public abstract class Square {
      * @param direction The direction the new neighbour is in, as seen from this cell.
      */
     public void link(Square neighbour, Direction direction) {
-        neighbours.put(direction, neighbour);
+        neighbours[direction.ordinal()] = neighbour;
+    }
+
+    /**
+     * Returns the column of this square on its board.
+     *
+     * @return The <code>x</code> position of this square, or -1 if this square
+     * is not on a board.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the row of this square on its board.
+     *
+     * @return The <code>y</code> position of this square, or -1 if this square
+     * is not on a board.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Records the position of this square on the board it is placed on.
+     *
+     * @param column The <code>x</code> position of this square.
+     * @param row    The <code>y</code> position of this square.
+     */
+    void setPosition(int column, int row) {
+        this.x = column;
+        this.y = row;
     }
 
     /**
@@ -63,6 +115,9 @@ public abstract class Square {
      * which they occupied this square (i.e. oldest first.)
      */
     public List<Unit> getOccupants() {
+        if (occupants == null) {
+            return ImmutableList.of();
+        }
         return ImmutableList.copyOf(occupants);
     }
 
@@ -75,6 +130,9 @@ public abstract class Square {
      */
     public boolean put(Unit occupant) {
         assert occupant != null;
+        if (occupants == null) {
+            occupants = new ArrayList<>(OCCUPANTS_CAPACITY);
+        }
         if (!occupants.contains(occupant)) {
             occupants.add(occupant);
             return true;
@@ -89,7 +147,9 @@ public abstract class Square {
      */
     public void remove(Unit occupant) {
         assert occupant != null;
-        occupants.remove(occupant);
+        if (occupants != null) {
+            occupants.remove(occupant);
+        }
     }
 
     /**
@@ -100,7 +160,7 @@ public abstract class Square {
      * square listed as the square they are currently occupying.
      */
     protected boolean invariant() {
-        for (Unit occupant : occupants) {
+        for (Unit occupant : getOccupants()) {
             if (occupant.getSquare() != this) {
                 return false;
             }
@@ -0,0 +1,112 @@
+package nl.tudelft.jpacman.game;
+
+import nl.tudelft.jpacman.level.Level;
+
+/**
+ * A game hosted by a {@link SessionManager}, together with what the manager
+ * needs to know to account for it.
+ */
+public final class GameSession {
+
+    /**
+     * The identifier of this session, unique within its manager.
+     */
+    private final long id;
+
+    /**
+     * The game played in this session.
+     */
+    private final Game game;
+
+    /**
+     * The estimated amount of heap memory taken by the game, in bytes.
+     */
+    private final long estimatedBytes;
+
+    /**
+     * <code>true</code> iff this session was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a new session.
+     *
+     * @param id             The identifier of the session.
+     * @param game           The game played in the session.
+     * @param estimatedBytes The estimated amount of heap memory taken by the
+     *                       game, in bytes.
+     */
+    GameSession(long id, Game game, long estimatedBytes) {
+        assert game != null;
+        this.id = id;
+        this.game = game;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * @return The identifier of this session, unique within its manager.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return The game played in this session.
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return The estimated amount of heap memory taken by the game, in
+     * bytes.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Starts or resumes the game, unless the session was closed.
+     */
+    public void start() {
+        if (!closed) {
+            game.start();
+        }
+    }
+
+    /**
+     * Pauses the game.
+     */
+    public void pause() {
+        game.stop();
+    }
+
+    /**
+     * @return <code>true</code> iff the game is over: it was won or lost, or
+     * the session was closed.
+     */
+    public boolean isFinished() {
+        if (closed) {
+            return true;
+        }
+        Level level = game.getLevel();
+        return !game.isInProgress()
+                && (!level.isAnyPlayerAlive() || level.remainingPellets() == 0);
+    }
+
+    /**
+     * @return <code>true</code> iff this session was closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the game for good.
+     */
+    void close() {
+        closed = true;
+        game.stop();
+        game.getLevel().dispose();
+    }
+}
@@ -0,0 +1,437 @@
+package nl.tudelft.jpacman.game;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PelletPool;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many independent games in a single process. All levels share one
+ * scheduler with a fixed amount of threads, so the amount of threads does
+ * not grow with the amount of games. Pellets of finished games are reused by
+ * new ones.
+ * <p>
+ * The manager refuses new sessions when the session limit or memory budget
+ * would be exceeded, or when the shared scheduler is saturated. Saturation is
+ * detected by a probe task that measures how late the scheduler runs it:
+ * when games are waiting for a thread, the probe is delayed too. Finished
+ * games are reaped periodically.
+ */
+public class SessionManager {
+
+    /**
+     * The default maximum amount of sessions.
+     */
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    /**
+     * The default memory budget of all sessions together, in bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 512L * 1024 * 1024;
+
+    /**
+     * The default lag of the scheduler above which it is considered
+     * saturated, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_LAG = 50L;
+
+    /**
+     * The interval between two runs of the lag probe, in milliseconds.
+     */
+    private static final long PROBE_INTERVAL = 100L;
+
+    /**
+     * The interval between two reaps of finished sessions, in milliseconds.
+     */
+    private static final long REAP_INTERVAL = 1000L;
+
+    /**
+     * The weight of older measurements in the smoothed lag, out of
+     * {@value #LAG_SMOOTHING} + 1.
+     */
+    private static final int LAG_SMOOTHING = 3;
+
+    /**
+     * Estimated heap size of a square with its neighbour array, in bytes.
+     */
+    private static final long SQUARE_BYTES = 64L;
+
+    /**
+     * Estimated heap size of a unit, such as a pellet or a ghost, together
+     * with its entry in the occupant list of its square, in bytes.
+     */
+    private static final long UNIT_BYTES = 48L;
+
+    /**
+     * Estimated fixed heap size of a game, level and players, in bytes.
+     */
+    private static final long GAME_BYTES = 4096L;
+
+    /**
+     * The template of the levels played.
+     */
+    private final LevelTemplate template;
+
+    /**
+     * The sprites of all games.
+     */
+    private final PacManSprites sprites;
+
+    /**
+     * The scheduler moving the units of all levels.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The pellets shared by all levels.
+     */
+    private final PelletPool pelletPool;
+
+    /**
+     * The board factory shared by all levels.
+     */
+    private final BoardFactory boardFactory;
+
+    /**
+     * The factory creating the games.
+     */
+    private final GameFactory gameFactory;
+
+    /**
+     * The open sessions by identifier.
+     */
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The identifier of the last created session.
+     */
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * The estimated heap memory taken by all open sessions, in bytes.
+     */
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    /**
+     * The amount of sessions created or being created and not yet reaped.
+     */
+    private final AtomicInteger sessionCount = new AtomicInteger();
+
+    /**
+     * The smoothed lag of the scheduler, in nanoseconds.
+     */
+    private volatile long lag;
+
+    /**
+     * The time the lag probe should run next, in nanoseconds.
+     */
+    private long nextProbe;
+
+    /**
+     * The source the random streams of new games are split off, or
+     * <code>null</code> if games are not seeded.
+     */
+    private SplittableRandom seeds;
+
+    /**
+     * The maximum amount of sessions.
+     */
+    private volatile int maxSessions = DEFAULT_MAX_SESSIONS;
+
+    /**
+     * The memory budget of all sessions together, in bytes.
+     */
+    private volatile long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    /**
+     * The lag above which the scheduler is saturated, in nanoseconds.
+     */
+    private volatile long maxLag = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_LAG);
+
+    /**
+     * Creates a new session manager and starts its scheduler.
+     *
+     * @param template The template of the levels played.
+     * @param sprites  The sprites of all games.
+     * @param threads  The amount of threads moving the units of all games.
+     */
+    public SessionManager(LevelTemplate template, PacManSprites sprites, int threads) {
+        assert template != null;
+        assert sprites != null;
+        assert threads > 0;
+        this.template = template;
+        this.sprites = sprites;
+        this.scheduler = Executors.newScheduledThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "JPacman session " + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.pelletPool = LevelFactory.createPelletPool(sprites);
+        this.boardFactory = new BoardFactory(sprites);
+        this.gameFactory = new GameFactory(new PlayerFactory(sprites));
+
+        nextProbe = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PROBE_INTERVAL);
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                probe();
+            }
+        }, PROBE_INTERVAL, PROBE_INTERVAL, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                reap();
+            }
+        }, REAP_INTERVAL, REAP_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param sessions The maximum amount of open sessions.
+     */
+    public void setMaxSessions(int sessions) {
+        assert sessions > 0;
+        this.maxSessions = sessions;
+    }
+
+    /**
+     * @param bytes The memory budget of all sessions together, in bytes.
+     */
+    public void setMemoryBudget(long bytes) {
+        assert bytes > 0;
+        this.memoryBudget = bytes;
+    }
+
+    /**
+     * @param millis The lag above which the scheduler is considered
+     *               saturated, in milliseconds.
+     */
+    public void setMaxLag(long millis) {
+        assert millis > 0;
+        this.maxLag = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Seeds the games created from now on, so a batch of games created in
+     * the same order makes the same random choices in every run.
+     *
+     * @param seed The seed of the games.
+     */
+    public synchronized void setSeed(long seed) {
+        seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return The source of random numbers of the ghosts of a new game.
+     */
+    private synchronized SplittableRandom nextRandom() {
+        if (seeds == null) {
+            return new SplittableRandom();
+        }
+        return seeds.split();
+    }
+
+    /**
+     * Creates a new single player game on a fresh level. The game is not
+     * started yet.
+     *
+     * @return The session of the new game.
+     * @throws RejectedExecutionException When the session limit or memory
+     *                                    budget would be exceeded, or the
+     *                                    scheduler is saturated.
+     */
+    public GameSession create() {
+        if (isSaturated()) {
+            throw new RejectedExecutionException("Scheduler is saturated, lag "
+                    + TimeUnit.NANOSECONDS.toMillis(lag) + " ms.");
+        }
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            sessionCount.decrementAndGet();
+            throw new RejectedExecutionException("Session limit of " + maxSessions
+                    + " reached.");
+        }
+        long bytes = estimateBytes(template);
+        if (usedBytes.addAndGet(bytes) > memoryBudget) {
+            usedBytes.addAndGet(-bytes);
+            sessionCount.decrementAndGet();
+            throw new RejectedExecutionException("Memory budget of " + memoryBudget
+                    + " bytes exceeded.");
+        }
+        boolean opened = false;
+        try {
+            GameSession session = open(bytes);
+            opened = true;
+            return session;
+        } finally {
+            if (!opened) {
+                usedBytes.addAndGet(-bytes);
+                sessionCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Creates the level and game of a new session, which was accounted for
+     * already.
+     *
+     * @param bytes The estimated heap memory of the game, in bytes.
+     * @return The session of the new game.
+     */
+    private GameSession open(long bytes) {
+        MapParser parser = new MapParser(new LevelFactory(sprites,
+                new GhostFactory(sprites, nextRandom()), pelletPool, scheduler), boardFactory);
+        Level level = template.createLevel(parser);
+        boolean created = false;
+        try {
+            Game game = gameFactory.createSinglePlayerGame(level);
+            created = true;
+            GameSession session = new GameSession(lastId.incrementAndGet(), game, bytes);
+            sessions.put(session.getId(), session);
+            return session;
+        } finally {
+            if (!created) {
+                level.releasePellets(pelletPool);
+            }
+        }
+    }
+
+    /**
+     * @param id The identifier of a session.
+     * @return The open session with the identifier, or <code>null</code> if
+     * there is none.
+     */
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * @return The open sessions.
+     */
+    public List<GameSession> getSessions() {
+        return new ArrayList<>(sessions.values());
+    }
+
+    /**
+     * Closes a session, stopping its game and releasing its resources.
+     *
+     * @param session The session to close.
+     */
+    public void close(GameSession session) {
+        if (sessions.remove(session.getId()) == null) {
+            return;
+        }
+        session.close();
+        session.getGame().getLevel().releasePellets(pelletPool);
+        usedBytes.addAndGet(-session.getEstimatedBytes());
+        sessionCount.decrementAndGet();
+    }
+
+    /**
+     * Closes all sessions whose game is over.
+     *
+     * @return The amount of sessions closed.
+     */
+    public int reap() {
+        int reaped = 0;
+        Iterator<GameSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            GameSession session = it.next();
+            if (session.isFinished()) {
+                close(session);
+                reaped++;
+            }
+        }
+        return reaped;
+    }
+
+    /**
+     * Closes all sessions and stops the scheduler.
+     */
+    public void shutdown() {
+        for (GameSession session : getSessions()) {
+            close(session);
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return The amount of open sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return The estimated heap memory taken by all open sessions, in bytes.
+     */
+    public long getEstimatedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * @return The smoothed lag of the scheduler, in milliseconds: how much
+     * later than planned scheduled tasks run.
+     */
+    public long getLag() {
+        return TimeUnit.NANOSECONDS.toMillis(lag);
+    }
+
+    /**
+     * @return <code>true</code> iff tasks on the scheduler run later than the
+     * maximum lag allows, so no more games should be started.
+     */
+    public boolean isSaturated() {
+        return lag > maxLag;
+    }
+
+    /**
+     * Measures how late this probe runs and updates the smoothed lag.
+     */
+    private void probe() {
+        long now = System.nanoTime();
+        long sample = Math.max(0L, now - nextProbe);
+        lag = (lag * LAG_SMOOTHING + sample) / (LAG_SMOOTHING + 1);
+        nextProbe += TimeUnit.MILLISECONDS.toNanos(PROBE_INTERVAL);
+        if (nextProbe < now) {
+            // a fixed rate task catches up on missed runs, don't count those.
+            nextProbe = now;
+        }
+    }
+
+    /**
+     * Estimates the heap memory of a game on a level of the template: its
+     * squares, pellets and ghosts and a fixed amount for the rest.
+     *
+     * @param levels The template of the level.
+     * @return The estimated heap memory of the game, in bytes.
+     */
+    private static long estimateBytes(LevelTemplate levels) {
+        long squares = (long) levels.getMap().getWidth() * levels.getMap().getHeight();
+        long units = levels.getMap().getPelletCount()
+                + levels.getMap().getGhostSpawns().length;
+        return GAME_BYTES + squares * SQUARE_BYTES + units * UNIT_BYTES;
+    }
+}
@@ -0,0 +1,461 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A map in a compact form that is loaded without parsing any text: a plane
+ * of bits marking the walls, a plane of bits marking the pellets and the
+ * lists of squares where ghosts and players start. Squares are numbered
+ * column by column, square x,y having index <code>x * height + y</code>,
+ * which is also the order in which levels create their ghosts.
+ * <p>
+ * In binary form, all numbers are big-endian:
+ * <pre>
+ * "JPML"              magic
+ * byte                format version ({@value #VERSION})
+ * int width, height   size of the map in squares
+ * int ghosts, players amount of ghost and player spawns
+ * long[]              wall plane, (width * height + 63) / 64 words
+ * long[]              pellet plane, likewise
+ * int[ghosts]         square indices of the ghost spawns, ascending
+ * int[players]        square indices of the player spawns, ascending
+ * </pre>
+ * Bit <code>i</code> of a plane is bit <code>i % 64</code> of word
+ * <code>i / 64</code>.
+ */
+public final class CompactMap {
+
+    /**
+     * The version of the binary format written.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * The bytes every binary map starts with.
+     */
+    private static final byte[] MAGIC = {'J', 'P', 'M', 'L'};
+
+    /**
+     * The amount of bytes of the header, up to the wall plane.
+     */
+    private static final int HEADER_SIZE = MAGIC.length + 1 + 4 * Integer.BYTES;
+
+    /**
+     * The amount of squares described by a single word of a plane.
+     */
+    private static final int BITS_PER_WORD = Long.SIZE;
+
+    /**
+     * The amount of bytes read from a stream at once.
+     */
+    private static final int READ_CHUNK_SIZE = 8192;
+
+    /**
+     * The amount of columns.
+     */
+    private final int width;
+
+    /**
+     * The amount of rows.
+     */
+    private final int height;
+
+    /**
+     * The squares that are walls.
+     */
+    private final BitSet walls;
+
+    /**
+     * The squares that hold a pellet.
+     */
+    private final BitSet pellets;
+
+    /**
+     * The indices of the squares with a ghost, ascending.
+     */
+    private final int[] ghostSpawns;
+
+    /**
+     * The indices of the squares where a player starts, ascending.
+     */
+    private final int[] playerSpawns;
+
+    /**
+     * Creates a new compact map.
+     *
+     * @param width        The amount of columns.
+     * @param height       The amount of rows.
+     * @param walls        The squares that are walls.
+     * @param pellets      The squares that hold a pellet.
+     * @param ghostSpawns  The indices of the squares with a ghost, ascending.
+     * @param playerSpawns The indices of the squares where a player starts,
+     *                     ascending.
+     */
+    private CompactMap(int width, int height, BitSet walls, BitSet pellets,
+                       int[] ghostSpawns, int[] playerSpawns) {
+        this.width = width;
+        this.height = height;
+        this.walls = walls;
+        this.pellets = pellets;
+        this.ghostSpawns = ghostSpawns;
+        this.playerSpawns = playerSpawns;
+    }
+
+    /**
+     * Converts a map in the text format read by {@link MapParser#parseMap(List)}.
+     *
+     * @param text The rows of the map, top row first.
+     * @return The map in compact form.
+     * @throws PacmanConfigurationException If the text is not properly formatted.
+     */
+    public static CompactMap fromText(List<String> text) {
+        MapParser.checkMapFormat(text);
+        MapScanner<CompactMap> scanner = new MapScanner<>(new TextCells());
+        for (String row : text) {
+            scanner.scanRow(row);
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * Converts a map in the text format read by {@link MapParser#parseMap(List)}
+     * from a stream, in a single pass over its bytes. The stream is read
+     * until its end.
+     *
+     * @param source The stream holding the text of the map.
+     * @return The map in compact form.
+     * @throws IOException When the stream could not be read.
+     * @throws PacmanConfigurationException If the text is not properly formatted.
+     */
+    public static CompactMap fromText(InputStream source) throws IOException {
+        MapScanner<CompactMap> scanner = new MapScanner<>(new TextCells());
+        byte[] chunk = new byte[READ_CHUNK_SIZE];
+        int read = source.read(chunk);
+        while (read >= 0) {
+            scanner.scan(ByteBuffer.wrap(chunk, 0, read));
+            read = source.read(chunk);
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * Reads a map in binary form from the remaining bytes of a buffer.
+     *
+     * @param buffer The buffer holding the map.
+     * @return The map read.
+     * @throws PacmanConfigurationException If the bytes are not a binary map
+     *                                      of a supported version.
+     */
+    public static CompactMap read(ByteBuffer buffer) {
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new PacmanConfigurationException("Not a binary map.");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new PacmanConfigurationException(
+                        "Unsupported binary map version: " + version);
+            }
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            checkSize(width, height);
+            int ghosts = buffer.getInt();
+            int players = buffer.getInt();
+
+            BitSet walls = readPlane(buffer, width * height);
+            BitSet pellets = readPlane(buffer, width * height);
+            int[] ghostSpawns = readSpawns(buffer, ghosts, width * height);
+            int[] playerSpawns = readSpawns(buffer, players, width * height);
+            return new CompactMap(width, height, walls, pellets, ghostSpawns, playerSpawns);
+        } catch (BufferUnderflowException e) {
+            throw new PacmanConfigurationException("Binary map is truncated.", e);
+        }
+    }
+
+    /**
+     * Reads a map in binary form from a stream, until the end of the stream.
+     *
+     * @param source The stream holding the map.
+     * @return The map read.
+     * @throws IOException When the stream could not be read.
+     * @throws PacmanConfigurationException If the bytes are not a binary map
+     *                                      of a supported version.
+     */
+    public static CompactMap read(InputStream source) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[READ_CHUNK_SIZE];
+        int read = source.read(chunk);
+        while (read >= 0) {
+            bytes.write(chunk, 0, read);
+            read = source.read(chunk);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     * Writes this map in binary form.
+     *
+     * @param target The stream to write to.
+     * @throws IOException When the stream could not be written.
+     */
+    public void write(OutputStream target) throws IOException {
+        target.write(toBytes().array());
+    }
+
+    /**
+     * @return This map in binary form, in a buffer backed by an array.
+     */
+    public ByteBuffer toBytes() {
+        int words = planeWords(width * height);
+        int size = HEADER_SIZE + 2 * words * Long.BYTES
+                + (ghostSpawns.length + playerSpawns.length) * Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC).put(VERSION);
+        buffer.putInt(width).putInt(height);
+        buffer.putInt(ghostSpawns.length).putInt(playerSpawns.length);
+        writePlane(buffer, walls, words);
+        writePlane(buffer, pellets, words);
+        for (int index : ghostSpawns) {
+            buffer.putInt(index);
+        }
+        for (int index : playerSpawns) {
+            buffer.putInt(index);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @return The amount of columns.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The amount of rows.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x The column of the square.
+     * @param y The row of the square.
+     * @return <code>true</code> iff the square is a wall.
+     */
+    public boolean isWall(int x, int y) {
+        return walls.get(x * height + y);
+    }
+
+    /**
+     * @param x The column of the square.
+     * @param y The row of the square.
+     * @return <code>true</code> iff the square holds a pellet.
+     */
+    public boolean hasPellet(int x, int y) {
+        return pellets.get(x * height + y);
+    }
+
+    /**
+     * @return The amount of pellets on the map.
+     */
+    public int getPelletCount() {
+        return pellets.cardinality();
+    }
+
+    /**
+     * @return The indices (<code>x * height + y</code>) of the squares with a
+     * ghost, ascending.
+     */
+    public int[] getGhostSpawns() {
+        return ghostSpawns.clone();
+    }
+
+    /**
+     * @return The indices (<code>x * height + y</code>) of the squares where
+     * a player starts, ascending.
+     */
+    public int[] getPlayerSpawns() {
+        return playerSpawns.clone();
+    }
+
+    /**
+     * Checks the map is not empty and its squares can be numbered by an int.
+     *
+     * @param width  The amount of columns.
+     * @param height The amount of rows.
+     */
+    private static void checkSize(int width, int height) {
+        if (width <= 0 || height <= 0
+                || (long) width * height > Integer.MAX_VALUE - BITS_PER_WORD) {
+            throw new PacmanConfigurationException("Invalid map size: "
+                    + width + "x" + height);
+        }
+    }
+
+    /**
+     * @param squares The amount of squares.
+     * @return The amount of words of a plane of the given amount of squares.
+     */
+    private static int planeWords(int squares) {
+        return (squares + BITS_PER_WORD - 1) / BITS_PER_WORD;
+    }
+
+    /**
+     * Reads a plane of bits.
+     *
+     * @param buffer  The buffer to read from.
+     * @param squares The amount of squares in the plane.
+     * @return The plane.
+     */
+    private static BitSet readPlane(ByteBuffer buffer, int squares) {
+        long[] words = new long[planeWords(squares)];
+        buffer.asLongBuffer().get(words);
+        buffer.position(buffer.position() + words.length * Long.BYTES);
+        BitSet plane = BitSet.valueOf(words);
+        if (plane.length() > squares) {
+            throw new PacmanConfigurationException("Binary map has bits beyond its size.");
+        }
+        return plane;
+    }
+
+    /**
+     * Writes a plane of bits.
+     *
+     * @param buffer The buffer to write to.
+     * @param plane  The plane.
+     * @param words  The amount of words of the plane.
+     */
+    private static void writePlane(ByteBuffer buffer, BitSet plane, int words) {
+        long[] bits = plane.toLongArray();
+        for (int i = 0; i < words; i++) {
+            long word = 0L;
+            if (i < bits.length) {
+                word = bits[i];
+            }
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Reads a list of spawns.
+     *
+     * @param buffer  The buffer to read from.
+     * @param count   The amount of spawns.
+     * @param squares The amount of squares on the map.
+     * @return The square indices of the spawns.
+     */
+    private static int[] readSpawns(ByteBuffer buffer, int count, int squares) {
+        if (count < 0 || count > squares) {
+            throw new PacmanConfigurationException("Invalid amount of spawns: " + count);
+        }
+        int[] spawns = new int[count];
+        for (int i = 0; i < count; i++) {
+            spawns[i] = buffer.getInt();
+            if (spawns[i] < 0 || spawns[i] >= squares
+                    || (i > 0 && spawns[i] <= spawns[i - 1])) {
+                throw new PacmanConfigurationException("Invalid spawn: " + spawns[i]);
+            }
+        }
+        return spawns;
+    }
+
+    /**
+     * @param values The values to copy.
+     * @return An array with the values.
+     */
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Collects the squares of a text map as they are read, and converts them
+     * once the size of the map is known.
+     */
+    private static final class TextCells implements MapScanner.Cells<CompactMap> {
+
+        /**
+         * The amount of squares there is room for at first.
+         */
+        private static final int INITIAL_CAPACITY = 64;
+
+        /**
+         * The characters of the squares read so far, row by row.
+         */
+        private byte[] squares = new byte[INITIAL_CAPACITY];
+
+        /**
+         * The amount of squares read so far.
+         */
+        private int count;
+
+        @Override
+        public void add(char c, int x, int y) {
+            switch (c) {
+                case ' ':
+                case '#':
+                case '.':
+                case 'G':
+                case 'P':
+                    break;
+                default:
+                    throw new PacmanConfigurationException("Invalid character at "
+                            + x + "," + y + ": " + c);
+            }
+            if (count == squares.length) {
+                squares = Arrays.copyOf(squares, count * 2);
+            }
+            squares[count++] = (byte) c;
+        }
+
+        @Override
+        public CompactMap complete(int width, int height) {
+            checkSize(width, height);
+            BitSet walls = new BitSet(width * height);
+            BitSet pellets = new BitSet(width * height);
+            List<Integer> ghosts = new ArrayList<>();
+            List<Integer> players = new ArrayList<>();
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    int index = x * height + y;
+                    switch (squares[y * width + x]) {
+                        case '#':
+                            walls.set(index);
+                            break;
+                        case '.':
+                            pellets.set(index);
+                            break;
+                        case 'G':
+                            ghosts.add(index);
+                            break;
+                        case 'P':
+                            players.add(index);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            return new CompactMap(width, height, walls, pellets,
+                    toArray(ghosts), toArray(players));
+        }
+    }
+}
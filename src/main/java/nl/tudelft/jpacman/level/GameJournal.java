@@ -0,0 +1,154 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.Direction;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An append-only log of everything that makes a game on a level play out the
+ * way it does: the seed of its random choices, the directions chosen by its
+ * players and NPCs and the ticks in which the units moved. A
+ * {@link GameReplayer} plays the game again from its journal, at full speed
+ * and without any timers.
+ * <p>
+ * The log is written as it happens; all numbers are big-endian:
+ * <pre>
+ * "JPRJ"     magic
+ * byte       format version ({@value #VERSION})
+ * long       seed of the level
+ * records:
+ *   byte 0                  a tick passed
+ *   byte 1 + direction      a unit chose the direction with that ordinal,
+ *   short unit              the index of the unit, players first
+ * </pre>
+ */
+public final class GameJournal implements Level.InputRecorder, Closeable {
+
+    /**
+     * The version of the format written.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * The bytes every journal starts with.
+     */
+    static final byte[] MAGIC = {'J', 'P', 'R', 'J'};
+
+    /**
+     * The record of a tick.
+     */
+    static final int TICK = 0;
+
+    /**
+     * The record of a direction chosen, to which the ordinal of the direction
+     * is added.
+     */
+    static final int DIRECTION = 1;
+
+    /**
+     * The level recorded.
+     */
+    private final Level level;
+
+    /**
+     * The stream the log is written to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * The first failure to write the log, or <code>null</code> if there was
+     * none.
+     */
+    private IOException failure;
+
+    /**
+     * Starts recording a level. The level is seeded, so it should not have
+     * been started yet.
+     *
+     * @param level  The level to record.
+     * @param seed   The seed of the random choices made on the level.
+     * @param target The stream to write the log to.
+     * @throws IOException When the start of the log could not be written.
+     */
+    public GameJournal(Level level, long seed, OutputStream target) throws IOException {
+        assert level != null;
+        assert target != null;
+        this.level = level;
+        this.out = new DataOutputStream(new BufferedOutputStream(target));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        level.setSeed(seed);
+        level.setRecorder(this);
+    }
+
+    @Override
+    public synchronized void directionChosen(int unit, Direction direction) {
+        assert unit <= Short.MAX_VALUE;
+        try {
+            out.writeByte(DIRECTION + direction.ordinal());
+            out.writeShort(unit);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Override
+    public synchronized void ticked(long tick) {
+        try {
+            out.writeByte(TICK);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Writes all records so far to the underlying stream.
+     *
+     * @throws IOException When the log could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        checkFailure();
+        out.flush();
+    }
+
+    /**
+     * Stops recording and closes the log.
+     *
+     * @throws IOException When the log could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        level.setRecorder(null);
+        synchronized (this) {
+            out.close();
+            checkFailure();
+        }
+    }
+
+    /**
+     * Remembers the first failure to write the log, to be thrown when the
+     * log is flushed or closed. Records are written while units wait to move,
+     * so failures are not thrown right away.
+     *
+     * @param e The failure.
+     */
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    /**
+     * @throws IOException The first failure to write the log, if any.
+     */
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
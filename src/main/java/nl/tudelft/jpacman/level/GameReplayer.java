@@ -0,0 +1,152 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Plays a game again from its {@link GameJournal}, without a UI or timers:
+ * every tick runs as soon as the previous one finished. Replaying a journal
+ * on a fresh level created from the same map, with the same players
+ * registered in the same order, ends in exactly the state the recorded
+ * level was in when the journal was closed.
+ */
+public final class GameReplayer {
+
+    /**
+     * The level the game is replayed on.
+     */
+    private final Level level;
+
+    /**
+     * Creates a new replayer.
+     *
+     * @param level The fresh level to replay the game on, with the players
+     *              registered, but not started.
+     */
+    public GameReplayer(Level level) {
+        assert level != null;
+        assert !level.isInProgress();
+        this.level = level;
+    }
+
+    /**
+     * Replays a whole journal.
+     *
+     * @param journal The stream holding the journal.
+     * @return The amount of ticks replayed.
+     * @throws IOException When the journal could not be read.
+     * @throws PacmanConfigurationException If the journal is malformed or
+     *                                      does not fit the level.
+     */
+    public long replay(InputStream journal) throws IOException {
+        return replay(journal, Long.MAX_VALUE);
+    }
+
+    /**
+     * Replays a journal up to a tick, for instance the tick just before
+     * something went wrong.
+     *
+     * @param journal The stream holding the journal.
+     * @param ticks   The amount of ticks to replay at most.
+     * @return The amount of ticks replayed.
+     * @throws IOException When the journal could not be read.
+     * @throws PacmanConfigurationException If the journal is malformed or
+     *                                      does not fit the level.
+     */
+    public long replay(InputStream journal, long ticks) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(journal));
+        readHeader(in);
+        int units = level.getPlayers().size() + level.getNpcs().size();
+        Direction[] directions = Direction.values();
+        long replayed = 0L;
+        try {
+            int record = in.read();
+            while (record >= 0 && replayed < ticks) {
+                if (record == GameJournal.TICK) {
+                    level.replayTick();
+                    replayed++;
+                } else if (record - GameJournal.DIRECTION < directions.length) {
+                    int unit = in.readUnsignedShort();
+                    if (unit >= units) {
+                        throw new PacmanConfigurationException("No unit " + unit
+                                + " on the level.");
+                    }
+                    level.replayDirection(unit, directions[record - GameJournal.DIRECTION]);
+                } else {
+                    throw new PacmanConfigurationException("Invalid record: " + record);
+                }
+                record = in.read();
+            }
+        } catch (EOFException e) {
+            throw new PacmanConfigurationException("Journal is truncated.", e);
+        }
+        return replayed;
+    }
+
+    /**
+     * Reads the start of a journal and seeds the level.
+     *
+     * @param in The stream holding the journal.
+     * @throws IOException When the journal could not be read.
+     */
+    private void readHeader(DataInputStream in) throws IOException {
+        byte[] magic = new byte[GameJournal.MAGIC.length];
+        try {
+            in.readFully(magic);
+            if (!Arrays.equals(GameJournal.MAGIC, magic)) {
+                throw new PacmanConfigurationException("Not a game journal.");
+            }
+            byte version = in.readByte();
+            if (version != GameJournal.VERSION) {
+                throw new PacmanConfigurationException(
+                        "Unsupported game journal version: " + version);
+            }
+            level.setSeed(in.readLong());
+        } catch (EOFException e) {
+            throw new PacmanConfigurationException("Journal is truncated.", e);
+        }
+    }
+
+    /**
+     * Replays the journal file named by the first argument of a single
+     * player game on the default board, and prints how it ended.
+     *
+     * @param args The journal file name.
+     * @throws IOException When a file could not be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: GameReplayer <journal>");
+            return;
+        }
+        PacManSprites sprites = new PacManSprites();
+        LevelTemplate template;
+        try (InputStream board = GameReplayer.class.getResourceAsStream("/board.txt")) {
+            template = LevelTemplate.fromText(board);
+        }
+        Level level = template.createLevel(new MapParser(
+                new LevelFactory(sprites, new GhostFactory(sprites)), new BoardFactory(sprites)));
+        PacManPlayer player = new PlayerFactory(sprites).createPacMan();
+        level.registerPacManPlayer(player);
+
+        long ticks;
+        try (InputStream journal = Files.newInputStream(Paths.get(args[0]))) {
+            ticks = new GameReplayer(level).replay(journal);
+        }
+        System.out.println("Ticks: " + ticks + ", score: " + player.getScore()
+                + ", alive: " + player.isAlive()
+                + ", pellets left: " + level.remainingPellets());
+    }
+}
@@ -5,21 +5,37 @@ import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.npc.ghost.FlowFields;
+import nl.tudelft.jpacman.npc.ghost.Ghost;
+import nl.tudelft.jpacman.npc.ghost.PathFinder;
 
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A level of Pac-Man. A level consists of the board with the players and the
  * AIs on it.
+ * <p>
+ * While in progress, the players and NPCs are moved by tasks on a scheduler.
+ * Levels either share a scheduler, so many levels can run on a bounded
+ * amount of threads, or create one of their own when they are first
+ * started. Levels that are no longer needed should be {@link #dispose()}d.
  *
  * @author Jeroen Roosen
  */
 public class Level {
 
+    /**
+     * The interval between two moves of the players, in milliseconds.
+     */
+    private static final long MOVE_INTERVAL = 200L;
+
     /**
      * The board of this level.
      */
@@ -37,9 +53,28 @@ public class Level {
     private final Object startStopLock = new Object();
 
     /**
-     * The NPCs of this level and, if they are running, their schedules.
+     * The NPCs of this level.
+     */
+    private final List<NPC> npcs;
+    /**
+     * The tasks moving the NPCs while this level is in progress.
+     */
+    private final List<NpcMoveTask> npcTasks = new ArrayList<>();
+    /**
+     * The scheduler shared with other levels, or <code>null</code> if this
+     * level uses a scheduler of its own.
      */
-    private final Map<NPC, ScheduledExecutorService> npcs;
+    private final ScheduledExecutorService sharedScheduler;
+    /**
+     * The scheduler of this level only, or <code>null</code> as long as it
+     * was not needed.
+     */
+    private ScheduledExecutorService ownScheduler;
+    /**
+     * The task moving the players while this level is in progress, or
+     * <code>null</code> if it is not.
+     */
+    private ScheduledFuture<?> moveTask;
     /**
      * The squares from which players can start this game.
      */
@@ -60,11 +95,32 @@ public class Level {
      * The objects observing this level.
      */
     private final List<LevelObserver> observers;
+    /**
+     * The pellets of this level, whether eaten or not.
+     */
+    private final List<Pellet> pellets;
+    /**
+     * The squares the pellets of this level were placed on, by pellet.
+     */
+    private final List<Square> pelletSquares;
+    /**
+     * The flow fields shared by the ghosts of this level, or
+     * <code>null</code> if they share none.
+     */
+    private final FlowFields flowFields;
+    /**
+     * The amount of pellets remaining on the board.
+     */
+    private final AtomicInteger pelletCount = new AtomicInteger();
+    /**
+     * Counter that is increased every time the state of this level changes.
+     */
+    private final AtomicLong version = new AtomicLong();
     /**
      * <code>true</code> iff this level is currently in progress, i.e. players
      * and NPCs can move.
      */
-    private boolean inProgress;
+    private volatile boolean inProgress;
     /**
      * The start current selected starting square.
      */
@@ -73,11 +129,25 @@ public class Level {
      * The start current selected starting square.
      */
     private int startGhostSquareIndex = 0;
-    private Map<Unit, Direction> directionMap = new HashMap<Unit, Direction>();
-    private Timer timer = new Timer();
+    /**
+     * The direction every unit moves in on the next tick, in the order in
+     * which the units first chose one, so every tick moves them in the same
+     * order.
+     */
+    private Map<Unit, Direction> directionMap = new LinkedHashMap<Unit, Direction>();
+    /**
+     * The amount of ticks this level was in progress for.
+     */
+    private long tick;
+    /**
+     * The recorder of the directions chosen and ticks passed, or
+     * <code>null</code> if nothing is recorded.
+     */
+    private InputRecorder recorder;
 
     /**
-     * Creates a new level for the board.
+     * Creates a new level for the board, which will move its units on a
+     * scheduler of its own.
      *
      * @param b                    The board for the level.
      * @param ghosts               The ghosts on the board.
@@ -87,6 +157,44 @@ public class Level {
      */
     public Level(Board b, List<NPC> ghosts, List<Square> startPacManPositions, List<Square> startGhostPositions,
                  CollisionMap collisionMap) {
+        this(b, ghosts, startPacManPositions, startGhostPositions, collisionMap, null);
+    }
+
+    /**
+     * Creates a new level for the board.
+     *
+     * @param b                    The board for the level.
+     * @param ghosts               The ghosts on the board.
+     * @param startPacManPositions The squares on which pacman players start on this board.
+     * @param startGhostPositions  The squares on which ghost players start on this board.
+     * @param collisionMap         The collection of collisions that should be handled.
+     * @param scheduler            The scheduler moving the units, shared with other
+     *                             levels, or <code>null</code> to let this level
+     *                             create a scheduler of its own.
+     */
+    public Level(Board b, List<NPC> ghosts, List<Square> startPacManPositions, List<Square> startGhostPositions,
+                 CollisionMap collisionMap, ScheduledExecutorService scheduler) {
+        this(b, ghosts, startPacManPositions, startGhostPositions, collisionMap, scheduler, null);
+    }
+
+    /**
+     * Creates a new level for the board, whose ghosts share flow fields.
+     *
+     * @param b                    The board for the level.
+     * @param ghosts               The ghosts on the board.
+     * @param startPacManPositions The squares on which pacman players start on this board.
+     * @param startGhostPositions  The squares on which ghost players start on this board.
+     * @param collisionMap         The collection of collisions that should be handled.
+     * @param scheduler            The scheduler moving the units, shared with other
+     *                             levels, or <code>null</code> to let this level
+     *                             create a scheduler of its own.
+     * @param fields               The flow fields shared by the ghosts, which
+     *                             track the units of this level, or
+     *                             <code>null</code> if they share none.
+     * @see nl.tudelft.jpacman.npc.ghost.GhostFactory#equipGhosts(Board, List)
+     */
+    public Level(Board b, List<NPC> ghosts, List<Square> startPacManPositions, List<Square> startGhostPositions,
+                 CollisionMap collisionMap, ScheduledExecutorService scheduler, FlowFields fields) {
         assert b != null;
         assert ghosts != null;
         assert startPacManPositions != null;
@@ -94,10 +202,8 @@ public class Level {
 
         this.board = b;
         this.inProgress = false;
-        this.npcs = new HashMap<>();
-        for (NPC g : ghosts) {
-            npcs.put(g, null);
-        }
+        this.npcs = new ArrayList<>(ghosts);
+        this.sharedScheduler = scheduler;
         this.startPacManSquares = startPacManPositions;
         this.startPacManSquareIndex = 0;
         this.startGhostSquares = startGhostPositions;
@@ -105,13 +211,69 @@ public class Level {
         this.players = new ArrayList<>();
         this.collisions = collisionMap;
         this.observers = new ArrayList<>();
+        this.pellets = new ArrayList<>();
+        this.pelletSquares = new ArrayList<>();
+        collectPellets();
+        this.flowFields = fields;
+        if (fields != null) {
+            for (NPC npc : npcs) {
+                fields.track(npc);
+            }
+        }
+    }
+
+    /**
+     * Finds the pellets on the board and starts counting them, so the
+     * remaining pellets never have to be counted on the board again.
+     */
+    private void collectPellets() {
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                Square square = board.squareAt(x, y);
+                for (Unit u : square.getOccupants()) {
+                    if (u instanceof Pellet) {
+                        Pellet pellet = (Pellet) u;
+                        pellets.add(pellet);
+                        pelletSquares.add(square);
+                        pellet.countIn(pelletCount);
+                        pelletCount.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
 
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                moveTimer();
+    /**
+     * Puts every pellet that was eaten back on the square it started on.
+     */
+    public void resetPellets() {
+        synchronized (moveLock) {
+            for (int i = 0; i < pellets.size(); i++) {
+                Pellet pellet = pellets.get(i);
+                if (pellet.getSquare() == null) {
+                    pellet.occupy(pelletSquares.get(i));
+                }
             }
-        }, 200, 200);
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all pellets from the board and returns them to a pool, to be
+     * reused by another level. This level should be discarded afterwards.
+     *
+     * @param pool The pool to return the pellets to.
+     */
+    public void releasePellets(PelletPool pool) {
+        synchronized (moveLock) {
+            for (Pellet pellet : pellets) {
+                pool.release(pellet);
+            }
+            pellets.clear();
+            pelletSquares.clear();
+            pelletCount.set(0);
+            version.incrementAndGet();
+        }
     }
 
     /**
@@ -179,8 +341,12 @@ public class Level {
             return;
         }
         players.add(p);
+        if (flowFields != null) {
+            flowFields.track(p);
+        }
         Square square = squareList.get(squareIndex);
         p.occupy(square);
+        version.incrementAndGet();
     }
 
     /**
@@ -193,28 +359,206 @@ public class Level {
     }
 
     /**
-     * Moves the unit into the given direction if possible and handles all
+     * @return The flow fields shared by the ghosts chasing the units of this
+     * level, or <code>null</code> if they share none.
+     */
+    public FlowFields getFlowFields() {
+        return flowFields;
+    }
+
+    /**
+     * Sets the strategy the ghosts of this level search paths with, in place
+     * of the one they were created with. Ghosts chasing Pac-Man through the
+     * flow fields of this level do not search paths.
+     *
+     * @param finder The path finder for the board of this level, or
+     *               <code>null</code> to search with
+     *               {@link nl.tudelft.jpacman.npc.ghost.Navigation}.
+     */
+    public void setPathFinder(PathFinder finder) {
+        for (NPC npc : npcs) {
+            if (npc instanceof Ghost) {
+                ((Ghost) npc).setPathFinder(finder);
+            }
+        }
+    }
+
+    /**
+     * @return An unmodifiable view of the NPCs of this level.
+     */
+    public List<NPC> getNpcs() {
+        return Collections.unmodifiableList(npcs);
+    }
+
+    /**
+     * Returns the pellets of this level, whether eaten or not, in the order
+     * in which they were found on the board: column by column. Eaten pellets
+     * are not on any square.
+     *
+     * @return An unmodifiable view of the pellets of this level.
+     */
+    public List<Pellet> getPellets() {
+        return Collections.unmodifiableList(pellets);
+    }
+
+    /**
+     * @return An unmodifiable view of the squares the pellets of this level
+     * were placed on, in the order of {@link #getPellets()}.
+     */
+    public List<Square> getPelletSquares() {
+        return Collections.unmodifiableList(pelletSquares);
+    }
+
+    /**
+     * Runs the inspector while no unit moves, so it sees the units and
+     * squares of this level in a consistent state. The inspector should be
+     * quick, as all movement waits for it.
+     *
+     * @param inspector The code reading the state of this level.
+     */
+    public void inspect(Runnable inspector) {
+        synchronized (moveLock) {
+            inspector.run();
+        }
+    }
+
+    /**
+     * Runs the update while no unit moves and marks this level as changed.
+     *
+     * @param update The code changing the state of this level.
+     */
+    void update(Runnable update) {
+        synchronized (moveLock) {
+            update.run();
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return An unmodifiable view of the players registered on this level,
+     * in the order in which they were registered.
+     */
+    List<Player> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * Advances this level by a tick if it is in progress: moves every unit
+     * one square into the direction it chose, if possible, and handles all
      * collisions.
      */
     public void moveTimer() {
-        if (!directionMap.isEmpty() && isInProgress()) {
-            for (Map.Entry<Unit, Direction> entry : directionMap.entrySet()) {
-                synchronized (moveLock) {
-                    Square location = entry.getKey().getSquare();
-                    Square destination = location.getSquareAt(entry.getValue());
-
-                    if (destination.isAccessibleTo(entry.getKey())) {
-                        entry.getKey().setDirection(entry.getValue());
-                        List<Unit> occupants = destination.getOccupants();
-                        entry.getKey().occupy(destination);
-                        for (Unit occupant : occupants) {
-                            collisions.collide(entry.getKey(), occupant);
-                        }
-                        updateObservers();
-                    }
+        synchronized (moveLock) {
+            if (isInProgress()) {
+                tick();
+            }
+        }
+    }
+
+    /**
+     * Moves every unit one square into the direction it chose, if possible,
+     * and handles all collisions. Callers must hold the move lock.
+     */
+    private void tick() {
+        for (Map.Entry<Unit, Direction> entry : directionMap.entrySet()) {
+            Square location = entry.getKey().getSquare();
+            Square destination = location.getSquareAt(entry.getValue());
+
+            if (destination.isAccessibleTo(entry.getKey())) {
+                entry.getKey().setDirection(entry.getValue());
+                List<Unit> occupants = destination.getOccupants();
+                entry.getKey().occupy(destination);
+                for (Unit occupant : occupants) {
+                    collisions.collide(entry.getKey(), occupant);
                 }
+                version.incrementAndGet();
+                updateObservers();
             }
         }
+        tick++;
+        if (recorder != null) {
+            recorder.ticked(tick);
+        }
+    }
+
+    /**
+     * @return The amount of ticks this level was in progress for.
+     */
+    public long getTick() {
+        synchronized (moveLock) {
+            return tick;
+        }
+    }
+
+    /**
+     * Seeds the random generators of the NPCs of this level, so they make
+     * the same choices every time the level is played the same way.
+     *
+     * @param seed The seed of this level.
+     */
+    public void setSeed(long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (NPC npc : npcs) {
+            npc.setSeed(seeds.nextLong());
+        }
+    }
+
+    /**
+     * Records the directions chosen by the units of this level and the ticks
+     * passed, in the order in which they take effect.
+     *
+     * @param inputRecorder The recorder, or <code>null</code> to stop
+     *                      recording.
+     */
+    public void setRecorder(InputRecorder inputRecorder) {
+        synchronized (moveLock) {
+            this.recorder = inputRecorder;
+        }
+    }
+
+    /**
+     * Replays a direction chosen by a unit, as recorded by an
+     * {@link InputRecorder}, whether this level is in progress or not.
+     *
+     * @param unit      The index of the unit: players first, then NPCs.
+     * @param direction The direction chosen.
+     */
+    void replayDirection(int unit, Direction direction) {
+        synchronized (moveLock) {
+            directionMap.put(unitAt(unit), direction);
+        }
+    }
+
+    /**
+     * Replays a tick, whether this level is in progress or not.
+     */
+    void replayTick() {
+        synchronized (moveLock) {
+            tick();
+        }
+    }
+
+    /**
+     * @param unit A player or NPC of this level.
+     * @return The index of the unit: players first, then NPCs.
+     */
+    private int indexOf(Unit unit) {
+        int index = players.indexOf(unit);
+        if (index < 0) {
+            index = players.size() + npcs.indexOf(unit);
+        }
+        return index;
+    }
+
+    /**
+     * @param index The index of a unit: players first, then NPCs.
+     * @return The unit with the index.
+     */
+    private Unit unitAt(int index) {
+        if (index < players.size()) {
+            return players.get(index);
+        }
+        return npcs.get(index - players.size());
     }
 
     public void move(Unit unit, Direction direction) {
@@ -232,6 +576,9 @@ public class Level {
 
             if (destination.isAccessibleTo(unit)) {
                 directionMap.put(unit, direction);
+                if (recorder != null) {
+                    recorder.directionChosen(indexOf(unit), direction);
+                }
             }
         }
     }
@@ -245,8 +592,15 @@ public class Level {
             if (isInProgress()) {
                 return;
             }
-            startNPCs();
             inProgress = true;
+            startNPCs();
+            moveTask = getScheduler().scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    moveTimer();
+                }
+            }, MOVE_INTERVAL, MOVE_INTERVAL, TimeUnit.MILLISECONDS);
+            version.incrementAndGet();
             updateObservers();
         }
     }
@@ -261,20 +615,62 @@ public class Level {
                 return;
             }
             stopNPCs();
+            moveTask.cancel(false);
+            moveTask = null;
             inProgress = false;
+            version.incrementAndGet();
         }
     }
 
+    /**
+     * Stops this level for good and releases its scheduler, unless it is
+     * shared with other levels.
+     */
+    public void dispose() {
+        synchronized (startStopLock) {
+            stop();
+            if (ownScheduler != null) {
+                ownScheduler.shutdownNow();
+                ownScheduler = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the scheduler moving the units of this level, creating a
+     * scheduler of its own if it has no shared one.
+     *
+     * @return The scheduler moving the units.
+     */
+    private ScheduledExecutorService getScheduler() {
+        if (sharedScheduler != null) {
+            return sharedScheduler;
+        }
+        if (ownScheduler == null) {
+            // one thread per NPC plus one for the players, as moves may
+            // take a while to compute.
+            ownScheduler = Executors.newScheduledThreadPool(npcs.size() + 1,
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "JPacman level");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+        }
+        return ownScheduler;
+    }
+
     /**
      * Starts all NPC movement scheduling.
      */
     private void startNPCs() {
-        for (final NPC npc : npcs.keySet()) {
-            ScheduledExecutorService service = Executors
-                    .newSingleThreadScheduledExecutor();
-            service.schedule(new NpcMoveTask(service, npc),
-                    npc.getInterval() / 2, TimeUnit.MILLISECONDS);
-            npcs.put(npc, service);
+        ScheduledExecutorService scheduler = getScheduler();
+        for (NPC npc : npcs) {
+            NpcMoveTask task = new NpcMoveTask(scheduler, npc);
+            npcTasks.add(task);
+            task.schedule(npc.getInterval() / 2);
         }
     }
 
@@ -283,9 +679,22 @@ public class Level {
      * executed.
      */
     private void stopNPCs() {
-        for (Entry<NPC, ScheduledExecutorService> e : npcs.entrySet()) {
-            e.getValue().shutdownNow();
+        for (NpcMoveTask task : npcTasks) {
+            task.cancel();
         }
+        npcTasks.clear();
+    }
+
+    /**
+     * Returns the version of this level, a counter that increases every time
+     * units move, players are registered or the level is started or stopped.
+     * Observers can compare versions to find out whether anything changed
+     * since they last looked.
+     *
+     * @return The current version of this level.
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     /**
@@ -334,23 +743,13 @@ public class Level {
     }
 
     /**
-     * Counts the pellets remaining on the board.
+     * Returns the amount of pellets remaining on the board. The pellets are
+     * counted as they are eaten, so this takes constant time.
      *
      * @return The amount of pellets remaining on the board.
      */
     public int remainingPellets() {
-        Board b = getBoard();
-        int pellets = 0;
-        for (int x = 0; x < b.getWidth(); x++) {
-            for (int y = 0; y < b.getHeight(); y++) {
-                for (Unit u : b.squareAt(x, y).getOccupants()) {
-                    if (u instanceof Pellet) {
-                        pellets++;
-                    }
-                }
-            }
-        }
-        return pellets;
+        return pelletCount.get();
     }
 
     /**
@@ -374,7 +773,32 @@ public class Level {
     }
 
     /**
-     * A task that moves an NPC and reschedules itself after it finished.
+     * Records what happens on a level, so it can be replayed. All methods
+     * are called while no unit moves, in the order in which the events take
+     * effect.
+     */
+    public interface InputRecorder {
+
+        /**
+         * A unit chose a direction to move in on the next ticks.
+         *
+         * @param unit      The index of the unit: players first, in the
+         *                  order in which they were registered, then NPCs.
+         * @param direction The direction chosen.
+         */
+        void directionChosen(int unit, Direction direction);
+
+        /**
+         * A tick passed, moving the units.
+         *
+         * @param tick The amount of ticks passed so far.
+         */
+        void ticked(long tick);
+    }
+
+    /**
+     * A task that moves an NPC and reschedules itself after it finished,
+     * until it is cancelled.
      *
      * @author Jeroen Roosen
      */
@@ -390,6 +814,17 @@ public class Level {
          */
         private final NPC npc;
 
+        /**
+         * The next scheduled execution of this task, or <code>null</code> if
+         * none was scheduled yet.
+         */
+        private ScheduledFuture<?> next;
+
+        /**
+         * <code>true</code> iff this task should no longer run.
+         */
+        private boolean cancelled;
+
         /**
          * Creates a new task.
          *
@@ -401,14 +836,35 @@ public class Level {
             this.npc = n;
         }
 
+        /**
+         * Schedules the next execution of this task, unless it is cancelled.
+         *
+         * @param delay The delay in milliseconds.
+         */
+        private synchronized void schedule(long delay) {
+            if (!cancelled) {
+                next = service.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        /**
+         * Cancels this task. A move being executed is finished, but the task
+         * is not scheduled again.
+         */
+        private synchronized void cancel() {
+            cancelled = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+
         @Override
         public void run() {
             Direction nextMove = npc.nextMove();
             if (nextMove != null) {
                 move(npc, nextMove);
             }
-            long interval = npc.getInterval();
-            service.schedule(this, interval, TimeUnit.MILLISECONDS);
+            schedule(npc.getInterval());
         }
     }
 }
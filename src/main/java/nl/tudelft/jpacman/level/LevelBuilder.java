@@ -0,0 +1,203 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.npc.ghost.Inky;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds a level from the squares of a text map read by a
+ * {@link MapScanner}, creating every square as soon as it is read.
+ * <p>
+ * Ghosts and player starting positions are only created once the whole map
+ * is read, in the column by column order in which
+ * {@link MapParser#parseMap(char[][])} creates them, so the ghosts of a map
+ * do not depend on how it is read.
+ * <p>
+ * A builder builds a single level and is not thread safe.
+ */
+class LevelBuilder implements MapScanner.Cells<Level> {
+
+    /**
+     * The amount of squares there is room for at first.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The factory that creates the levels.
+     */
+    private final LevelFactory levelCreator;
+
+    /**
+     * The factory that creates the squares and board.
+     */
+    private final BoardFactory boardCreator;
+
+    /**
+     * The squares read so far, row by row.
+     */
+    private Square[] squares = new Square[INITIAL_CAPACITY];
+
+    /**
+     * The amount of squares read so far.
+     */
+    private int count;
+
+    /**
+     * The squares that hold a ghost or player starting position.
+     */
+    private final List<Spawn> spawns = new ArrayList<>();
+
+    /**
+     * Creates a new builder.
+     *
+     * @param levelFactory The factory providing the NPC objects and the level.
+     * @param boardFactory The factory providing the Square objects and the board.
+     */
+    LevelBuilder(LevelFactory levelFactory, BoardFactory boardFactory) {
+        this.levelCreator = levelFactory;
+        this.boardCreator = boardFactory;
+    }
+
+    @Override
+    public void add(char c, int x, int y) {
+        if (count == squares.length) {
+            Square[] larger = new Square[count * 2];
+            System.arraycopy(squares, 0, larger, 0, count);
+            squares = larger;
+        }
+        squares[count++] = createSquare(c, x, y);
+    }
+
+    /**
+     * Creates the square represented by a character. Ghosts and players are
+     * only registered, to be created once the map is complete.
+     *
+     * @param c The character representing the square.
+     * @param x The column of the square.
+     * @param y The row of the square.
+     * @return The square represented by the character.
+     */
+    private Square createSquare(char c, int x, int y) {
+        switch (c) {
+            case ' ':
+                return boardCreator.createGround();
+            case '#':
+                return boardCreator.createWall();
+            case '.':
+                Square pelletSquare = boardCreator.createGround();
+                levelCreator.createPellet().occupy(pelletSquare);
+                return pelletSquare;
+            case 'G':
+            case 'P':
+                Square square = boardCreator.createGround();
+                spawns.add(new Spawn(x, y, c, square));
+                return square;
+            default:
+                throw new PacmanConfigurationException("Invalid character at "
+                        + x + "," + y + ": " + c);
+        }
+    }
+
+    @Override
+    public Level complete(int width, int height) {
+        Square[][] grid = new Square[width][height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                grid[x][y] = squares[y * width + x];
+            }
+        }
+        squares = null;
+
+        List<NPC> ghosts = new ArrayList<>();
+        List<Square> startPacManPositions = new ArrayList<>();
+        List<Square> startGhostPositions = new ArrayList<>();
+        createSpawns(ghosts, startPacManPositions, startGhostPositions);
+
+        Board board = boardCreator.createBoard(grid);
+        return levelCreator.createLevel(board, ghosts, startPacManPositions, startGhostPositions);
+    }
+
+    /**
+     * Creates the ghosts and player starting positions column by column.
+     *
+     * @param ghosts               The list to add the ghosts to.
+     * @param startPacManPositions The list to add Pac-Man's starting squares to.
+     * @param startGhostPositions  The list to add the ghost players' starting
+     *                             squares to.
+     */
+    private void createSpawns(List<NPC> ghosts, List<Square> startPacManPositions,
+                              List<Square> startGhostPositions) {
+        Collections.sort(spawns, new Comparator<Spawn>() {
+            @Override
+            public int compare(Spawn a, Spawn b) {
+                if (a.x != b.x) {
+                    return Integer.compare(a.x, b.x);
+                }
+                return Integer.compare(a.y, b.y);
+            }
+        });
+        for (Spawn spawn : spawns) {
+            if (spawn.type == 'P') {
+                startPacManPositions.add(spawn.square);
+                continue;
+            }
+            NPC ghost = levelCreator.createGhost();
+            if (ghost.getClass() != Inky.class) {
+                ghosts.add(ghost);
+                ghost.occupy(spawn.square);
+            } else {
+                startGhostPositions.add(spawn.square);
+            }
+        }
+        spawns.clear();
+    }
+
+    /**
+     * A square that holds a ghost or a player's starting position.
+     */
+    private static final class Spawn {
+
+        /**
+         * The column of the square.
+         */
+        private final int x;
+
+        /**
+         * The row of the square.
+         */
+        private final int y;
+
+        /**
+         * The character of the square, 'G' or 'P'.
+         */
+        private final char type;
+
+        /**
+         * The square itself.
+         */
+        private final Square square;
+
+        /**
+         * Creates a new spawn.
+         *
+         * @param x      The column of the square.
+         * @param y      The row of the square.
+         * @param type   The character of the square, 'G' or 'P'.
+         * @param square The square itself.
+         */
+        private Spawn(int x, int y, char type, Square square) {
+            this.x = x;
+            this.y = y;
+            this.type = type;
+            this.square = square;
+        }
+    }
+}
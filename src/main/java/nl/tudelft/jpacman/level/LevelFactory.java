@@ -12,6 +12,7 @@ import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Factory that creates levels and units.
@@ -39,6 +40,15 @@ public class LevelFactory {
      * The factory providing ghosts.
      */
     private final GhostFactory ghostFact;
+    /**
+     * The pool providing pellets.
+     */
+    private final PelletPool pelletPool;
+    /**
+     * The scheduler shared by the created levels, or <code>null</code> if
+     * every level uses its own.
+     */
+    private final ScheduledExecutorService scheduler;
     /**
      * Used to cycle through the various ghost types.
      */
@@ -51,13 +61,60 @@ public class LevelFactory {
      * @param ghostFactory The factory providing ghosts.
      */
     public LevelFactory(PacManSprites spriteStore, GhostFactory ghostFactory) {
+        this(spriteStore, ghostFactory, null);
+    }
+
+    /**
+     * Creates a new level factory whose pellets come from a pool, possibly
+     * shared with other factories.
+     *
+     * @param spriteStore  The sprite store providing the sprites for units.
+     * @param ghostFactory The factory providing ghosts.
+     * @param pellets      The pool providing pellets, or <code>null</code> for
+     *                     a pool of this factory's own.
+     */
+    public LevelFactory(PacManSprites spriteStore, GhostFactory ghostFactory,
+                        PelletPool pellets) {
+        this(spriteStore, ghostFactory, pellets, null);
+    }
+
+    /**
+     * Creates a new level factory whose levels share a scheduler.
+     *
+     * @param spriteStore    The sprite store providing the sprites for units.
+     * @param ghostFactory   The factory providing ghosts.
+     * @param pellets        The pool providing pellets, or <code>null</code>
+     *                       for a pool of this factory's own.
+     * @param levelScheduler The scheduler moving the units of all created
+     *                       levels, or <code>null</code> to let every level
+     *                       create its own.
+     */
+    public LevelFactory(PacManSprites spriteStore, GhostFactory ghostFactory,
+                        PelletPool pellets, ScheduledExecutorService levelScheduler) {
         this.sprites = spriteStore;
+        this.scheduler = levelScheduler;
         this.ghostIndex = -1;
         this.ghostFact = ghostFactory;
+        if (pellets == null) {
+            this.pelletPool = createPelletPool(spriteStore);
+        } else {
+            this.pelletPool = pellets;
+        }
     }
 
     /**
-     * Creates a new level from the provided data.
+     * Creates a pool of pellets of the default value.
+     *
+     * @param spriteStore The sprite store providing the pellet sprite.
+     * @return A new pool of pellets.
+     */
+    public static PelletPool createPelletPool(PacManSprites spriteStore) {
+        return new PelletPool(PELLET_VALUE, spriteStore.getPelletSprite());
+    }
+
+    /**
+     * Creates a new level from the provided data. The ghost factory of this
+     * factory prepares the ghosts to find their way on the board.
      *
      * @param board                The board with all ghosts and pellets occupying their squares.
      * @param ghosts               A list of all ghosts on the board.
@@ -70,7 +127,8 @@ public class LevelFactory {
         // We'll adopt the simple collision map for now.
         CollisionMap collisionMap = new PlayerCollisions();
 
-        return new Level(board, ghosts, startPacManPositions, startGhostPositions, collisionMap);
+        return new Level(board, ghosts, startPacManPositions, startGhostPositions, collisionMap,
+                scheduler, ghostFact.equipGhosts(board, ghosts));
     }
 
     /**
@@ -96,12 +154,19 @@ public class LevelFactory {
     }
 
     /**
-     * Creates a new pellet.
+     * Creates a new pellet, reusing a pooled one if available.
      *
-     * @return The new pellet.
+     * @return A pellet that is not on any square.
      */
     public Pellet createPellet() {
-        return new Pellet(PELLET_VALUE, sprites.getPelletSprite());
+        return pelletPool.acquire();
+    }
+
+    /**
+     * @return The pool providing the pellets of this factory.
+     */
+    public PelletPool getPelletPool() {
+        return pelletPool;
     }
 
     /**
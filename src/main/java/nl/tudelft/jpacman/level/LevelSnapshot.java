@@ -0,0 +1,407 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Takes snapshots of the state of a level and restores them, for instance
+ * to roll a game back or to show it to spectators. Only what changes while
+ * playing is captured: where the units are and which way they face, which
+ * pellets are left and the state and score of the players. The board itself
+ * is not, so a snapshot can only be restored into the level it was taken
+ * from, or a level created from the same template with the same players.
+ * <p>
+ * Snapshots are written into a single direct buffer that is reused for every
+ * snapshot, so taking one allocates nothing. All numbers are big-endian:
+ * <pre>
+ * int    magic ({@value #MAGIC})
+ * int    width, height
+ * short  units, units * (byte type, int square, byte direction, byte flags)
+ * int    pellets, (pellets + 63) / 64 * long, bit set iff the pellet is left
+ * short  players, players * int score
+ * </pre>
+ * Units are the players, in the order in which they were registered,
+ * followed by the NPCs. Squares are identified by their index
+ * <code>x * height + y</code>, or -1 for a unit not on the board. The flags
+ * of Pac-Man are 1 iff he is alive, those of a ghost player 1 iff it won.
+ */
+public final class LevelSnapshot {
+
+    /**
+     * The number every snapshot starts with, "JPLS".
+     */
+    public static final int MAGIC = 0x4A504C53;
+
+    /**
+     * Type of a Pac-Man player.
+     */
+    private static final byte PAC_MAN = 0;
+
+    /**
+     * Type of a ghost player.
+     */
+    private static final byte GHOST_PLAYER = 1;
+
+    /**
+     * Type of an NPC.
+     */
+    private static final byte NPC = 2;
+
+    /**
+     * Square index of a unit that is not on the board.
+     */
+    private static final int NO_SQUARE = -1;
+
+    /**
+     * The amount of bytes of the fields before the unit records.
+     */
+    private static final int HEADER_SIZE = 3 * Integer.BYTES + Short.BYTES;
+
+    /**
+     * The amount of bytes of a unit record.
+     */
+    private static final int UNIT_SIZE = Integer.BYTES + 3;
+
+    /**
+     * The level of which snapshots are taken.
+     */
+    private final Level level;
+
+    /**
+     * The players of the level followed by its NPCs.
+     */
+    private final List<Unit> units;
+
+    /**
+     * The amount of players, the first units.
+     */
+    private final int playerCount;
+
+    /**
+     * The buffer every snapshot is written into.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new snapshot taker for a level. Players should be registered
+     * on the level before.
+     *
+     * @param level The level to take snapshots of.
+     */
+    public LevelSnapshot(Level level) {
+        assert level != null;
+        this.level = level;
+        this.units = new ArrayList<>();
+        units.addAll(level.getPlayers());
+        units.addAll(level.getNpcs());
+        assert units.size() <= Short.MAX_VALUE;
+        this.playerCount = level.getPlayers().size();
+        this.buffer = ByteBuffer.allocateDirect(HEADER_SIZE + units.size() * UNIT_SIZE
+                + Integer.BYTES + words(level.getPellets().size()) * Long.BYTES
+                + Short.BYTES + playerCount * Integer.BYTES);
+    }
+
+    /**
+     * @return The amount of bytes of a snapshot.
+     */
+    public int getSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Takes a snapshot of the current state of the level. The snapshot is
+     * only valid until the next one is taken.
+     *
+     * @return The buffer holding the snapshot, ready to be read.
+     */
+    public ByteBuffer take() {
+        level.inspect(new Runnable() {
+            @Override
+            public void run() {
+                buffer.clear();
+                Board board = level.getBoard();
+                buffer.putInt(MAGIC).putInt(board.getWidth()).putInt(board.getHeight());
+                writeUnits();
+                writePellets();
+                writeScores();
+                buffer.flip();
+            }
+        });
+        return buffer;
+    }
+
+    /**
+     * Restores the level to the state in a snapshot taken of it. The
+     * snapshot is read from the position of the buffer onwards.
+     *
+     * @param snapshot The buffer holding the snapshot.
+     * @throws IllegalArgumentException If the snapshot was not taken of a
+     *                                  level like this one.
+     */
+    public void restore(final ByteBuffer snapshot) {
+        final ByteBuffer source = snapshot.duplicate();
+        try {
+            checkHeader(source);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Snapshot is truncated.", e);
+        }
+        level.update(new Runnable() {
+            @Override
+            public void run() {
+                readUnits(source);
+                readPellets(source);
+                readScores(source);
+            }
+        });
+    }
+
+    /**
+     * Writes a record of every unit.
+     */
+    private void writeUnits() {
+        buffer.putShort((short) units.size());
+        for (Unit unit : units) {
+            buffer.put(typeOf(unit)).putInt(indexOf(unit.getSquare()));
+            buffer.put((byte) unit.getDirection().ordinal()).put(flagsOf(unit));
+        }
+    }
+
+    /**
+     * Writes the bits telling which pellets are left.
+     */
+    private void writePellets() {
+        List<Pellet> pellets = level.getPellets();
+        buffer.putInt(pellets.size());
+        long word = 0L;
+        for (int i = 0; i < pellets.size(); i++) {
+            if (pellets.get(i).getSquare() != null) {
+                word |= 1L << i;
+            }
+            if (i % Long.SIZE == Long.SIZE - 1) {
+                buffer.putLong(word);
+                word = 0L;
+            }
+        }
+        if (pellets.size() % Long.SIZE != 0) {
+            buffer.putLong(word);
+        }
+    }
+
+    /**
+     * Writes the score of every player.
+     */
+    private void writeScores() {
+        buffer.putShort((short) playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            int score = 0;
+            if (units.get(i) instanceof PacManPlayer) {
+                score = ((PacManPlayer) units.get(i)).getScore();
+            }
+            buffer.putInt(score);
+        }
+    }
+
+    /**
+     * Checks a snapshot was taken of a level like this one, reading it
+     * without changing the level, so a bad snapshot is rejected before
+     * anything is restored.
+     *
+     * @param source The snapshot, positioned at its start.
+     */
+    private void checkHeader(ByteBuffer source) {
+        Board board = level.getBoard();
+        int start = source.position();
+        if (source.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a level snapshot.");
+        }
+        if (source.getInt() != board.getWidth() || source.getInt() != board.getHeight()
+                || source.getShort() != units.size()) {
+            throw new IllegalArgumentException("Snapshot of another level.");
+        }
+        checkUnits(source);
+        if (source.getInt() != level.getPellets().size()) {
+            throw new IllegalArgumentException("Snapshot of other pellets.");
+        }
+        source.position(source.position() + words(level.getPellets().size()) * Long.BYTES);
+        if (source.getShort() != playerCount) {
+            throw new IllegalArgumentException("Snapshot of other players.");
+        }
+        if (source.remaining() < playerCount * Integer.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        source.position(start + HEADER_SIZE);
+    }
+
+    /**
+     * Checks the unit records of a snapshot describe the units of the level.
+     *
+     * @param source The snapshot, positioned at the first unit record.
+     */
+    private void checkUnits(ByteBuffer source) {
+        Board board = level.getBoard();
+        int squares = board.getWidth() * board.getHeight();
+        for (Unit unit : units) {
+            byte type = source.get();
+            int square = source.getInt();
+            byte direction = source.get();
+            source.get();
+            if (type != typeOf(unit)) {
+                throw new IllegalArgumentException("Snapshot of other units: " + type);
+            }
+            if (square < NO_SQUARE || square >= squares) {
+                throw new IllegalArgumentException("Invalid square in snapshot: " + square);
+            }
+            if (direction < 0 || direction >= Direction.values().length) {
+                throw new IllegalArgumentException("Invalid direction in snapshot: "
+                        + direction);
+            }
+        }
+    }
+
+    /**
+     * Puts every unit back on its square, facing its direction.
+     *
+     * @param source The snapshot, positioned at the first unit record.
+     */
+    private void readUnits(ByteBuffer source) {
+        Direction[] directions = Direction.values();
+        for (Unit unit : units) {
+            source.get();
+            Square square = squareAt(source.getInt());
+            Direction direction = directions[source.get()];
+            boolean flag = source.get() != 0;
+            if (square == null) {
+                unit.leaveSquare();
+            } else if (unit.getSquare() != square) {
+                unit.occupy(square);
+            }
+            unit.setDirection(direction);
+            restoreFlags(unit, flag);
+        }
+    }
+
+    /**
+     * Puts back the pellets that were left and removes the others.
+     *
+     * @param source The snapshot, positioned at the amount of pellets.
+     */
+    private void readPellets(ByteBuffer source) {
+        List<Pellet> pellets = level.getPellets();
+        source.getInt();
+        long word = 0L;
+        for (int i = 0; i < pellets.size(); i++) {
+            if (i % Long.SIZE == 0) {
+                word = source.getLong();
+            }
+            Pellet pellet = pellets.get(i);
+            boolean left = (word & (1L << i)) != 0;
+            if (!left) {
+                pellet.leaveSquare();
+            } else if (pellet.getSquare() == null) {
+                pellet.occupy(level.getPelletSquares().get(i));
+            }
+        }
+    }
+
+    /**
+     * Restores whether a player is alive or has won.
+     *
+     * @param unit The unit to restore.
+     * @param flag The flag of the unit in the snapshot.
+     */
+    private static void restoreFlags(Unit unit, boolean flag) {
+        if (unit instanceof PacManPlayer) {
+            PacManPlayer pacMan = (PacManPlayer) unit;
+            if (pacMan.isAlive() != flag) {
+                pacMan.setAlive(flag);
+            }
+        } else if (unit instanceof GhostPlayer) {
+            ((GhostPlayer) unit).setWon(flag);
+        }
+    }
+
+    /**
+     * Restores the score of every player.
+     *
+     * @param source The snapshot, positioned at the amount of players.
+     */
+    private void readScores(ByteBuffer source) {
+        source.getShort();
+        for (int i = 0; i < playerCount; i++) {
+            int score = source.getInt();
+            if (units.get(i) instanceof PacManPlayer) {
+                ((PacManPlayer) units.get(i)).setScore(score);
+            }
+        }
+    }
+
+    /**
+     * @param square A square of the level, or <code>null</code>.
+     * @return The index of the square, or -1 for <code>null</code>.
+     */
+    private int indexOf(Square square) {
+        if (square == null) {
+            return NO_SQUARE;
+        }
+        return square.getX() * level.getBoard().getHeight() + square.getY();
+    }
+
+    /**
+     * @param index The index of a square, or -1.
+     * @return The square with the index, or <code>null</code> for -1.
+     */
+    private Square squareAt(int index) {
+        if (index == NO_SQUARE) {
+            return null;
+        }
+        Board board = level.getBoard();
+        return board.squareAt(index / board.getHeight(), index % board.getHeight());
+    }
+
+    /**
+     * @param unit A unit of the level.
+     * @return The type of the unit in a snapshot.
+     */
+    private static byte typeOf(Unit unit) {
+        if (unit instanceof PacManPlayer) {
+            return PAC_MAN;
+        }
+        if (unit instanceof GhostPlayer) {
+            return GHOST_PLAYER;
+        }
+        return NPC;
+    }
+
+    /**
+     * @param unit A unit of the level.
+     * @return 1 if the unit is Pac-Man and alive or a ghost player that won,
+     * 0 otherwise.
+     */
+    private static byte flagsOf(Unit unit) {
+        boolean flag = false;
+        if (unit instanceof PacManPlayer) {
+            flag = ((PacManPlayer) unit).isAlive();
+        } else if (unit instanceof GhostPlayer) {
+            flag = ((GhostPlayer) unit).isWon();
+        }
+        if (flag) {
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * @param bits An amount of bits.
+     * @return The amount of longs needed to hold the bits.
+     */
+    private static int words(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+}
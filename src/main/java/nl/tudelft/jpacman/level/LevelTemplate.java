@@ -0,0 +1,65 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * A map that is read once and then stamps out any amount of fresh levels.
+ * The template keeps the map in compact form, so creating a level only
+ * allocates its squares and units: no text is read or parsed again.
+ * <p>
+ * Templates are immutable and can be shared by threads; the parsers passed
+ * to {@link #createLevel(MapParser)} cannot.
+ */
+public final class LevelTemplate {
+
+    /**
+     * The map every level is created from.
+     */
+    private final CompactMap map;
+
+    /**
+     * Creates a new template.
+     *
+     * @param map The map every level is created from.
+     */
+    public LevelTemplate(CompactMap map) {
+        assert map != null;
+        this.map = map;
+    }
+
+    /**
+     * Creates a template from a map in the text format read by
+     * {@link MapParser#parseMap(List)}. The stream is read until its end.
+     *
+     * @param source The stream holding the text of the map.
+     * @return The template for the map.
+     * @throws IOException When the stream could not be read.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    public static LevelTemplate fromText(InputStream source) throws IOException {
+        return new LevelTemplate(CompactMap.fromText(source));
+    }
+
+    /**
+     * @return The map every level is created from.
+     */
+    public CompactMap getMap() {
+        return map;
+    }
+
+    /**
+     * Creates a fresh level from this template. Use a new parser, or at
+     * least a new level factory, for every level to give every level the
+     * same ghosts.
+     *
+     * @param parser The parser whose factories create the level.
+     * @return A new level, as described by the map.
+     */
+    public Level createLevel(MapParser parser) {
+        return parser.parseMap(map);
+    }
+}
@@ -0,0 +1,52 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Converts maps in the text format read by {@link MapParser} into the binary
+ * format of {@link CompactMap}:
+ * <pre>
+ * java nl.tudelft.jpacman.level.MapConverter board.txt board.jpml
+ * </pre>
+ */
+public final class MapConverter {
+
+    private MapConverter() {
+    }
+
+    /**
+     * Converts a text map file into a binary map file.
+     *
+     * @param source The text map file.
+     * @param target The binary map file to write.
+     * @throws IOException When a file could not be read or written.
+     */
+    public static void convert(Path source, Path target) throws IOException {
+        List<String> text = Files.readAllLines(source, StandardCharsets.UTF_8);
+        CompactMap map = CompactMap.fromText(text);
+        try (OutputStream out = Files.newOutputStream(target)) {
+            map.write(out);
+        }
+    }
+
+    /**
+     * Converts the text map file named by the first argument into the binary
+     * map file named by the second argument.
+     *
+     * @param args The source and target file names.
+     * @throws IOException When a file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MapConverter <text map> <binary map>");
+            return;
+        }
+        convert(Paths.get(args[0]), Paths.get(args[1]));
+    }
+}
@@ -7,12 +7,17 @@ import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.npc.NPC;
 import nl.tudelft.jpacman.npc.ghost.Inky;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Creates new {@link Level}s from text representations.
@@ -21,6 +26,21 @@ import java.util.List;
  */
 public class MapParser {
 
+    /**
+     * The amount of bytes read from a channel at once.
+     */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The amount of columns whose squares are created by a single task.
+     */
+    private static final int BAND_WIDTH = 64;
+
+    /**
+     * The amount of bytes of a file mapped into memory at once.
+     */
+    private static final long MAPPED_CHUNK_SIZE = 1L << 30;
+
     /**
      * The factory that creates the levels.
      */
@@ -63,63 +83,97 @@ public class MapParser {
         int height = map[0].length;
 
         Square[][] grid = new Square[width][height];
+        if (boardCreator.isParallel(width, height)) {
+            boardCreator.getPool().invoke(new SquareTask(map, grid, 0, width));
+        } else {
+            makeSquares(map, grid, 0, width);
+        }
 
         List<NPC> ghosts = new ArrayList<>();
         List<Square> startPacManPositions = new ArrayList<>();
         List<Square> startGhostPositions = new ArrayList<>();
 
-        makeGrid(map, width, height, grid, ghosts, startPacManPositions, startGhostPositions);
+        makeSpawns(map, grid, ghosts, startPacManPositions, startGhostPositions);
 
         Board board = boardCreator.createBoard(grid);
         return levelCreator.createLevel(board, ghosts, startPacManPositions, startGhostPositions);
     }
 
-    private void makeGrid(char[][] map, int width, int height,
-                          Square[][] grid, List<NPC> ghosts, List<Square> startPacManPositions, List<Square> startGhostPositions) {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                char c = map[x][y];
-                addSquare(grid, ghosts, startPacManPositions, startGhostPositions, x, y, c);
+    /**
+     * Creates the squares in a band of columns. Squares with a ghost or
+     * player are created empty, to be filled by
+     * {@link #makeSpawns(char[][], Square[][], List, List, List)}.
+     *
+     * @param map   The text representation of the board.
+     * @param grid  The grid to put the squares in.
+     * @param fromX The first column of the band.
+     * @param toX   The column after the last column of the band.
+     */
+    private void makeSquares(char[][] map, Square[][] grid, int fromX, int toX) {
+        for (int x = fromX; x < toX; x++) {
+            for (int y = 0; y < map[x].length; y++) {
+                grid[x][y] = createSquare(map[x][y], x, y);
             }
         }
     }
 
-    private void addSquare(Square[][] grid, List<NPC> ghosts,
-                           List<Square> startPacManPositions, List<Square> startGhostPositions, int x, int y, char c) {
+    /**
+     * Creates the square represented by a character, with a pellet if the
+     * character says so.
+     *
+     * @param c The character representing the square.
+     * @param x The column of the square.
+     * @param y The row of the square.
+     * @return The square represented by the character.
+     */
+    private Square createSquare(char c, int x, int y) {
         switch (c) {
             case ' ':
-                grid[x][y] = boardCreator.createGround();
-                break;
+            case 'G':
+            case 'P':
+                return boardCreator.createGround();
             case '#':
-                grid[x][y] = boardCreator.createWall();
-                break;
+                return boardCreator.createWall();
             case '.':
                 Square pelletSquare = boardCreator.createGround();
-                grid[x][y] = pelletSquare;
                 levelCreator.createPellet().occupy(pelletSquare);
-                break;
-            case 'G':
-                Square square = boardCreator.createGround();
-                NPC ghost = levelCreator.createGhost();
-                if (ghost.getClass() != Inky.class) {
-                    ghosts.add(ghost);
-                    ghost.occupy(square);
-                } else {
-                    startGhostPositions.add(square);
-                }
-                grid[x][y] = square;
-                break;
-            case 'P':
-                Square playerSquare = boardCreator.createGround();
-                grid[x][y] = playerSquare;
-                startPacManPositions.add(playerSquare);
-                break;
+                return pelletSquare;
             default:
                 throw new PacmanConfigurationException("Invalid character at "
                         + x + "," + y + ": " + c);
         }
     }
 
+    /**
+     * Creates the ghosts and player starting positions, column by column so
+     * every map always gets the same ghosts.
+     *
+     * @param map                  The text representation of the board.
+     * @param grid                 The squares of the board.
+     * @param ghosts               The list to add the ghosts to.
+     * @param startPacManPositions The list to add Pac-Man's starting squares to.
+     * @param startGhostPositions  The list to add the ghost players' starting
+     *                             squares to.
+     */
+    private void makeSpawns(char[][] map, Square[][] grid, List<NPC> ghosts,
+                            List<Square> startPacManPositions, List<Square> startGhostPositions) {
+        for (int x = 0; x < map.length; x++) {
+            for (int y = 0; y < map[x].length; y++) {
+                if (map[x][y] == 'G') {
+                    NPC ghost = levelCreator.createGhost();
+                    if (ghost.getClass() != Inky.class) {
+                        ghosts.add(ghost);
+                        ghost.occupy(grid[x][y]);
+                    } else {
+                        startGhostPositions.add(grid[x][y]);
+                    }
+                } else if (map[x][y] == 'P') {
+                    startPacManPositions.add(grid[x][y]);
+                }
+            }
+        }
+    }
+
     /**
      * Parses the list of strings into a 2-dimensional character array and
      * passes it on to {@link #parseMap(char[][])}.
@@ -152,7 +206,7 @@ public class MapParser {
      * @param text Map to be checked
      * @throws PacmanConfigurationException if map is not OK.
      */
-    private void checkMapFormat(List<String> text) {
+    static void checkMapFormat(List<String> text) {
         if (text == null) {
             throw new PacmanConfigurationException(
                     "Input text cannot be null.");
@@ -179,21 +233,188 @@ public class MapParser {
     }
 
     /**
-     * Parses the provided input stream as a character stream and passes it
-     * result to {@link #parseMap(List)}.
+     * Parses the provided input stream as a map in the text format read by
+     * {@link #parseMap(List)}. The stream is read until its end and closed.
      *
      * @param source The input stream that will be read.
      * @return The parsed level as represented by the text on the input stream.
      * @throws IOException when the source could not be read.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
      */
     public Level parseMap(InputStream source) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                source, "UTF-8"))) {
-            List<String> lines = new ArrayList<>();
-            while (reader.ready()) {
-                lines.add(reader.readLine());
+        try (ReadableByteChannel channel = Channels.newChannel(source)) {
+            return parseMap(channel);
+        }
+    }
+
+    /**
+     * Parses the bytes read from the channel as a map in the text format read
+     * by {@link #parseMap(List)}. The channel is read until its end, in a
+     * single pass that creates the squares as the bytes arrive.
+     *
+     * @param source The channel that will be read.
+     * @return The parsed level as represented by the text on the channel.
+     * @throws IOException when the source could not be read.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    public Level parseMap(ReadableByteChannel source) throws IOException {
+        MapScanner<Level> scanner = newScanner();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        while (source.read(buffer) >= 0) {
+            buffer.flip();
+            scanner.scan(buffer);
+            buffer.clear();
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * Parses the remaining bytes of the buffer as a map in the text format
+     * read by {@link #parseMap(List)}.
+     *
+     * @param source The buffer holding the map.
+     * @return The parsed level as represented by the text in the buffer.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    public Level parseMap(ByteBuffer source) {
+        MapScanner<Level> scanner = newScanner();
+        scanner.scan(source);
+        return scanner.finish();
+    }
+
+    /**
+     * Parses the file as a map in the text format read by
+     * {@link #parseMap(List)}. The file is memory-mapped and parsed straight
+     * from the mapped pages, without copying or decoding its contents. Files
+     * larger than a single mapping are mapped in consecutive chunks.
+     *
+     * @param file The file holding the map.
+     * @return The parsed level as represented by the text in the file.
+     * @throws IOException when the file could not be read.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    public Level parseMap(Path file) throws IOException {
+        MapScanner<Level> scanner = newScanner();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAPPED_CHUNK_SIZE) {
+                long length = Math.min(MAPPED_CHUNK_SIZE, size - position);
+                scanner.scan(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+        }
+        return scanner.finish();
+    }
+
+    /**
+     * @return A scanner that builds a level with the factories of this
+     * parser.
+     */
+    private MapScanner<Level> newScanner() {
+        return new MapScanner<>(new LevelBuilder(levelCreator, boardCreator));
+    }
+
+    /**
+     * Creates the level described by a compact map, without parsing any
+     * text. Ghosts are created in the same order as when parsing the map's
+     * text, so both yield the same level.
+     *
+     * @param map The map to create the level of.
+     * @return The level described by the map.
+     */
+    public Level parseMap(CompactMap map) {
+        int width = map.getWidth();
+        int height = map.getHeight();
+
+        Square[][] grid = new Square[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (map.isWall(x, y)) {
+                    grid[x][y] = boardCreator.createWall();
+                } else {
+                    grid[x][y] = boardCreator.createGround();
+                    if (map.hasPellet(x, y)) {
+                        levelCreator.createPellet().occupy(grid[x][y]);
+                    }
+                }
+            }
+        }
+
+        List<NPC> ghosts = new ArrayList<>();
+        List<Square> startGhostPositions = new ArrayList<>();
+        for (int index : map.getGhostSpawns()) {
+            Square square = grid[index / height][index % height];
+            NPC ghost = levelCreator.createGhost();
+            if (ghost.getClass() != Inky.class) {
+                ghosts.add(ghost);
+                ghost.occupy(square);
+            } else {
+                startGhostPositions.add(square);
+            }
+        }
+        List<Square> startPacManPositions = new ArrayList<>();
+        for (int index : map.getPlayerSpawns()) {
+            startPacManPositions.add(grid[index / height][index % height]);
+        }
+
+        Board board = boardCreator.createBoard(grid);
+        return levelCreator.createLevel(board, ghosts, startPacManPositions, startGhostPositions);
+    }
+
+    /**
+     * Task creating the squares of a band of columns, splitting it in halves
+     * until it is no wider than {@value #BAND_WIDTH} columns.
+     */
+    private final class SquareTask extends RecursiveAction {
+
+        /**
+         * Default serialisation ID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The text representation of the board.
+         */
+        private final char[][] map;
+
+        /**
+         * The grid to put the squares in.
+         */
+        private final transient Square[][] grid;
+
+        /**
+         * The first column of the band.
+         */
+        private final int fromX;
+
+        /**
+         * The column after the last column of the band.
+         */
+        private final int toX;
+
+        /**
+         * Creates a new task creating the squares of a band of columns.
+         *
+         * @param map   The text representation of the board.
+         * @param grid  The grid to put the squares in.
+         * @param fromX The first column of the band.
+         * @param toX   The column after the last column of the band.
+         */
+        private SquareTask(char[][] map, Square[][] grid, int fromX, int toX) {
+            this.map = map;
+            this.grid = grid;
+            this.fromX = fromX;
+            this.toX = toX;
+        }
+
+        @Override
+        protected void compute() {
+            if (toX - fromX <= BAND_WIDTH) {
+                makeSquares(map, grid, fromX, toX);
+                return;
             }
-            return parseMap(lines);
+            int half = fromX + (toX - fromX) / 2;
+            invokeAll(new SquareTask(map, grid, fromX, half),
+                    new SquareTask(map, grid, half, toX));
         }
     }
 }
@@ -0,0 +1,179 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a text map in a single pass, handing every square to a
+ * {@link Cells} as soon as it arrives. The bytes may be fed in chunks of
+ * any size; rows may span chunks. Rows end with <code>'\n'</code>,
+ * <code>'\r'</code> or <code>"\r\n"</code>, and must all be as wide as the
+ * first row.
+ * <p>
+ * All text maps are read by a scanner, whether they end up as a level or as
+ * a {@link CompactMap}, so the format is checked in a single place. A
+ * scanner reads a single map and is not thread safe.
+ *
+ * @param <T> The type of what is built from the map.
+ */
+class MapScanner<T> {
+
+    /**
+     * Builds something from the squares of a map, as they are read.
+     *
+     * @param <T> The type of what is built from the map.
+     */
+    interface Cells<T> {
+
+        /**
+         * Receives the next square of the map, row by row, top row first,
+         * and left to right within a row.
+         *
+         * @param c The character of the square.
+         * @param x The column of the square.
+         * @param y The row of the square.
+         * @throws PacmanConfigurationException If the character does not
+         *                                      represent a square.
+         */
+        void add(char c, int x, int y);
+
+        /**
+         * Completes the map, after all its squares were received.
+         *
+         * @param width  The amount of columns.
+         * @param height The amount of rows.
+         * @return What was built from the map.
+         */
+        T complete(int width, int height);
+    }
+
+    /**
+     * The receiver of the squares.
+     */
+    private final Cells<T> cells;
+
+    /**
+     * The width of the map, or -1 as long as the first row was not read.
+     */
+    private int width = -1;
+
+    /**
+     * The amount of rows read.
+     */
+    private int height;
+
+    /**
+     * The column of the next square in the current row.
+     */
+    private int column;
+
+    /**
+     * <code>true</code> iff the previous byte was a <code>'\r'</code>, so a
+     * following <code>'\n'</code> does not end another row.
+     */
+    private boolean afterCarriageReturn;
+
+    /**
+     * Creates a new scanner.
+     *
+     * @param cells The receiver of the squares.
+     */
+    MapScanner(Cells<T> cells) {
+        assert cells != null;
+        this.cells = cells;
+    }
+
+    /**
+     * Reads all remaining bytes of the buffer.
+     *
+     * @param buffer The next chunk of the map.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    void scan(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            accept(buffer.get());
+        }
+    }
+
+    /**
+     * Reads a complete row, without its line end.
+     *
+     * @param row The text of the row.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    void scanRow(String row) {
+        for (int i = 0; i < row.length(); i++) {
+            addSquare(row.charAt(i));
+        }
+        endRow();
+    }
+
+    /**
+     * Reads a single byte of the map.
+     *
+     * @param b The byte to read.
+     */
+    private void accept(byte b) {
+        char c = (char) (b & 0xFF);
+        boolean skip = afterCarriageReturn && c == '\n';
+        afterCarriageReturn = c == '\r';
+        if (skip) {
+            return;
+        }
+        if (c == '\n' || c == '\r') {
+            endRow();
+        } else {
+            addSquare(c);
+        }
+    }
+
+    /**
+     * Adds the square represented by a character to the current row.
+     *
+     * @param c The character representing the square.
+     */
+    private void addSquare(char c) {
+        if (column == width) {
+            throw new PacmanConfigurationException(
+                    "Input text lines are not of equal width.");
+        }
+        cells.add(c, column, height);
+        column++;
+    }
+
+    /**
+     * Completes the current row.
+     */
+    private void endRow() {
+        if (column == 0) {
+            throw new PacmanConfigurationException(
+                    "Input text lines cannot be empty.");
+        }
+        if (width < 0) {
+            width = column;
+        } else if (column != width) {
+            throw new PacmanConfigurationException(
+                    "Input text lines are not of equal width.");
+        }
+        height++;
+        column = 0;
+    }
+
+    /**
+     * Completes the map.
+     *
+     * @return What was built from the map.
+     * @throws PacmanConfigurationException If the map is not properly formatted.
+     */
+    T finish() {
+        if (column > 0) {
+            endRow();
+        }
+        if (height == 0) {
+            throw new PacmanConfigurationException(
+                    "Input text must consist of at least 1 row.");
+        }
+        return cells.complete(width, height);
+    }
+}
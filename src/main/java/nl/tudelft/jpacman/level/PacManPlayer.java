@@ -85,6 +85,15 @@ public class PacManPlayer extends Player {
         return deathSprite;
     }
 
+    /**
+     * Sets the score of this player, as when restoring a snapshot.
+     *
+     * @param points The amount of points of this player.
+     */
+    void setScore(int points) {
+        score = points;
+    }
+
     /**
      * Adds points to the score of this player.
      *
@@ -1,8 +1,11 @@
 package nl.tudelft.jpacman.level;
 
+import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.sprite.Sprite;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * A pellet, one of the little dots Pac-Man has to collect.
  *
@@ -20,6 +23,12 @@ public class Pellet extends Unit {
      */
     private final int value;
 
+    /**
+     * The counter of pellets on the board of the level this pellet belongs
+     * to, or <code>null</code> if this pellet is not counted.
+     */
+    private AtomicInteger counter;
+
     /**
      * Creates a new pellet.
      *
@@ -44,4 +53,32 @@ public class Pellet extends Unit {
     public Sprite getSprite() {
         return image;
     }
+
+    /**
+     * Lets this pellet keep a counter of the pellets on the board up to date:
+     * the counter is increased when it is placed on a square and decreased
+     * when it leaves its square.
+     *
+     * @param pelletCounter The counter to update, or <code>null</code> to stop
+     *                      counting this pellet.
+     */
+    void countIn(AtomicInteger pelletCounter) {
+        this.counter = pelletCounter;
+    }
+
+    @Override
+    public void occupy(Square target) {
+        if (counter != null && getSquare() == null) {
+            counter.incrementAndGet();
+        }
+        super.occupy(target);
+    }
+
+    @Override
+    public void leaveSquare() {
+        if (counter != null && getSquare() != null) {
+            counter.decrementAndGet();
+        }
+        super.leaveSquare();
+    }
 }
@@ -0,0 +1,107 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A pool of identical pellets, so levels that are created one after the
+ * other reuse the pellets of levels that were discarded, instead of
+ * allocating hundreds of new ones for every level. Pools are thread safe and
+ * can be shared by level factories.
+ */
+public class PelletPool {
+
+    /**
+     * The default maximum amount of idle pellets kept by a pool.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The point value of the pellets.
+     */
+    private final int value;
+
+    /**
+     * The sprite of the pellets.
+     */
+    private final Sprite sprite;
+
+    /**
+     * The maximum amount of idle pellets kept.
+     */
+    private final int capacity;
+
+    /**
+     * The idle pellets, ready to be reused.
+     */
+    private final Deque<Pellet> idle = new ArrayDeque<>();
+
+    /**
+     * Creates a new pool keeping at most {@value #DEFAULT_CAPACITY} idle
+     * pellets.
+     *
+     * @param points The point value of the pellets.
+     * @param image  The sprite of the pellets.
+     */
+    public PelletPool(int points, Sprite image) {
+        this(points, image, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new pool.
+     *
+     * @param points   The point value of the pellets.
+     * @param image    The sprite of the pellets.
+     * @param capacity The maximum amount of idle pellets kept.
+     */
+    public PelletPool(int points, Sprite image, int capacity) {
+        assert capacity >= 0;
+        this.value = points;
+        this.sprite = image;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns an idle pellet, or a new one if the pool is empty. The pellet
+     * is not on any square.
+     *
+     * @return A pellet that is not in use.
+     */
+    public Pellet acquire() {
+        synchronized (idle) {
+            Pellet pellet = idle.poll();
+            if (pellet != null) {
+                return pellet;
+            }
+        }
+        return new Pellet(value, sprite);
+    }
+
+    /**
+     * Takes a pellet out of use, removing it from its square. The pellet must
+     * not be used afterwards by whoever released it.
+     *
+     * @param pellet The pellet to return to the pool.
+     */
+    public void release(Pellet pellet) {
+        assert pellet != null;
+        pellet.leaveSquare();
+        pellet.countIn(null);
+        synchronized (idle) {
+            if (idle.size() < capacity) {
+                idle.push(pellet);
+            }
+        }
+    }
+
+    /**
+     * @return The amount of idle pellets in the pool.
+     */
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+}
@@ -3,6 +3,8 @@ package nl.tudelft.jpacman.npc;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Unit;
 
+import java.util.SplittableRandom;
+
 /**
  * A non-player unit.
  *
@@ -10,6 +12,48 @@ import nl.tudelft.jpacman.board.Unit;
  */
 public abstract class NPC extends Unit {
 
+    /**
+     * The source of the random choices of this unit. It is only used by the
+     * moves of this unit, which are computed one at a time, so it needs no
+     * synchronization.
+     */
+    private SplittableRandom random;
+
+    /**
+     * Creates a new NPC with an unseeded source of random choices.
+     */
+    protected NPC() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a new NPC.
+     *
+     * @param randomSource The source of the random choices of this unit,
+     *                     used by this unit only.
+     */
+    protected NPC(SplittableRandom randomSource) {
+        assert randomSource != null;
+        this.random = randomSource;
+    }
+
+    /**
+     * Seeds the random choices of this unit, so it makes the same choices
+     * every time it is in the same situation.
+     *
+     * @param seed The seed of the random choices.
+     */
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return The source of the random choices of this unit.
+     */
+    protected SplittableRandom getRandom() {
+        return random;
+    }
+
     /**
      * The time that should be taken between moves.
      *
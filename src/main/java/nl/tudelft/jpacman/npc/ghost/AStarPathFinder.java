@@ -0,0 +1,78 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * Finds shortest paths by an A* search, which expands the squares that look
+ * closest to the destination first. The estimate is the Manhattan distance
+ * on a torus: the board links squares on one edge to the squares on the
+ * opposite edge, so the distance along each axis is the shorter of the way
+ * across the board and the way around it. The estimate never exceeds the
+ * real distance, so the paths found are shortest paths.
+ */
+public class AStarPathFinder extends GridPathFinder {
+
+    /**
+     * Creates a new A* path finder.
+     *
+     * @param board The board to search.
+     */
+    public AStarPathFinder(Board board) {
+        super(board);
+    }
+
+    @Override
+    public boolean findPath(Square from, Square to, Unit traveller, CompactPath path) {
+        path.clear();
+        if (from == to) {
+            return true;
+        }
+        SearchScratch scratch = beginSearch();
+        LongHeap open = scratch.getOpen();
+        int start = indexOf(from);
+        int goal = indexOf(to);
+        scratch.reach(start, 0, start, null);
+        open.add(entry(estimate(from, to), start));
+        int expanded = 0;
+        while (!open.isEmpty() && !scratch.isClosed(goal)) {
+            int index = indexIn(open.poll());
+            if (!scratch.isClosed(index)) {
+                scratch.close(index);
+                expanded++;
+                expand(scratch, index, to, traveller);
+            }
+        }
+        expanded(expanded);
+        if (!scratch.isClosed(goal)) {
+            return false;
+        }
+        trace(start, goal, scratch, path);
+        return true;
+    }
+
+    /**
+     * Queues the neighbours of a square that were not reached as cheaply
+     * before.
+     *
+     * @param scratch   The buffers of the search.
+     * @param index     The index of the square expanded.
+     * @param to        The destination.
+     * @param traveller The traveller, or <code>null</code> to ignore terrain.
+     */
+    private void expand(SearchScratch scratch, int index, Square to, Unit traveller) {
+        Square square = squareAt(index);
+        int cost = scratch.getCost(index) + 1;
+        for (Direction d : DIRECTIONS) {
+            Square next = square.getSquareAt(d);
+            int n = indexOf(next);
+            int known = scratch.getCost(n);
+            if ((known == UNSEEN || cost < known) && isOpen(next, traveller)) {
+                scratch.reach(n, cost, index, d);
+                scratch.getOpen().add(entry(cost + estimate(next, to), n));
+            }
+        }
+    }
+}
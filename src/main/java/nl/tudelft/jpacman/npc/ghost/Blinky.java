@@ -1,13 +1,12 @@
 package nl.tudelft.jpacman.npc.ghost;
 
 import nl.tudelft.jpacman.board.Direction;
-import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.PacManPlayer;
 import nl.tudelft.jpacman.sprite.Sprite;
 
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * <p>
@@ -59,11 +58,22 @@ public class Blinky extends Ghost {
         super(spriteMap);
     }
 
+    /**
+     * Creates a new Blinky that makes its random choices from the given source.
+     *
+     * @param spriteMap    The sprites for this ghost.
+     * @param randomSource The source of the random choices of this ghost,
+     *                     used by this ghost only.
+     */
+    public Blinky(Map<Direction, Sprite> spriteMap, SplittableRandom randomSource) {
+        super(spriteMap, randomSource);
+    }
+
     @Override
     public long getInterval() {
         // TODO Blinky should speed up when there are a few pellets left, but he
         // has no way to find out how many there are.
-        return MOVE_INTERVAL + new Random().nextInt(INTERVAL_VARIATION);
+        return MOVE_INTERVAL + getRandom().nextInt(INTERVAL_VARIATION);
     }
 
     /**
@@ -83,21 +93,15 @@ public class Blinky extends Ghost {
     public Direction nextMove() {
         // TODO Blinky should patrol his corner every once in a while
         // TODO Implement his actual behaviour instead of simply chasing.
-        Square target = Navigation.findNearest(PacManPlayer.class, getSquare())
-                .getSquare();
-
-        if (target == null) {
-            Direction d = randomMove();
-            return d;
+        Unit player = nearest(PacManPlayer.class);
+        if (player == null) {
+            return randomMove();
         }
 
-        List<Direction> path = Navigation.shortestPath(getSquare(), target,
-                this);
-        if (path != null && !path.isEmpty()) {
-            Direction d = path.get(0);
+        Direction d = chase(player);
+        if (d != null) {
             return d;
         }
-        Direction d = randomMove();
-        return d;
+        return randomMove();
     }
 }
@@ -0,0 +1,56 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * Finds shortest paths by a breadth first search, which expands every square
+ * closer to the start than the destination.
+ */
+public class BreadthFirstPathFinder extends GridPathFinder {
+
+    /**
+     * Creates a new breadth first path finder.
+     *
+     * @param board The board to search.
+     */
+    public BreadthFirstPathFinder(Board board) {
+        super(board);
+    }
+
+    @Override
+    public boolean findPath(Square from, Square to, Unit traveller, CompactPath path) {
+        path.clear();
+        if (from == to) {
+            return true;
+        }
+        SearchScratch scratch = beginSearch();
+        int[] queue = scratch.getQueue();
+        int start = indexOf(from);
+        int goal = indexOf(to);
+        scratch.reach(start, 0, start, null);
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail && !scratch.isReached(goal)) {
+            int index = queue[head++];
+            Square square = squareAt(index);
+            for (Direction d : DIRECTIONS) {
+                Square next = square.getSquareAt(d);
+                int n = indexOf(next);
+                if (!scratch.isReached(n) && isOpen(next, traveller)) {
+                    scratch.reach(n, scratch.getCost(index) + 1, index, d);
+                    queue[tail++] = n;
+                }
+            }
+        }
+        expanded(head);
+        if (!scratch.isReached(goal)) {
+            return false;
+        }
+        trace(start, goal, scratch, path);
+        return true;
+    }
+}
@@ -1,14 +1,13 @@
 package nl.tudelft.jpacman.npc.ghost;
 
 import nl.tudelft.jpacman.board.Direction;
-import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.PacManPlayer;
 import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.EnumMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * <p>
@@ -69,7 +68,18 @@ public class Clyde extends Ghost {
      * @param spriteMap The sprites for this ghost.
      */
     public Clyde(Map<Direction, Sprite> spriteMap) {
-        super(spriteMap);
+        this(spriteMap, new SplittableRandom());
+    }
+
+    /**
+     * Creates a new Clyde that makes its random choices from the given source.
+     *
+     * @param spriteMap    The sprites for this ghost.
+     * @param randomSource The source of the random choices of this ghost,
+     *                     used by this ghost only.
+     */
+    public Clyde(Map<Direction, Sprite> spriteMap, SplittableRandom randomSource) {
+        super(spriteMap, randomSource);
         OPPOSITES.put(Direction.NORTH, Direction.SOUTH);
         OPPOSITES.put(Direction.SOUTH, Direction.NORTH);
         OPPOSITES.put(Direction.WEST, Direction.EAST);
@@ -78,7 +88,7 @@ public class Clyde extends Ghost {
 
     @Override
     public long getInterval() {
-        return MOVE_INTERVAL + new Random().nextInt(INTERVAL_VARIATION);
+        return MOVE_INTERVAL + getRandom().nextInt(INTERVAL_VARIATION);
     }
 
     /**
@@ -100,23 +110,19 @@ public class Clyde extends Ghost {
      */
     @Override
     public Direction nextMove() {
-        Square target = Navigation.findNearest(PacManPlayer.class, getSquare())
-                .getSquare();
-        if (target == null) {
+        Unit player = nearest(PacManPlayer.class);
+        if (player == null) {
             return randomMove();
         }
 
-        List<Direction> path = Navigation.shortestPath(getSquare(), target,
-                this);
-        if (path != null && !path.isEmpty()) {
-            Direction d = path.get(0);
-            if (path.size() <= SHYNESS) {
+        Direction d = chase(player);
+        if (d != null) {
+            if (distanceTo(player) <= SHYNESS) {
                 Direction oppositeDir = OPPOSITES.get(d);
                 return oppositeDir;
             }
             return d;
         }
-        Direction d = randomMove();
-        return d;
+        return randomMove();
     }
 }
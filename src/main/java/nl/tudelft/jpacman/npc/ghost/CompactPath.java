@@ -0,0 +1,140 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A path as a sequence of directions, stored in two bits each. A path can be
+ * searched into again and again, so searches do not have to allocate a new
+ * list of directions every time. Path finders outside this package fill a
+ * path with {@link #clear()}, {@link #add(Direction)} and
+ * {@link #reverse()}.
+ */
+public final class CompactPath {
+
+    /**
+     * The amount of bits of a single direction.
+     */
+    private static final int BITS = 2;
+
+    /**
+     * The amount of directions in a word.
+     */
+    private static final int PER_WORD = Long.SIZE / BITS;
+
+    /**
+     * The mask of a single direction.
+     */
+    private static final long MASK = (1L << BITS) - 1;
+
+    /**
+     * The initial amount of words.
+     */
+    private static final int INITIAL_WORDS = 4;
+
+    /**
+     * All directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The directions, the first in the lowest bits of the first word.
+     */
+    private long[] words = new long[INITIAL_WORDS];
+
+    /**
+     * The amount of directions.
+     */
+    private int length;
+
+    /**
+     * @return The amount of steps of this path.
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * @return <code>true</code> iff this path has no steps.
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * @param index The number of a step, starting at 0.
+     * @return The direction of the step.
+     */
+    public Direction get(int index) {
+        assert index >= 0 && index < length;
+        int shift = index % PER_WORD * BITS;
+        return DIRECTIONS[(int) (words[index / PER_WORD] >>> shift & MASK)];
+    }
+
+    /**
+     * @return The direction of the first step, or <code>null</code> if this
+     * path has no steps.
+     */
+    public Direction firstStep() {
+        if (length == 0) {
+            return null;
+        }
+        return get(0);
+    }
+
+    /**
+     * @return A new list of the directions of this path.
+     */
+    public List<Direction> toList() {
+        List<Direction> list = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    /**
+     * Removes all steps.
+     */
+    public void clear() {
+        length = 0;
+    }
+
+    /**
+     * Adds a step at the end of this path.
+     *
+     * @param direction The direction of the step.
+     */
+    public void add(Direction direction) {
+        assert direction != null;
+        if (length == words.length * PER_WORD) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        set(length++, direction);
+    }
+
+    /**
+     * Reverses the order of the steps, for searches that read a path back
+     * from its end.
+     */
+    public void reverse() {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            Direction d = get(i);
+            set(i, get(j));
+            set(j, d);
+        }
+    }
+
+    /**
+     * @param index     The number of a step.
+     * @param direction The direction of the step.
+     */
+    private void set(int index, Direction direction) {
+        int word = index / PER_WORD;
+        int shift = index % PER_WORD * BITS;
+        words[word] = words[word] & ~(MASK << shift) | (long) direction.ordinal() << shift;
+    }
+}
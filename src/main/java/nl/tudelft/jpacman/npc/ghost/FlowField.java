@@ -0,0 +1,170 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.Arrays;
+
+/**
+ * The distance from every square of a board to the square of a target unit,
+ * found by a single breadth first search from the target. Any number of
+ * ghosts chasing the target find their next move by stepping to a
+ * neighbouring square that is closer, without searching the board
+ * themselves.
+ * <p>
+ * The distances are computed again when they are asked for after the target
+ * moved, so at most once per move of the target. A field is safe to share
+ * between the threads moving the ghosts.
+ */
+public final class FlowField {
+
+    /**
+     * The distance of squares from which the target cannot be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * The board of the target.
+     */
+    private final Board board;
+
+    /**
+     * The unit the distances lead to.
+     */
+    private final Unit target;
+
+    /**
+     * The distance to the target by square index <code>x * height + y</code>,
+     * or <code>null</code> before it was first computed.
+     */
+    private int[] distances;
+
+    /**
+     * The queue of the breadth first search, reused for every search.
+     */
+    private Square[] queue;
+
+    /**
+     * The square of the target when the distances were computed.
+     */
+    private Square source;
+
+    /**
+     * The amount of times the distances were computed.
+     */
+    private long computations;
+
+    /**
+     * Creates a new flow field. Nothing is computed until it is first used.
+     *
+     * @param board  The board of the target.
+     * @param target The unit the distances lead to.
+     */
+    FlowField(Board board, Unit target) {
+        assert board != null;
+        assert target != null;
+        this.board = board;
+        this.target = target;
+    }
+
+    /**
+     * @return The unit the distances lead to.
+     */
+    public Unit getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the direction from a square to a neighbouring square that is
+     * one step closer to the target.
+     *
+     * @param from      The square to move from.
+     * @param traveller The unit moving, which must be able to enter the same
+     *                  squares as the other units sharing this field.
+     * @return The direction to move in, or <code>null</code> if the unit is on
+     * the target already, or cannot reach it.
+     */
+    public synchronized Direction directionFrom(Square from, Unit traveller) {
+        int distance = distanceFrom(from, traveller);
+        if (distance <= 0) {
+            return null;
+        }
+        for (Direction d : Direction.values()) {
+            if (distances[indexOf(from.getSquareAt(d))] == distance - 1) {
+                return d;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the amount of steps from a square to the target.
+     *
+     * @param from      The square to measure from.
+     * @param traveller The unit moving, which must be able to enter the same
+     *                  squares as the other units sharing this field.
+     * @return The amount of steps to the target, or {@value #UNREACHABLE} if
+     * it cannot be reached.
+     */
+    public synchronized int distanceFrom(Square from, Unit traveller) {
+        Square current = target.getSquare();
+        if (current == null) {
+            return UNREACHABLE;
+        }
+        if (current != source) {
+            compute(current, traveller);
+        }
+        return distances[indexOf(from)];
+    }
+
+    /**
+     * @return The amount of times the distances were computed.
+     */
+    public synchronized long getComputations() {
+        return computations;
+    }
+
+    /**
+     * Computes the distance from every square to the target by a breadth
+     * first search from the target's square.
+     *
+     * @param start     The square of the target.
+     * @param traveller The unit whose access to squares counts.
+     */
+    private void compute(Square start, Unit traveller) {
+        int squares = board.getWidth() * board.getHeight();
+        if (distances == null) {
+            distances = new int[squares];
+            queue = new Square[squares];
+        }
+        Arrays.fill(distances, UNREACHABLE);
+        distances[indexOf(start)] = 0;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            Square square = queue[head++];
+            int next = distances[indexOf(square)] + 1;
+            for (Direction d : Direction.values()) {
+                Square neighbour = square.getSquareAt(d);
+                int index = indexOf(neighbour);
+                if (distances[index] == UNREACHABLE && neighbour.isAccessibleTo(traveller)) {
+                    distances[index] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        source = start;
+        computations++;
+    }
+
+    /**
+     * @param square A square of the board.
+     * @return The index of the square.
+     */
+    private int indexOf(Square square) {
+        return square.getX() * board.getHeight() + square.getY();
+    }
+}
@@ -0,0 +1,117 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The {@link FlowField}s of a board, one for every unit chased on it, and
+ * the {@link NearestUnits} of every type of unit looked for. The ghosts of a
+ * level share these, so choosing and chasing a target takes at most a
+ * search of the board for each unit that moved, however many ghosts chase
+ * it.
+ */
+public final class FlowFields {
+
+    /**
+     * The board the units are on.
+     */
+    private final Board board;
+
+    /**
+     * The field leading to each unit chased so far.
+     */
+    private final ConcurrentMap<Unit, FlowField> fields = new ConcurrentHashMap<>();
+
+    /**
+     * The nearest units of each type looked for so far.
+     */
+    private final ConcurrentMap<Class<? extends Unit>, NearestUnits> nearest =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The units on the board that ghosts may look for.
+     */
+    private final List<Unit> units = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates the flow fields of a board. No field is created before a unit
+     * is chased.
+     *
+     * @param board The board the units are on.
+     */
+    public FlowFields(Board board) {
+        assert board != null;
+        this.board = board;
+    }
+
+    /**
+     * @param target A unit on the board.
+     * @return The flow field leading to the unit.
+     */
+    public FlowField towards(Unit target) {
+        FlowField field = fields.get(target);
+        if (field == null) {
+            FlowField created = new FlowField(board, target);
+            field = fields.putIfAbsent(target, created);
+            if (field == null) {
+                field = created;
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Lets ghosts look for a unit by {@link #nearest(Class, Square)}.
+     *
+     * @param unit A unit on the board, or joining it.
+     */
+    public void track(Unit unit) {
+        assert unit != null;
+        if (!units.contains(unit)) {
+            units.add(unit);
+        }
+    }
+
+    /**
+     * Finds the tracked unit of a type nearest to a square, like
+     * {@link Navigation#findNearest(Class, Square)}, but searching the board
+     * once for all squares until one of the units moves.
+     *
+     * @param type The type of unit to look for.
+     * @param from The square to look from.
+     * @return The nearest tracked unit of the type on the board, or
+     * <code>null</code> if there is none.
+     */
+    public Unit nearest(Class<? extends Unit> type, Square from) {
+        NearestUnits index = nearest.get(type);
+        if (index == null) {
+            NearestUnits created = new NearestUnits(board, type, units);
+            index = nearest.putIfAbsent(type, created);
+            if (index == null) {
+                index = created;
+            }
+        }
+        return index.nearestTo(from);
+    }
+
+    /**
+     * @return The amount of times the board was searched, for the flow
+     * fields and the nearest units together.
+     */
+    public long getSearches() {
+        long searches = 0L;
+        for (FlowField field : fields.values()) {
+            searches += field.getComputations();
+        }
+        for (NearestUnits index : nearest.values()) {
+            searches += index.getComputations();
+        }
+        return searches;
+    }
+}
@@ -2,16 +2,23 @@ package nl.tudelft.jpacman.npc.ghost;
 
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.npc.NPC;
 import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * An antagonist in the game of Pac-Man, a ghost.
+ * <p>
+ * Ghosts remember the last path they computed to their target. As long as
+ * the target stays on the same square and the ghost is still on the path,
+ * the rest of the path is reused instead of searching the board again.
+ * Ghosts chasing a unit on a level share the {@link FlowFields} of the
+ * level, so the unit is searched for once for all of them.
  *
  * @author Jeroen Roosen
  */
@@ -22,12 +29,64 @@ public abstract class Ghost extends NPC {
      */
     private Map<Direction, Sprite> sprites;
 
+    /**
+     * The target of the cached path, or <code>null</code> if no path is
+     * cached.
+     */
+    private Square pathTarget;
+
+    /**
+     * The directions of the cached path, reused for every path searched.
+     */
+    private final CompactPath pathDirections = new CompactPath();
+
+    /**
+     * The squares along the cached path, from the square it starts on up to
+     * and including its target.
+     */
+    private final List<Square> pathSquares = new ArrayList<>();
+
+    /**
+     * The position on the cached path where this ghost was last seen.
+     */
+    private int pathIndex;
+
+    /**
+     * The amount of times this ghost searched the board for a path.
+     */
+    private long pathSearches;
+
+    /**
+     * The flow fields shared by the ghosts of the level, or <code>null</code>
+     * if this ghost is not on a level.
+     */
+    private volatile FlowFields flowFields;
+
+    /**
+     * The strategy this ghost searches paths with, or <code>null</code> to
+     * search with {@link Navigation#shortestPath(Square, Square, Unit)}.
+     */
+    private volatile PathFinder pathFinder;
+
     /**
      * Creates a new ghost.
      *
      * @param spriteMap The sprites for every direction.
      */
     protected Ghost(Map<Direction, Sprite> spriteMap) {
+        this(spriteMap, new SplittableRandom());
+    }
+
+    /**
+     * Creates a new ghost that makes its random choices from the given
+     * source.
+     *
+     * @param spriteMap    The sprites for every direction.
+     * @param randomSource The source of the random choices of this ghost,
+     *                     used by this ghost only.
+     */
+    protected Ghost(Map<Direction, Sprite> spriteMap, SplittableRandom randomSource) {
+        super(randomSource);
         this.sprites = spriteMap;
     }
 
@@ -36,6 +95,181 @@ public abstract class Ghost extends NPC {
         return sprites.get(getDirection());
     }
 
+    /**
+     * Shares the flow fields of the level this ghost is on.
+     *
+     * @param fields The flow fields shared by the ghosts of the level.
+     */
+    public void setFlowFields(FlowFields fields) {
+        this.flowFields = fields;
+    }
+
+    /**
+     * Sets the strategy this ghost searches paths with. It is used for the
+     * squares this ghost heads for by {@link #stepTowards(Square)}, and for
+     * the units it chases while it has no flow fields.
+     *
+     * @param finder The path finder to use, or <code>null</code> to use
+     *               {@link Navigation#shortestPath(Square, Square, Unit)}.
+     */
+    public void setPathFinder(PathFinder finder) {
+        this.pathFinder = finder;
+    }
+
+    /**
+     * Finds the unit of a type nearest to this ghost. The shared flow fields
+     * are used if this ghost is on a level, so the board is searched once
+     * for all ghosts, otherwise this ghost searches the board itself.
+     *
+     * @param type The type of unit to look for.
+     * @return The nearest unit of the type, or <code>null</code> if there is
+     * none.
+     */
+    protected Unit nearest(Class<? extends Unit> type) {
+        FlowFields fields = flowFields;
+        if (fields != null) {
+            return fields.nearest(type, getSquare());
+        }
+        return Navigation.findNearest(type, getSquare());
+    }
+
+    /**
+     * Determines the first step of a shortest path to a unit. The shared
+     * flow field of the unit is used if this ghost is on a level, otherwise
+     * the path is searched by this ghost.
+     *
+     * @param target The unit to chase.
+     * @return The direction to move in, or <code>null</code> if this ghost is
+     * on the square of the unit or cannot reach it.
+     */
+    protected Direction chase(Unit target) {
+        FlowFields fields = flowFields;
+        if (fields != null) {
+            return fields.towards(target).directionFrom(getSquare(), this);
+        }
+        return stepTowards(target.getSquare());
+    }
+
+    /**
+     * Determines the length of a shortest path to a unit, like
+     * {@link #chase(Unit)}.
+     *
+     * @param target The unit to measure the distance to.
+     * @return The amount of steps to the unit, or
+     * {@value FlowField#UNREACHABLE} if this ghost cannot reach it.
+     */
+    protected int distanceTo(Unit target) {
+        FlowFields fields = flowFields;
+        if (fields != null) {
+            return fields.towards(target).distanceFrom(getSquare(), this);
+        }
+        return stepsTo(target.getSquare());
+    }
+
+    /**
+     * Determines the first step of a shortest path from the square of this
+     * ghost to a target, that this ghost can travel. The path computed last
+     * is reused if the target did not move, this ghost is still on the path
+     * and the next square of the path is accessible.
+     *
+     * @param target The square to go to.
+     * @return The direction to move in, or <code>null</code> if this ghost is
+     * on the target already or cannot reach it.
+     */
+    protected Direction stepTowards(Square target) {
+        if (!updatePath(target) || pathIndex == pathDirections.size()) {
+            return null;
+        }
+        return pathDirections.get(pathIndex);
+    }
+
+    /**
+     * Determines the length of a shortest path from the square of this ghost
+     * to a target, like {@link #stepTowards(Square)}.
+     *
+     * @param target The square to go to.
+     * @return The amount of steps to the target, or
+     * {@value FlowField#UNREACHABLE} if this ghost cannot reach it.
+     */
+    protected int stepsTo(Square target) {
+        if (!updatePath(target)) {
+            return FlowField.UNREACHABLE;
+        }
+        return pathDirections.size() - pathIndex;
+    }
+
+    /**
+     * Makes sure the cached path leads from the square of this ghost to a
+     * target, searching it again if it does not.
+     *
+     * @param target The square to go to.
+     * @return <code>true</code> iff there is a path to the target.
+     */
+    private boolean updatePath(Square target) {
+        Square location = getSquare();
+        if (target == pathTarget && followsPath(location)) {
+            return true;
+        }
+        pathSearches++;
+        PathFinder finder = pathFinder;
+        boolean found;
+        if (finder == null) {
+            found = Navigation.shortestPath(location, target, this, pathDirections);
+        } else {
+            found = finder.findPath(location, target, this, pathDirections);
+        }
+        cachePath(location, target, found);
+        return found;
+    }
+
+    /**
+     * Finds a square on the rest of the cached path.
+     *
+     * @param location The square of this ghost.
+     * @return <code>true</code> iff the square is on the rest of the cached
+     * path and the path is not blocked from there.
+     */
+    private boolean followsPath(Square location) {
+        for (int i = pathIndex; i < pathSquares.size(); i++) {
+            if (pathSquares.get(i) == location) {
+                pathIndex = i;
+                return i == pathDirections.size()
+                        || location.getSquareAt(pathDirections.get(i)).isAccessibleTo(this);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers the squares along a path just computed.
+     *
+     * @param from   The square the path starts on.
+     * @param target The target of the path.
+     * @param found  Whether a path was found.
+     */
+    private void cachePath(Square from, Square target, boolean found) {
+        pathSquares.clear();
+        pathIndex = 0;
+        if (!found) {
+            pathTarget = null;
+            return;
+        }
+        pathTarget = target;
+        Square square = from;
+        pathSquares.add(square);
+        for (int i = 0; i < pathDirections.size(); i++) {
+            square = square.getSquareAt(pathDirections.get(i));
+            pathSquares.add(square);
+        }
+    }
+
+    /**
+     * @return The amount of times this ghost searched the board for a path.
+     */
+    long getPathSearches() {
+        return pathSearches;
+    }
+
     /**
      * Determines a possible move in a random direction.
      *
@@ -53,7 +287,7 @@ public abstract class Ghost extends NPC {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = getRandom().nextInt(directions.size());
         return directions.get(i);
     }
 }
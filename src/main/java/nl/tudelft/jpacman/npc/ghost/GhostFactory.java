@@ -1,26 +1,121 @@
 package nl.tudelft.jpacman.npc.ghost;
 
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.npc.NPC;
 import nl.tudelft.jpacman.sprite.PacManSprites;
 
+import java.util.List;
+import java.util.SplittableRandom;
+
 /**
- * Factory that creates ghosts.
+ * Factory that creates ghosts. Every ghost gets a stream of random numbers
+ * of its own, split off the source of this factory, so ghosts never contend
+ * for a shared generator and a seeded factory creates ghosts that make the
+ * same choices every time. Like other factories, it is not thread safe.
+ * <p>
+ * The factory also decides how the ghosts of a level find their way, see
+ * {@link #equipGhosts(Board, List)}.
  *
  * @author Jeroen Roosen
  */
 public class GhostFactory {
 
+    /**
+     * The amount of squares from which the default path finders search over
+     * the entrances of clusters, rather than square by square.
+     */
+    private static final int HIERARCHICAL_SQUARES = 256 * 256;
+
+    /**
+     * Creates an A* path finder for every board, or a hierarchical one for
+     * very large boards.
+     */
+    public static final PathFinderFactory DEFAULT_PATH_FINDERS = new PathFinderFactory() {
+        @Override
+        public PathFinder createPathFinder(Board board) {
+            if (board.getWidth() * board.getHeight() >= HIERARCHICAL_SQUARES) {
+                return new HierarchicalPathFinder(board);
+            }
+            return new AStarPathFinder(board);
+        }
+    };
+
     /**
      * The sprite store containing the ghost sprites.
      */
     private final PacManSprites sprites;
 
     /**
-     * Creates a new ghost factory.
+     * The source the random streams of the ghosts are split off.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Creates the path finders of the ghosts on every new level.
+     */
+    private final PathFinderFactory pathFinders;
+
+    /**
+     * Creates a new ghost factory with an unseeded source of random numbers.
      *
      * @param spriteStore The sprite provider.
      */
     public GhostFactory(PacManSprites spriteStore) {
+        this(spriteStore, new SplittableRandom());
+    }
+
+    /**
+     * Creates a new ghost factory.
+     *
+     * @param spriteStore  The sprite provider.
+     * @param randomSource The source the random streams of the ghosts are
+     *                     split off, for instance seeded for a reproducible
+     *                     game.
+     */
+    public GhostFactory(PacManSprites spriteStore, SplittableRandom randomSource) {
+        this(spriteStore, randomSource, DEFAULT_PATH_FINDERS);
+    }
+
+    /**
+     * Creates a new ghost factory whose ghosts search paths with the given
+     * strategy.
+     *
+     * @param spriteStore  The sprite provider.
+     * @param randomSource The source the random streams of the ghosts are
+     *                     split off.
+     * @param finders      Creates the path finder of every new level.
+     */
+    public GhostFactory(PacManSprites spriteStore, SplittableRandom randomSource,
+                        PathFinderFactory finders) {
+        assert randomSource != null;
+        assert finders != null;
         this.sprites = spriteStore;
+        this.random = randomSource;
+        this.pathFinders = finders;
+    }
+
+    /**
+     * Prepares the ghosts of a new level to find their way on its board.
+     * All ghosts share the returned flow fields, through which Blinky and
+     * Clyde chase Pac-Man. Pinky and Inky head for squares near Pac-Man
+     * instead, and search their paths with the path finder of this factory,
+     * as does any ghost that is not given flow fields.
+     *
+     * @param board  The board of the level.
+     * @param ghosts The NPCs of the level; the ghosts among them are
+     *               prepared.
+     * @return The flow fields shared by the ghosts.
+     */
+    public FlowFields equipGhosts(Board board, List<NPC> ghosts) {
+        FlowFields fields = new FlowFields(board);
+        PathFinder finder = pathFinders.createPathFinder(board);
+        for (NPC npc : ghosts) {
+            if (npc instanceof Ghost) {
+                ((Ghost) npc).setFlowFields(fields);
+                ((Ghost) npc).setPathFinder(finder);
+            }
+        }
+        return fields;
     }
 
     /**
@@ -30,7 +125,7 @@ public class GhostFactory {
      * @see Blinky
      */
     public Ghost createBlinky() {
-        return new Blinky(sprites.getGhostSprite(GhostColor.RED));
+        return new Blinky(sprites.getGhostSprite(GhostColor.RED), random.split());
     }
 
     /**
@@ -40,7 +135,7 @@ public class GhostFactory {
      * @see Pinky
      */
     public Ghost createPinky() {
-        return new Pinky(sprites.getGhostSprite(GhostColor.PINK));
+        return new Pinky(sprites.getGhostSprite(GhostColor.PINK), random.split());
     }
 
     /**
@@ -50,7 +145,7 @@ public class GhostFactory {
      * @see Inky
      */
     public Ghost createInky() {
-        return new Inky(sprites.getGhostSprite(GhostColor.CYAN));
+        return new Inky(sprites.getGhostSprite(GhostColor.CYAN), random.split());
     }
 
     /**
@@ -60,6 +155,6 @@ public class GhostFactory {
      * @see Clyde
      */
     public Ghost createClyde() {
-        return new Clyde(sprites.getGhostSprite(GhostColor.ORANGE));
+        return new Clyde(sprites.getGhostSprite(GhostColor.ORANGE), random.split());
     }
 }
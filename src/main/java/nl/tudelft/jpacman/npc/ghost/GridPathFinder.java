@@ -0,0 +1,235 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base of the path finders on the squares of a single board. Squares are
+ * identified by their index <code>x * height + y</code>, so searches keep
+ * their state in arrays rather than in sets of squares. Every thread keeps
+ * a single set of these arrays for all its searches, on whatever board,
+ * grown to the largest search it ran so far.
+ */
+abstract class GridPathFinder implements PathFinder {
+
+    /**
+     * Marks squares in a search that were not reached.
+     */
+    protected static final int UNSEEN = -1;
+
+    /**
+     * The amount of bits of a queue entry holding the index.
+     */
+    private static final int INDEX_BITS = 32;
+
+    /**
+     * The mask of the index in a queue entry.
+     */
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+
+    /**
+     * All directions, in the order the searches try them.
+     */
+    protected static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The board searched.
+     */
+    private final Board board;
+
+    /**
+     * The total amount of squares expanded.
+     */
+    private final AtomicLong expansions = new AtomicLong();
+
+    /**
+     * The search buffers of each thread, shared by all path finders.
+     */
+    private static final ThreadLocal<SearchScratch> BUFFERS = new ThreadLocal<>();
+
+    /**
+     * Creates a new path finder.
+     *
+     * @param board The board to search.
+     */
+    protected GridPathFinder(Board board) {
+        assert board != null;
+        this.board = board;
+    }
+
+    /**
+     * @return The board searched.
+     */
+    protected Board getBoard() {
+        return board;
+    }
+
+    @Override
+    public List<Direction> findPath(Square from, Square to, Unit traveller) {
+        CompactPath path = new CompactPath();
+        if (!findPath(from, to, traveller, path)) {
+            return null;
+        }
+        return path.toList();
+    }
+
+    @Override
+    public long getExpansions() {
+        return expansions.get();
+    }
+
+    /**
+     * Counts squares expanded by a search.
+     *
+     * @param count The amount of squares the search expanded.
+     */
+    protected void expanded(int count) {
+        expansions.addAndGet(count);
+    }
+
+    /**
+     * Starts a search with the buffers of the current thread, replacing them
+     * by larger buffers if they are too small for this board. A thread runs
+     * a single search at a time, so the buffers are valid until the thread
+     * starts its next search.
+     *
+     * @return The buffers, with no state reached.
+     */
+    protected SearchScratch beginSearch() {
+        int states = size() * statesPerSquare();
+        SearchScratch scratch = BUFFERS.get();
+        if (scratch == null || scratch.getStates() < states) {
+            scratch = new SearchScratch(states);
+            BUFFERS.set(scratch);
+        }
+        scratch.begin();
+        return scratch;
+    }
+
+    /**
+     * @return The amount of search states for every square of the board.
+     */
+    protected int statesPerSquare() {
+        return 1;
+    }
+
+    /**
+     * @param square A square of the board.
+     * @return The index of the square.
+     */
+    protected int indexOf(Square square) {
+        return square.getX() * board.getHeight() + square.getY();
+    }
+
+    /**
+     * @param index The index of a square.
+     * @return The square with the index.
+     */
+    protected Square squareAt(int index) {
+        int height = board.getHeight();
+        return board.squareAt(index / height, index % height);
+    }
+
+    /**
+     * @return The amount of squares on the board.
+     */
+    protected int size() {
+        return board.getWidth() * board.getHeight();
+    }
+
+    /**
+     * Estimates the distance between two squares as the Manhattan distance
+     * on a torus. The board links squares on one edge to the squares on the
+     * opposite edge, so the distance along each axis is the shorter of the
+     * way across the board and the way around it.
+     *
+     * @param a The first square.
+     * @param b The second square.
+     * @return An estimate that is never more than the length of a shortest
+     * path between the squares.
+     */
+    protected int estimate(Square a, Square b) {
+        return wrapped(Math.abs(a.getX() - b.getX()), board.getWidth())
+                + wrapped(Math.abs(a.getY() - b.getY()), board.getHeight());
+    }
+
+    /**
+     * @param distance The distance along an axis across the board.
+     * @param length   The length of the board along the axis.
+     * @return The shorter of the distance across and around the board.
+     */
+    private static int wrapped(int distance, int length) {
+        return Math.min(distance, length - distance);
+    }
+
+    /**
+     * Creates an entry of a queue of squares to expand, which orders by
+     * estimated path length first.
+     *
+     * @param length The estimated length of a path through the square.
+     * @param index  The index of the square, or of a search state of it.
+     * @return The entry.
+     */
+    protected static long entry(int length, int index) {
+        return ((long) length << INDEX_BITS) | index;
+    }
+
+    /**
+     * @param entry An entry of a queue of squares to expand.
+     * @return The index in the entry.
+     */
+    protected static int indexIn(long entry) {
+        return (int) (entry & INDEX_MASK);
+    }
+
+    /**
+     * Determines whether a traveller may enter a square.
+     *
+     * @param square    The square to enter.
+     * @param traveller The traveller, or <code>null</code> to ignore terrain.
+     * @return <code>true</code> iff the square may be entered.
+     */
+    protected static boolean isOpen(Square square, Unit traveller) {
+        return traveller == null || square.isAccessibleTo(traveller);
+    }
+
+    /**
+     * @param d A direction.
+     * @return The direction opposite to it.
+     */
+    protected static Direction opposite(Direction d) {
+        switch (d) {
+            case NORTH:
+                return Direction.SOUTH;
+            case SOUTH:
+                return Direction.NORTH;
+            case WEST:
+                return Direction.EAST;
+            default:
+                return Direction.WEST;
+        }
+    }
+
+    /**
+     * Reads a path back from the states a search reached, one step per
+     * state.
+     *
+     * @param from    The starting state.
+     * @param to      The state of the destination.
+     * @param scratch The buffers of the search.
+     * @param path    The path to store the directions from the start to the
+     *                destination in.
+     */
+    protected static void trace(int from, int to, SearchScratch scratch, CompactPath path) {
+        path.clear();
+        for (int i = to; i != from; i = scratch.getParent(i)) {
+            path.add(scratch.getVia(i));
+        }
+        path.reverse();
+    }
+}
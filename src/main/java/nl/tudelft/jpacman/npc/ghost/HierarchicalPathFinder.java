@@ -0,0 +1,820 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds paths by hierarchical A* (HPA*), for boards too large to search
+ * square by square. The board is divided into square clusters. Where two
+ * clusters border, every open stretch of the border gets one or two
+ * entrances, and the distances between the entrances of each cluster are
+ * computed once, when the first path is searched. A search then runs A* over
+ * the entrances only, and refines every step between two entrances by an
+ * exact search inside a single cluster.
+ * <p>
+ * The paths found lead to the destination, but may be longer than a
+ * shortest path, as they cross borders at the entrances only: a few percent
+ * in total over random searches, though a short path between two clusters
+ * may take a detour several times its length. The
+ * entrances are found for the traveller of the first search, so all
+ * travellers should be able to enter the same squares, and must start on a
+ * square they may enter. When the entrances do not lead to the destination,
+ * or a step between two of them turns out to be closed to the traveller, the
+ * path is searched anew by A* over the squares, so a path is found whenever
+ * one exists.
+ * <p>
+ * The entrances are kept in flat arrays, and the searches over them and
+ * inside the clusters use buffers each thread keeps from one search to the
+ * next, so a search only allocates the list of its waypoints.
+ */
+public class HierarchicalPathFinder extends GridPathFinder {
+
+    /**
+     * The default amount of squares per side of a cluster.
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+
+    /**
+     * The length from which an open stretch of border gets an entrance at
+     * either end, rather than a single one in its middle.
+     */
+    private static final int WIDE_ENTRANCE = 6;
+
+    /**
+     * The amount of edges the entrances start out with room for.
+     */
+    private static final int INITIAL_EDGES = 64;
+
+    /**
+     * The buffers of the searches inside a cluster of each thread, shared by
+     * all hierarchical path finders.
+     */
+    private static final ThreadLocal<ClusterScratch> CLUSTER_BUFFERS = new ThreadLocal<>();
+
+    /**
+     * The amount of squares per side of a cluster.
+     */
+    private final int clusterSize;
+
+    /**
+     * The amount of clusters in a column of clusters.
+     */
+    private final int clusterRows;
+
+    /**
+     * The entrances and the distances between them, or <code>null</code>
+     * before the first search.
+     */
+    private volatile Graph graph;
+
+    /**
+     * The search for paths the entrances do not lead to.
+     */
+    private final AStarPathFinder exact;
+
+    /**
+     * Creates a new hierarchical path finder with clusters of the default
+     * size.
+     *
+     * @param board The board to search.
+     */
+    public HierarchicalPathFinder(Board board) {
+        this(board, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Creates a new hierarchical path finder.
+     *
+     * @param board       The board to search.
+     * @param clusterSize The amount of squares per side of a cluster.
+     */
+    public HierarchicalPathFinder(Board board, int clusterSize) {
+        super(board);
+        assert clusterSize > 0;
+        this.clusterSize = clusterSize;
+        this.clusterRows = (board.getHeight() + clusterSize - 1) / clusterSize;
+        this.exact = new AStarPathFinder(board);
+    }
+
+    @Override
+    public boolean findPath(Square from, Square to, Unit traveller, CompactPath path) {
+        path.clear();
+        if (from == to) {
+            return true;
+        }
+        if (!isOpen(to, traveller)) {
+            return false;
+        }
+        Graph entrances = graphFor(traveller);
+        ClusterScratch local = clusterScratch();
+        List<Square> waypoints = new Search(entrances, from, to, traveller, local).run();
+        if (waypoints == null) {
+            return exact.findPath(from, to, traveller, path);
+        }
+        for (int i = 1; i < waypoints.size(); i++) {
+            if (!refine(waypoints.get(i - 1), waypoints.get(i), traveller, local, path)) {
+                return exact.findPath(from, to, traveller, path);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getExpansions() {
+        return super.getExpansions() + exact.getExpansions();
+    }
+
+    /**
+     * The search over the entrances numbers the start and the destination
+     * after the entrances, which may be as many as the squares.
+     *
+     * @return Room for two states for every square.
+     */
+    @Override
+    protected int statesPerSquare() {
+        return 2;
+    }
+
+    /**
+     * @param traveller The traveller of the search.
+     * @return The entrances of the board, found for the first traveller.
+     */
+    private Graph graphFor(Unit traveller) {
+        Graph result = graph;
+        if (result == null) {
+            synchronized (this) {
+                result = graph;
+                if (result == null) {
+                    result = new Graph(traveller);
+                    graph = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The cluster buffers of the current thread, replaced by larger
+     * buffers if they are too small for these clusters.
+     */
+    private ClusterScratch clusterScratch() {
+        int squares = clusterSize * clusterSize;
+        ClusterScratch scratch = CLUSTER_BUFFERS.get();
+        if (scratch == null || scratch.getSquares() < squares) {
+            scratch = new ClusterScratch(squares);
+            CLUSTER_BUFFERS.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * Adds the steps between two consecutive waypoints of a path. Steps
+     * inside a cluster follow a search back from the next waypoint, so they
+     * are added in order.
+     *
+     * @param from      The first waypoint.
+     * @param to        The next waypoint, in the same cluster or next to the
+     *                  first across a border.
+     * @param traveller The traveller, or <code>null</code> to ignore terrain.
+     * @param local     The cluster buffers of the current thread.
+     * @param path      The path to add the steps to.
+     * @return <code>true</code> iff the traveller can take the step, which
+     * only fails for a traveller that may not enter the squares the
+     * entrances were found for.
+     */
+    private boolean refine(Square from, Square to, Unit traveller, ClusterScratch local,
+                           CompactPath path) {
+        if (clusterOf(from) != clusterOf(to)) {
+            for (Direction d : DIRECTIONS) {
+                if (from.getSquareAt(d) == to) {
+                    path.add(d);
+                    return isOpen(to, traveller);
+                }
+            }
+            return false;
+        }
+        int[] distances = local.getDistances();
+        localSearch(to, traveller, distances, local);
+        if (distances[localIndexOf(from)] == UNSEEN) {
+            return false;
+        }
+        byte[] via = local.getVia();
+        Square square = from;
+        while (square != to) {
+            Direction d = opposite(DIRECTIONS[via[localIndexOf(square)]]);
+            path.add(d);
+            square = square.getSquareAt(d);
+        }
+        return true;
+    }
+
+    /**
+     * Searches the cluster of a square breadth first, without leaving it.
+     * The ordinal of the direction each square was reached in is left in
+     * the buffers, until their next search.
+     *
+     * @param from      The square to start from.
+     * @param traveller The traveller, or <code>null</code> to ignore terrain.
+     * @param distances Filled with the distance from the start to each
+     *                  square of the cluster, by the index of the square in
+     *                  the cluster, or {@value #UNSEEN} for squares that
+     *                  cannot be reached.
+     * @param local     The cluster buffers of the current thread.
+     */
+    private void localSearch(Square from, Unit traveller, int[] distances,
+                             ClusterScratch local) {
+        int cluster = clusterOf(from);
+        Square[] queue = local.getQueue();
+        byte[] via = local.getVia();
+        Arrays.fill(distances, UNSEEN);
+        distances[localIndexOf(from)] = 0;
+        queue[0] = from;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            Square square = queue[head++];
+            int next = distances[localIndexOf(square)] + 1;
+            for (Direction d : DIRECTIONS) {
+                Square neighbour = square.getSquareAt(d);
+                int n = localIndexOf(neighbour);
+                if (clusterOf(neighbour) == cluster && distances[n] == UNSEEN
+                        && isOpen(neighbour, traveller)) {
+                    distances[n] = next;
+                    via[n] = (byte) d.ordinal();
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        Arrays.fill(queue, 0, tail, null);
+        expanded(head);
+    }
+
+    /**
+     * @param square A square of the board.
+     * @return The index of the cluster of the square.
+     */
+    private int clusterOf(Square square) {
+        return square.getX() / clusterSize * clusterRows + square.getY() / clusterSize;
+    }
+
+    /**
+     * @param square A square of the board.
+     * @return The index of the square within its cluster.
+     */
+    private int localIndexOf(Square square) {
+        return square.getX() % clusterSize * clusterSize + square.getY() % clusterSize;
+    }
+
+    /**
+     * Sorts items by a key, keeping items with the same key in order.
+     *
+     * @param keys   The key of each item.
+     * @param count  The amount of items.
+     * @param groups The amount of distinct keys.
+     * @param order  Filled with the items, by key.
+     * @return The position in the order of the first item of each key,
+     * followed by the amount of items.
+     */
+    private static int[] group(int[] keys, int count, int groups, int[] order) {
+        int[] first = new int[groups + 1];
+        for (int i = 0; i < count; i++) {
+            first[keys[i] + 1]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            first[g + 1] += first[g];
+        }
+        int[] next = Arrays.copyOf(first, groups);
+        for (int i = 0; i < count; i++) {
+            order[next[keys[i]]++] = i;
+        }
+        return first;
+    }
+
+    /**
+     * The buffers of the searches inside a single cluster, kept by a thread
+     * from one search to the next.
+     */
+    private static final class ClusterScratch {
+
+        /**
+         * The distances from the start of a search over the entrances.
+         */
+        private final int[] startDistances;
+
+        /**
+         * The distances from the destination of a search over the
+         * entrances.
+         */
+        private final int[] goalDistances;
+
+        /**
+         * The distances of the other searches inside a cluster.
+         */
+        private final int[] distances;
+
+        /**
+         * The ordinal of the direction each square was reached in by the
+         * last search inside a cluster.
+         */
+        private final byte[] via;
+
+        /**
+         * The queue of the searches inside a cluster.
+         */
+        private final Square[] queue;
+
+        /**
+         * Creates the buffers for clusters of a size.
+         *
+         * @param squares The amount of squares in a cluster.
+         */
+        private ClusterScratch(int squares) {
+            startDistances = new int[squares];
+            goalDistances = new int[squares];
+            distances = new int[squares];
+            via = new byte[squares];
+            queue = new Square[squares];
+        }
+
+        /**
+         * @return The amount of squares of a cluster the buffers hold.
+         */
+        private int getSquares() {
+            return distances.length;
+        }
+
+        /**
+         * @return The distances from the start of a search over the
+         * entrances.
+         */
+        private int[] getStartDistances() {
+            return startDistances;
+        }
+
+        /**
+         * @return The distances from the destination of a search over the
+         * entrances.
+         */
+        private int[] getGoalDistances() {
+            return goalDistances;
+        }
+
+        /**
+         * @return The distances of the other searches inside a cluster.
+         */
+        private int[] getDistances() {
+            return distances;
+        }
+
+        /**
+         * @return The ordinal of the direction each square was reached in.
+         */
+        private byte[] getVia() {
+            return via;
+        }
+
+        /**
+         * @return The queue of the searches inside a cluster.
+         */
+        private Square[] getQueue() {
+            return queue;
+        }
+    }
+
+    /**
+     * The entrances of the clusters and the distances between them. The
+     * edges leaving each entrance, and the entrances of each cluster, are
+     * stored next to each other in flat arrays.
+     */
+    private final class Graph {
+
+        /**
+         * The entrance on each square, or {@value #UNSEEN} for squares
+         * without one.
+         */
+        private final int[] entranceOf = new int[size()];
+
+        /**
+         * The square of each entrance.
+         */
+        private final List<Square> squares = new ArrayList<>();
+
+        /**
+         * The entrance each edge found leaves, while the graph is built.
+         */
+        private int[] edgeSources = new int[INITIAL_EDGES];
+
+        /**
+         * The entrance each edge found leads to, while the graph is built.
+         */
+        private int[] edgeTargets = new int[INITIAL_EDGES];
+
+        /**
+         * The length of each edge found, while the graph is built.
+         */
+        private int[] edgeDistances = new int[INITIAL_EDGES];
+
+        /**
+         * The amount of edges found.
+         */
+        private int edgeCount;
+
+        /**
+         * The position in {@link #targets} of the first edge leaving each
+         * entrance, followed by the amount of edges.
+         */
+        private int[] firstEdge;
+
+        /**
+         * The entrance each edge leads to, by the entrance it leaves.
+         */
+        private int[] targets;
+
+        /**
+         * The length of each edge, in the order of {@link #targets}.
+         */
+        private int[] distances;
+
+        /**
+         * The position in {@link #members} of the first entrance of each
+         * cluster, followed by the amount of entrances.
+         */
+        private int[] firstMember;
+
+        /**
+         * The entrances, by cluster.
+         */
+        private int[] members;
+
+        /**
+         * Finds the entrances of all clusters and the distances between
+         * them.
+         *
+         * @param traveller The traveller, or <code>null</code> to ignore
+         *                  terrain.
+         */
+        private Graph(Unit traveller) {
+            Arrays.fill(entranceOf, UNSEEN);
+            Board board = getBoard();
+            for (int x = 0; x < board.getWidth(); x += clusterSize) {
+                for (int y = 0; y < board.getHeight(); y += clusterSize) {
+                    int columns = Math.min(clusterSize, board.getWidth() - x);
+                    int rows = Math.min(clusterSize, board.getHeight() - y);
+                    border(board.squareAt(x + columns - 1, y), Direction.SOUTH,
+                            Direction.EAST, rows, traveller);
+                    border(board.squareAt(x, y + rows - 1), Direction.EAST,
+                            Direction.SOUTH, columns, traveller);
+                }
+            }
+            groupMembers((board.getWidth() + clusterSize - 1) / clusterSize * clusterRows);
+            ClusterScratch local = clusterScratch();
+            for (int e = 0; e < count(); e++) {
+                connect(e, traveller, local);
+            }
+            groupEdges();
+        }
+
+        /**
+         * @return The amount of entrances.
+         */
+        private int count() {
+            return squares.size();
+        }
+
+        /**
+         * Adds entrances to the open stretches of the border of a cluster.
+         *
+         * @param first     The first square of the cluster on the border.
+         * @param along     The direction along the border.
+         * @param across    The direction across the border.
+         * @param length    The amount of squares along the border.
+         * @param traveller The traveller, or <code>null</code> to ignore
+         *                  terrain.
+         */
+        private void border(Square first, Direction along, Direction across, int length,
+                            Unit traveller) {
+            if (clusterOf(first.getSquareAt(across)) == clusterOf(first)) {
+                return;
+            }
+            Square square = first;
+            Square stretch = null;
+            int stretchLength = 0;
+            for (int i = 0; i <= length; i++) {
+                if (i < length && isOpen(square, traveller)
+                        && isOpen(square.getSquareAt(across), traveller)) {
+                    if (stretch == null) {
+                        stretch = square;
+                    }
+                    stretchLength++;
+                } else if (stretch != null) {
+                    enter(stretch, along, across, stretchLength);
+                    stretch = null;
+                    stretchLength = 0;
+                }
+                square = square.getSquareAt(along);
+            }
+        }
+
+        /**
+         * Adds the entrances of an open stretch of border.
+         *
+         * @param first  The first square of the stretch.
+         * @param along  The direction along the border.
+         * @param across The direction across the border.
+         * @param length The amount of squares in the stretch.
+         */
+        private void enter(Square first, Direction along, Direction across, int length) {
+            if (length < WIDE_ENTRANCE) {
+                transition(walk(first, along, length / 2), across);
+            } else {
+                transition(first, across);
+                transition(walk(first, along, length - 1), across);
+            }
+        }
+
+        /**
+         * @param from  The square to start on.
+         * @param d     The direction to walk in.
+         * @param steps The amount of steps to take.
+         * @return The square reached.
+         */
+        private Square walk(Square from, Direction d, int steps) {
+            Square square = from;
+            for (int i = 0; i < steps; i++) {
+                square = square.getSquareAt(d);
+            }
+            return square;
+        }
+
+        /**
+         * Adds a pair of entrances on either side of the border, a single
+         * step apart.
+         *
+         * @param square The square on this side of the border.
+         * @param across The direction across the border.
+         */
+        private void transition(Square square, Direction across) {
+            int here = entranceAt(square);
+            int there = entranceAt(square.getSquareAt(across));
+            addEdge(here, there, 1);
+            addEdge(there, here, 1);
+        }
+
+        /**
+         * @param square A square on the border of a cluster.
+         * @return The entrance on the square, added if there was none.
+         */
+        private int entranceAt(Square square) {
+            int index = indexOf(square);
+            if (entranceOf[index] == UNSEEN) {
+                entranceOf[index] = count();
+                squares.add(square);
+            }
+            return entranceOf[index];
+        }
+
+        /**
+         * Adds the distances from an entrance to the other entrances of its
+         * cluster.
+         *
+         * @param entrance  The entrance.
+         * @param traveller The traveller, or <code>null</code> to ignore
+         *                  terrain.
+         * @param local     The cluster buffers of the current thread.
+         */
+        private void connect(int entrance, Unit traveller, ClusterScratch local) {
+            Square square = squares.get(entrance);
+            int[] found = local.getDistances();
+            localSearch(square, traveller, found, local);
+            int cluster = clusterOf(square);
+            for (int i = firstMember[cluster]; i < firstMember[cluster + 1]; i++) {
+                int other = members[i];
+                int distance = found[localIndexOf(squares.get(other))];
+                if (other != entrance && distance != UNSEEN) {
+                    addEdge(entrance, other, distance);
+                }
+            }
+        }
+
+        /**
+         * Records an edge while the graph is built.
+         *
+         * @param source   The entrance the edge leaves.
+         * @param target   The entrance the edge leads to.
+         * @param distance The length of the edge.
+         */
+        private void addEdge(int source, int target, int distance) {
+            if (edgeCount == edgeSources.length) {
+                edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+                edgeDistances = Arrays.copyOf(edgeDistances, edgeCount * 2);
+            }
+            edgeSources[edgeCount] = source;
+            edgeTargets[edgeCount] = target;
+            edgeDistances[edgeCount] = distance;
+            edgeCount++;
+        }
+
+        /**
+         * Stores the entrances by cluster.
+         *
+         * @param clusters The amount of clusters.
+         */
+        private void groupMembers(int clusters) {
+            int[] clusterOfEntrance = new int[count()];
+            for (int e = 0; e < count(); e++) {
+                clusterOfEntrance[e] = clusterOf(squares.get(e));
+            }
+            members = new int[count()];
+            firstMember = group(clusterOfEntrance, count(), clusters, members);
+        }
+
+        /**
+         * Stores the edges found by the entrance they leave, in the order
+         * they were found, and drops the edges as found.
+         */
+        private void groupEdges() {
+            int[] order = new int[edgeCount];
+            firstEdge = group(edgeSources, edgeCount, count(), order);
+            targets = new int[edgeCount];
+            distances = new int[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                targets[i] = edgeTargets[order[i]];
+                distances[i] = edgeDistances[order[i]];
+            }
+            edgeSources = null;
+            edgeTargets = null;
+            edgeDistances = null;
+        }
+    }
+
+    /**
+     * The state of a single search over the entrances. The start and the
+     * destination take part as two extra entrances after the others.
+     */
+    private final class Search {
+
+        /**
+         * The entrances of the board.
+         */
+        private final Graph entrances;
+
+        /**
+         * The entrance number of the start.
+         */
+        private final int start;
+
+        /**
+         * The entrance number of the destination.
+         */
+        private final int goal;
+
+        /**
+         * The starting square.
+         */
+        private final Square from;
+
+        /**
+         * The destination.
+         */
+        private final Square to;
+
+        /**
+         * The distance from the start to the squares of its cluster.
+         */
+        private final int[] fromStart;
+
+        /**
+         * The distance from the destination to the squares of its cluster.
+         */
+        private final int[] toGoal;
+
+        /**
+         * The costs, parents and queue of the search, by entrance number.
+         */
+        private final SearchScratch scratch;
+
+        /**
+         * Prepares a search.
+         *
+         * @param entrances The entrances of the board.
+         * @param from      The starting square.
+         * @param to        The destination.
+         * @param traveller The traveller, or <code>null</code> to ignore
+         *                  terrain.
+         * @param local     The cluster buffers of the current thread.
+         */
+        private Search(Graph entrances, Square from, Square to, Unit traveller,
+                       ClusterScratch local) {
+            this.entrances = entrances;
+            this.from = from;
+            this.to = to;
+            start = entrances.count();
+            goal = start + 1;
+            fromStart = local.getStartDistances();
+            localSearch(from, traveller, fromStart, local);
+            toGoal = local.getGoalDistances();
+            localSearch(to, traveller, toGoal, local);
+            scratch = beginSearch();
+        }
+
+        /**
+         * Runs A* over the entrances.
+         *
+         * @return The squares the path passes, from the start to the
+         * destination, where consecutive squares are in the same cluster or
+         * next to each other across a border, or <code>null</code> if the
+         * destination cannot be reached.
+         */
+        private List<Square> run() {
+            LongHeap open = scratch.getOpen();
+            scratch.reach(start, 0, start, null);
+            open.add(entry(estimate(from, to), start));
+            int expanded = 0;
+            while (!open.isEmpty() && !scratch.isClosed(goal)) {
+                int entrance = indexIn(open.poll());
+                if (!scratch.isClosed(entrance)) {
+                    scratch.close(entrance);
+                    expanded++;
+                    if (entrance != goal) {
+                        expand(entrance);
+                    }
+                }
+            }
+            expanded(expanded);
+            if (!scratch.isClosed(goal)) {
+                return null;
+            }
+            List<Square> waypoints = new ArrayList<>();
+            for (int e = goal; e != start; e = scratch.getParent(e)) {
+                waypoints.add(squareOf(e));
+            }
+            waypoints.add(from);
+            Collections.reverse(waypoints);
+            return waypoints;
+        }
+
+        /**
+         * Queues the entrances an entrance leads to.
+         *
+         * @param entrance The entrance expanded.
+         */
+        private void expand(int entrance) {
+            Square square = squareOf(entrance);
+            if (entrance == start) {
+                int cluster = clusterOf(from);
+                for (int i = entrances.firstMember[cluster];
+                     i < entrances.firstMember[cluster + 1]; i++) {
+                    int other = entrances.members[i];
+                    reach(entrance, other, fromStart[localIndexOf(squareOf(other))]);
+                }
+            } else {
+                for (int i = entrances.firstEdge[entrance];
+                     i < entrances.firstEdge[entrance + 1]; i++) {
+                    reach(entrance, entrances.targets[i], entrances.distances[i]);
+                }
+            }
+            if (clusterOf(square) == clusterOf(to)) {
+                reach(entrance, goal, toGoal[localIndexOf(square)]);
+            }
+        }
+
+        /**
+         * Queues an entrance if it was not reached as cheaply before.
+         *
+         * @param parent   The entrance it is reached from.
+         * @param entrance The entrance reached.
+         * @param distance The distance between the two, or {@value #UNSEEN}
+         *                 if there is no path between them.
+         */
+        private void reach(int parent, int entrance, int distance) {
+            int cost = scratch.getCost(parent) + distance;
+            int known = scratch.getCost(entrance);
+            if (distance != UNSEEN && (known == UNSEEN || cost < known)) {
+                scratch.reach(entrance, cost, parent, null);
+                scratch.getOpen().add(entry(cost + estimate(squareOf(entrance), to), entrance));
+            }
+        }
+
+        /**
+         * @param entrance An entrance, the start or the destination.
+         * @return The square of the entrance.
+         */
+        private Square squareOf(int entrance) {
+            if (entrance == start) {
+                return from;
+            }
+            if (entrance == goal) {
+                return to;
+            }
+            return entrances.squares.get(entrance);
+        }
+    }
+}
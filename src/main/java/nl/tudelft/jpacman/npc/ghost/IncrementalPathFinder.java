@@ -0,0 +1,769 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds shortest paths by D* Lite, which repairs the previous search of a
+ * traveller rather than searching again when the traveller, its destination
+ * or a blocked square moved. A single step of any of them changes the
+ * distances near the path only, so a search costs about the same however
+ * large the board is.
+ * <p>
+ * The search runs backwards, from a virtual square linked to the
+ * destination. When the destination moves to a neighbouring square, that
+ * square is linked one step cheaper than the last, and the old links stay:
+ * if the traveller can take that step, no square is further from the new
+ * destination than from the old one plus a step, so every distance just
+ * drops by one less than it would, and only the squares that got closer are
+ * repaired. A destination that jumps further, or steps from or onto a
+ * square the traveller cannot enter, starts the search over.
+ * <p>
+ * Every traveller has a search of its own, kept from one path to the next.
+ * Only the searches of the travellers that searched last are kept, at most
+ * as many as given when the finder is created; the storage of a search
+ * dropped or {@link #release(Unit)}d is reused for the next traveller.
+ * Searches are not run concurrently.
+ * <p>
+ * Squares can be {@link #block(Square)}ed for all travellers. The game
+ * itself never blocks squares, as units do not keep each other from
+ * entering a square; only terrain does, which never changes.
+ */
+public class IncrementalPathFinder extends GridPathFinder {
+
+    /**
+     * The distance of states that cannot reach the destination.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    /**
+     * The amount of searches kept by default, one for each ghost of a level.
+     */
+    private static final int DEFAULT_SEARCHES = 4;
+
+    /**
+     * The key of the search of paths that ignore terrain.
+     */
+    private static final Object NO_TRAVELLER = new Object();
+
+    /**
+     * The bits of the second part of a key.
+     */
+    private static final long MASK = 0xFFFFFFFFL;
+
+    /**
+     * The search of each traveller that searched recently, the one that
+     * searched longest ago first.
+     */
+    private final Map<Object, Search> searches;
+
+    /**
+     * The search of a traveller no longer kept, to reuse for the next new
+     * traveller, or <code>null</code>.
+     */
+    private Search spare;
+
+    /**
+     * Whether each square was blocked.
+     */
+    private final boolean[] blocked;
+
+    /**
+     * Creates a new incremental path finder that keeps the searches of the
+     * four travellers that searched last.
+     *
+     * @param board The board to search.
+     */
+    public IncrementalPathFinder(Board board) {
+        this(board, DEFAULT_SEARCHES);
+    }
+
+    /**
+     * Creates a new incremental path finder.
+     *
+     * @param board       The board to search.
+     * @param maxSearches The amount of travellers whose searches are kept.
+     */
+    public IncrementalPathFinder(Board board, final int maxSearches) {
+        super(board);
+        assert maxSearches > 0;
+        this.blocked = new boolean[size()];
+        this.searches = new LinkedHashMap<Object, Search>(maxSearches, 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Search> eldest) {
+                if (size() <= maxSearches) {
+                    return false;
+                }
+                retire(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean findPath(Square from, Square to, Unit traveller,
+                                         CompactPath path) {
+        path.clear();
+        if (from == to) {
+            return true;
+        }
+        Object key = traveller;
+        if (key == null) {
+            key = NO_TRAVELLER;
+        }
+        Search search = searches.get(key);
+        if (search == null) {
+            search = spare;
+            spare = null;
+            if (search == null) {
+                search = new Search();
+            }
+            search.assign(traveller);
+            searches.put(key, search);
+        }
+        return search.find(from, to, path);
+    }
+
+    /**
+     * Drops the search of a traveller, for instance because it left the
+     * board. Its next path is searched anew.
+     *
+     * @param traveller The traveller, or <code>null</code> for paths that
+     *                  ignore terrain.
+     */
+    public synchronized void release(Unit traveller) {
+        Object key = traveller;
+        if (key == null) {
+            key = NO_TRAVELLER;
+        }
+        Search search = searches.remove(key);
+        if (search != null) {
+            retire(search);
+        }
+    }
+
+    /**
+     * Keeps the storage of a search that was dropped for a next traveller.
+     *
+     * @param search The search dropped.
+     */
+    private void retire(Search search) {
+        search.assign(null);
+        spare = search;
+    }
+
+    /**
+     * Blocks a square for all travellers, for instance because a unit stands
+     * on it.
+     *
+     * @param square The square to block.
+     */
+    public synchronized void block(Square square) {
+        setBlocked(square, true);
+    }
+
+    /**
+     * Opens a square blocked before.
+     *
+     * @param square The square to open.
+     */
+    public synchronized void unblock(Square square) {
+        setBlocked(square, false);
+    }
+
+    /**
+     * Blocks or opens a square and repairs the searches around it.
+     *
+     * @param square The square.
+     * @param blocks Whether to block the square.
+     */
+    private void setBlocked(Square square, boolean blocks) {
+        int index = indexOf(square);
+        if (blocked[index] != blocks) {
+            blocked[index] = blocks;
+            for (Search search : searches.values()) {
+                if (blocks) {
+                    search.unlinkPast();
+                }
+                search.changed(index);
+            }
+        }
+    }
+
+    /**
+     * @param a A distance.
+     * @param b Another distance.
+     * @return The sum of the distances, which is {@value #INFINITY} if
+     * either is.
+     */
+    private static int add(int a, int b) {
+        if (a >= INFINITY || b >= INFINITY) {
+            return INFINITY;
+        }
+        return Math.min(INFINITY, a + b);
+    }
+
+    /**
+     * The search of a single traveller. States are the squares of the board
+     * by index, and a virtual destination after them.
+     */
+    private final class Search {
+
+        /**
+         * The traveller, or <code>null</code> to ignore terrain.
+         */
+        private Unit traveller;
+
+        /**
+         * The state of the virtual destination.
+         */
+        private final int goal = size();
+
+        /**
+         * The cost of the link from each square to the virtual destination,
+         * or {@value #INFINITY} if it is not linked.
+         */
+        private final int[] links = new int[size()];
+
+        /**
+         * The distance from each state to the destination less
+         * {@link #lowered}, as last expanded.
+         */
+        private final int[] distances = new int[size() + 1];
+
+        /**
+         * The distance from each state to the destination less
+         * {@link #lowered}, as its neighbours tell.
+         */
+        private final int[] lookahead = new int[size() + 1];
+
+        /**
+         * The states whose two distances differ.
+         */
+        private final KeyHeap open = new KeyHeap(size() + 1);
+
+        /**
+         * The neighbours of a state, reused for every expansion.
+         */
+        private final int[] neighbours = new int[DIRECTIONS.length + 1];
+
+        /**
+         * The states to recompute after an expansion or a change, reused.
+         */
+        private final int[] affected = new int[DIRECTIONS.length + 2];
+
+        /**
+         * The squares linked to the virtual destination.
+         */
+        private int[] linked = new int[DIRECTIONS.length];
+
+        /**
+         * The amount of squares linked.
+         */
+        private int linkCount;
+
+        /**
+         * The amount of steps the destination moved since the search
+         * started, by which the current destination is linked below zero.
+         */
+        private int lowered;
+
+        /**
+         * The square the traveller starts from.
+         */
+        private Square start;
+
+        /**
+         * The current destination, or <code>null</code> before the first
+         * search.
+         */
+        private Square target;
+
+        /**
+         * The sum of the estimated distances the start moved, which keeps
+         * the keys of states queued earlier comparable.
+         */
+        private int offset;
+
+        /**
+         * Creates a search without a traveller.
+         */
+        private Search() {
+            Arrays.fill(links, INFINITY);
+        }
+
+        /**
+         * Gives the search to a traveller, forgetting the distances found
+         * for the previous one.
+         *
+         * @param unit The traveller, or <code>null</code> to ignore terrain.
+         */
+        private void assign(Unit unit) {
+            this.traveller = unit;
+            this.target = null;
+        }
+
+        /**
+         * Repairs the search for a new start and destination, and reads the
+         * path back.
+         *
+         * @param from The starting square.
+         * @param to   The destination.
+         * @param path The path to store the directions in.
+         * @return <code>true</code> iff a path was found.
+         */
+        private boolean find(Square from, Square to, CompactPath path) {
+            if (target == null || !canStep(target, to)) {
+                restart(from, to);
+            }
+            offset += estimate(start, from);
+            start = from;
+            if (to != target) {
+                target = to;
+                lowered++;
+                link(indexOf(to), -lowered);
+            }
+            computeDistances();
+            int s = indexOf(from);
+            if (lookahead[s] >= INFINITY) {
+                return false;
+            }
+            return walk(s, lookahead[s] + lowered, path);
+        }
+
+        /**
+         * Forgets all distances and starts a new search.
+         *
+         * @param from The starting square.
+         * @param to   The destination.
+         */
+        private void restart(Square from, Square to) {
+            Arrays.fill(distances, INFINITY);
+            Arrays.fill(lookahead, INFINITY);
+            for (int i = 0; i < linkCount; i++) {
+                links[linked[i]] = INFINITY;
+            }
+            linkCount = 0;
+            lowered = 0;
+            offset = 0;
+            open.clear();
+            start = from;
+            target = to;
+            lookahead[goal] = 0;
+            open.put(goal, key(goal));
+            link(indexOf(to), 0);
+        }
+
+        /**
+         * Links a square to the virtual destination, or lowers its link.
+         *
+         * @param square The square.
+         * @param cost   The cost of the link.
+         */
+        private void link(int square, int cost) {
+            if (links[square] >= INFINITY) {
+                if (linkCount == linked.length) {
+                    linked = Arrays.copyOf(linked, 2 * linkCount);
+                }
+                linked[linkCount++] = square;
+            }
+            links[square] = Math.min(links[square], cost);
+            changed(square);
+        }
+
+        /**
+         * Removes the links of all but the current destination. Blocking a
+         * square may lengthen the way from a past destination to the current
+         * one, after which their links no longer hold.
+         */
+        private void unlinkPast() {
+            int current = indexOf(target);
+            for (int i = 0; i < linkCount; i++) {
+                if (linked[i] != current) {
+                    links[linked[i]] = INFINITY;
+                    changed(linked[i]);
+                }
+            }
+            linked[0] = current;
+            linkCount = 1;
+        }
+
+        /**
+         * Determines whether the destination may move between two squares
+         * without starting the search over. The past links hold only if the
+         * traveller could take the step itself.
+         *
+         * @param a The old destination.
+         * @param b The new destination.
+         * @return <code>true</code> iff the squares are the same, or
+         * neighbours the traveller may both enter.
+         */
+        private boolean canStep(Square a, Square b) {
+            if (a == b) {
+                return true;
+            }
+            for (Direction d : DIRECTIONS) {
+                if (a.getSquareAt(d) == b) {
+                    return cost(indexOf(a), indexOf(b)) == 1;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Expands the states whose distances differ, until the distance of
+         * the start is known.
+         */
+        private void computeDistances() {
+            int s = indexOf(start);
+            int expanded = 0;
+            while (!open.isEmpty()
+                    && (open.topKey() < key(s) || lookahead[s] > distances[s])) {
+                int u = open.top();
+                long oldKey = open.topKey();
+                long newKey = key(u);
+                if (oldKey < newKey) {
+                    open.put(u, newKey);
+                } else {
+                    expanded++;
+                    expand(u);
+                }
+            }
+            expanded(expanded);
+        }
+
+        /**
+         * Settles the distance of a state and tells its neighbours.
+         *
+         * @param u The state to expand.
+         */
+        private void expand(int u) {
+            int count = neighboursOf(u);
+            if (distances[u] > lookahead[u]) {
+                distances[u] = lookahead[u];
+                open.remove(u);
+                for (int i = 0; i < count; i++) {
+                    int s = neighbours[i];
+                    if (s != goal) {
+                        lookahead[s] = Math.min(lookahead[s], add(cost(s, u), distances[u]));
+                        update(s);
+                    }
+                }
+            } else {
+                int old = distances[u];
+                distances[u] = INFINITY;
+                System.arraycopy(neighbours, 0, affected, 0, count);
+                affected[count] = u;
+                for (int i = 0; i <= count; i++) {
+                    int s = affected[i];
+                    if (s != goal && (s == u || lookahead[s] == add(cost(s, u), old))) {
+                        lookahead[s] = bestNeighbour(s);
+                        update(s);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Recomputes the distance of a state after the cost of reaching it
+         * or leaving it changed.
+         *
+         * @param state The state changed.
+         */
+        private void changed(int state) {
+            int count = neighboursOf(state);
+            System.arraycopy(neighbours, 0, affected, 0, count);
+            affected[count] = state;
+            for (int i = 0; i <= count; i++) {
+                int s = affected[i];
+                if (s != goal) {
+                    lookahead[s] = bestNeighbour(s);
+                    update(s);
+                }
+            }
+        }
+
+        /**
+         * Queues a state iff its two distances differ.
+         *
+         * @param s The state.
+         */
+        private void update(int s) {
+            if (distances[s] != lookahead[s]) {
+                open.put(s, key(s));
+            } else {
+                open.remove(s);
+            }
+        }
+
+        /**
+         * @param s A state other than the destination.
+         * @return The shortest distance to the destination through any of
+         * its neighbours.
+         */
+        private int bestNeighbour(int s) {
+            int best = INFINITY;
+            int count = neighboursOf(s);
+            for (int i = 0; i < count; i++) {
+                best = Math.min(best, add(cost(s, neighbours[i]), distances[neighbours[i]]));
+            }
+            return best;
+        }
+
+        /**
+         * Follows the neighbours closest to the destination from the start.
+         *
+         * @param from   The starting state.
+         * @param length The distance to the destination.
+         * @param path   The path to store the directions in.
+         * @return <code>true</code> iff the destination was reached.
+         */
+        private boolean walk(int from, int length, CompactPath path) {
+            int s = from;
+            for (int step = 0; step < length; step++) {
+                Square square = squareAt(s);
+                Direction best = null;
+                int bestDistance = INFINITY;
+                for (Direction d : DIRECTIONS) {
+                    int n = indexOf(square.getSquareAt(d));
+                    int distance = add(cost(s, n), distances[n]);
+                    if (distance < bestDistance) {
+                        best = d;
+                        bestDistance = distance;
+                    }
+                }
+                if (best == null) {
+                    path.clear();
+                    return false;
+                }
+                path.add(best);
+                s = indexOf(square.getSquareAt(best));
+            }
+            return s == indexOf(target);
+        }
+
+        /**
+         * Collects the neighbours of a state into {@link #neighbours}.
+         *
+         * @param s The state.
+         * @return The amount of neighbours.
+         */
+        private int neighboursOf(int s) {
+            if (s == goal) {
+                neighbours[0] = indexOf(target);
+                return 1;
+            }
+            Square square = squareAt(s);
+            int count = 0;
+            for (Direction d : DIRECTIONS) {
+                neighbours[count++] = indexOf(square.getSquareAt(d));
+            }
+            if (links[s] < INFINITY) {
+                neighbours[count++] = goal;
+            }
+            return count;
+        }
+
+        /**
+         * @param a A state.
+         * @param b A neighbouring state.
+         * @return The cost of a step between the states.
+         */
+        private int cost(int a, int b) {
+            if (a == goal || b == goal) {
+                int other = Math.min(a, b);
+                if (isFree(other)) {
+                    return links[other];
+                }
+                return INFINITY;
+            }
+            if (isFree(a) && isFree(b)) {
+                return 1;
+            }
+            return INFINITY;
+        }
+
+        /**
+         * @param s A square.
+         * @return <code>true</code> iff the traveller may enter the square.
+         */
+        private boolean isFree(int s) {
+            return !blocked[s] && isOpen(squareAt(s), traveller);
+        }
+
+        /**
+         * @param s A state.
+         * @return The key to queue the state with: the estimated length of a
+         * path from the start through it, then its distance.
+         */
+        private long key(int s) {
+            int distance = Math.min(distances[s], lookahead[s]);
+            Square square = target;
+            if (s != goal) {
+                square = squareAt(s);
+            }
+            int first = add(add(distance, estimate(start, square)), offset);
+            return (long) first << Integer.SIZE | ((distance - Integer.MIN_VALUE) & MASK);
+        }
+    }
+
+    /**
+     * A binary heap of states by key, which can change the key of a state
+     * queued.
+     */
+    private static final class KeyHeap {
+
+        /**
+         * The states, smallest key first.
+         */
+        private final int[] heap;
+
+        /**
+         * The position of each state in the heap, or {@value #UNSEEN}.
+         */
+        private final int[] positions;
+
+        /**
+         * The key of each state queued.
+         */
+        private final long[] keys;
+
+        /**
+         * The amount of states queued.
+         */
+        private int size;
+
+        /**
+         * Creates an empty heap.
+         *
+         * @param states The amount of states.
+         */
+        private KeyHeap(int states) {
+            heap = new int[states];
+            positions = new int[states];
+            keys = new long[states];
+            Arrays.fill(positions, UNSEEN);
+        }
+
+        /**
+         * @return <code>true</code> iff no state is queued.
+         */
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * @return The smallest key, or the largest possible key if the heap
+         * is empty.
+         */
+        private long topKey() {
+            if (size == 0) {
+                return Long.MAX_VALUE;
+            }
+            return keys[heap[0]];
+        }
+
+        /**
+         * Removes all states.
+         */
+        private void clear() {
+            for (int i = 0; i < size; i++) {
+                positions[heap[i]] = UNSEEN;
+            }
+            size = 0;
+        }
+
+        /**
+         * @return The state with the smallest key.
+         */
+        private int top() {
+            return heap[0];
+        }
+
+        /**
+         * Queues a state, or changes its key if it was queued.
+         *
+         * @param state The state.
+         * @param key   Its key.
+         */
+        private void put(int state, long key) {
+            if (positions[state] == UNSEEN) {
+                heap[size] = state;
+                positions[state] = size++;
+            }
+            keys[state] = key;
+            siftDown(siftUp(positions[state]));
+        }
+
+        /**
+         * Removes a state if it is queued.
+         *
+         * @param state The state.
+         */
+        private void remove(int state) {
+            int position = positions[state];
+            if (position == UNSEEN) {
+                return;
+            }
+            positions[state] = UNSEEN;
+            size--;
+            if (position < size) {
+                heap[position] = heap[size];
+                positions[heap[position]] = position;
+                siftDown(siftUp(position));
+            }
+        }
+
+        /**
+         * @param position A position whose state may have a smaller key than
+         *                 its parent.
+         * @return The position the state ended up at.
+         */
+        private int siftUp(int position) {
+            int i = position;
+            while (i > 0 && keys[heap[(i - 1) / 2]] > keys[heap[i]]) {
+                swap(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+            return i;
+        }
+
+        /**
+         * @param position A position whose state may have a larger key than
+         *                 its children.
+         */
+        private void siftDown(int position) {
+            int i = position;
+            int child = 2 * i + 1;
+            while (child < size) {
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                    child++;
+                }
+                if (keys[heap[child]] >= keys[heap[i]]) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+                child = 2 * i + 1;
+            }
+        }
+
+        /**
+         * @param a A position.
+         * @param b Another position.
+         */
+        private void swap(int a, int b) {
+            int state = heap[a];
+            heap[a] = heap[b];
+            heap[b] = state;
+            positions[heap[a]] = a;
+            positions[heap[b]] = b;
+        }
+    }
+}
@@ -6,9 +6,8 @@ import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.PacManPlayer;
 import nl.tudelft.jpacman.sprite.Sprite;
 
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * <p>
@@ -55,6 +54,12 @@ public class Inky extends Ghost {
      */
     private static final int MOVE_INTERVAL = 250;
 
+    /**
+     * The path from Blinky to the square ahead of Pac-Man, reused for every
+     * move.
+     */
+    private final CompactPath firstHalf = new CompactPath();
+
     /**
      * Creates a new "Inky", a.k.a. Bashful.
      *
@@ -64,9 +69,20 @@ public class Inky extends Ghost {
         super(spriteMap);
     }
 
+    /**
+     * Creates a new Inky that makes its random choices from the given source.
+     *
+     * @param spriteMap    The sprites for this ghost.
+     * @param randomSource The source of the random choices of this ghost,
+     *                     used by this ghost only.
+     */
+    public Inky(Map<Direction, Sprite> spriteMap, SplittableRandom randomSource) {
+        super(spriteMap, randomSource);
+    }
+
     @Override
     public long getInterval() {
-        return MOVE_INTERVAL + new Random().nextInt(INTERVAL_VARIATION);
+        return MOVE_INTERVAL + getRandom().nextInt(INTERVAL_VARIATION);
     }
 
     /**
@@ -98,13 +114,13 @@ public class Inky extends Ghost {
     // CHECKSTYLE:OFF To keep this more readable.
     @Override
     public Direction nextMove() {
-        Unit blinky = Navigation.findNearest(Blinky.class, getSquare());
+        Unit blinky = nearest(Blinky.class);
         if (blinky == null) {
             Direction d = randomMove();
             return d;
         }
 
-        Unit player = Navigation.findNearest(PacManPlayer.class, getSquare());
+        Unit player = nearest(PacManPlayer.class);
         if (player == null) {
             Direction d = randomMove();
             return d;
@@ -117,25 +133,21 @@ public class Inky extends Ghost {
         }
 
         Square destination = playerDestination;
-        List<Direction> firstHalf = Navigation.shortestPath(blinky.getSquare(),
-                playerDestination, null);
-        if (firstHalf == null) {
+        if (!Navigation.shortestPath(blinky.getSquare(), playerDestination, null,
+                firstHalf)) {
             Direction d = randomMove();
             return d;
         }
 
-        for (Direction d : firstHalf) {
-            destination = playerDestination.getSquareAt(d);
+        for (int i = 0; i < firstHalf.size(); i++) {
+            destination = playerDestination.getSquareAt(firstHalf.get(i));
         }
 
-        List<Direction> path = Navigation.shortestPath(getSquare(),
-                destination, this);
-        if (path != null && !path.isEmpty()) {
-            Direction d = path.get(0);
+        Direction d = stepTowards(destination);
+        if (d != null) {
             return d;
         }
-        Direction d = randomMove();
-        return d;
+        return randomMove();
     }
     // CHECKSTYLE:ON
 
@@ -0,0 +1,239 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * Finds shortest paths by Jump Point Search, an A* search that only expands
+ * the squares where a shortest path may have to turn. Of all shortest paths
+ * it only considers those that turn from a column into a row wherever they
+ * can, and from a row into a column only where they must: where the square
+ * beside the row can not be reached from the column one square back. Runs
+ * between such squares are scanned without being expanded, so open floors
+ * are crossed without expanding every symmetric path over them.
+ * <p>
+ * A square is expanded at most once for every direction it is entered in,
+ * because the squares a path may continue to depend on that direction. Runs
+ * wrap around the edges of the board like the board does.
+ */
+public class JumpPointPathFinder extends GridPathFinder {
+
+    /**
+     * Creates a new Jump Point Search path finder.
+     *
+     * @param board The board to search.
+     */
+    public JumpPointPathFinder(Board board) {
+        super(board);
+    }
+
+    @Override
+    public boolean findPath(Square from, Square to, Unit traveller, CompactPath path) {
+        path.clear();
+        if (from == to) {
+            return true;
+        }
+        Search search = new Search(from, to, traveller);
+        LongHeap open = search.scratch.getOpen();
+        int goal = UNSEEN;
+        int expanded = 0;
+        while (!open.isEmpty() && goal == UNSEEN) {
+            int state = indexIn(open.poll());
+            if (!search.scratch.isClosed(state)) {
+                search.scratch.close(state);
+                expanded++;
+                if (state / DIRECTIONS.length == indexOf(to)) {
+                    goal = state;
+                } else {
+                    search.expand(state);
+                }
+            }
+        }
+        expanded(expanded);
+        if (goal == UNSEEN) {
+            return false;
+        }
+        search.trace(goal, path);
+        return true;
+    }
+
+    @Override
+    protected int statesPerSquare() {
+        return DIRECTIONS.length;
+    }
+
+    /**
+     * @param d A direction.
+     * @return <code>true</code> iff the direction is along a row.
+     */
+    private static boolean isHorizontal(Direction d) {
+        return d.getDeltaX() != 0;
+    }
+
+    /**
+     * The state of a single search. A state is a square entered in a
+     * direction, with index <code>square * 4 + direction</code>.
+     */
+    private final class Search {
+
+        /**
+         * The state of the starting square, which continues in every
+         * direction.
+         */
+        private final int start;
+
+        /**
+         * The destination.
+         */
+        private final Square to;
+
+        /**
+         * The traveller, or <code>null</code> to ignore terrain.
+         */
+        private final Unit traveller;
+
+        /**
+         * The buffers of the search.
+         */
+        private final SearchScratch scratch = beginSearch();
+
+        /**
+         * Creates the state of a new search and queues its start.
+         *
+         * @param from      The starting square.
+         * @param to        The destination.
+         * @param traveller The traveller, or <code>null</code> to ignore
+         *                  terrain.
+         */
+        private Search(Square from, Square to, Unit traveller) {
+            this.to = to;
+            this.traveller = traveller;
+            start = indexOf(from) * DIRECTIONS.length;
+            scratch.reach(start, 0, start, null);
+            scratch.getOpen().add(entry(estimate(from, to), start));
+        }
+
+        /**
+         * Jumps from a state in every direction a shortest path may
+         * continue in.
+         *
+         * @param state The state expanded.
+         */
+        private void expand(int state) {
+            Square square = squareAt(state / DIRECTIONS.length);
+            Direction entered = DIRECTIONS[state % DIRECTIONS.length];
+            Square back = square.getSquareAt(opposite(entered));
+            for (Direction d : DIRECTIONS) {
+                if (state == start || d == entered) {
+                    jump(state, square, d);
+                } else if (isHorizontal(entered) != isHorizontal(d)
+                        && (!isHorizontal(entered) || isForced(square, back, d))) {
+                    jump(state, square, d);
+                }
+            }
+        }
+
+        /**
+         * Scans from a square in a direction up to the next square a shortest
+         * path may turn on, and queues it.
+         *
+         * @param state  The state jumped from.
+         * @param square The square jumped from.
+         * @param d      The direction to jump in.
+         */
+        private void jump(int state, Square square, Direction d) {
+            int limit = getBoard().getWidth();
+            if (!isHorizontal(d)) {
+                limit = getBoard().getHeight();
+            }
+            Square current = square;
+            for (int steps = 1; steps < limit; steps++) {
+                Square next = current.getSquareAt(d);
+                if (!isOpen(next, traveller)) {
+                    return;
+                }
+                if (next == to || isJumpPoint(next, current, d)) {
+                    reach(state, next, d, scratch.getCost(state) + steps);
+                    return;
+                }
+                current = next;
+            }
+        }
+
+        /**
+         * Determines whether a scan has to stop on a square, because a
+         * shortest path may turn there.
+         *
+         * @param square   The square scanned.
+         * @param previous The square scanned before it.
+         * @param d        The direction of the scan.
+         * @return <code>true</code> iff a shortest path may turn on the
+         * square.
+         */
+        private boolean isJumpPoint(Square square, Square previous, Direction d) {
+            for (Direction side : DIRECTIONS) {
+                if (isHorizontal(side) != isHorizontal(d)) {
+                    if (!isHorizontal(d) && isOpen(square.getSquareAt(side), traveller)) {
+                        return true;
+                    }
+                    if (isHorizontal(d) && isForced(square, previous, side)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Determines whether a path along a row has to turn into a column on
+         * a square, as the column can not be entered one square back.
+         *
+         * @param square The square on the row.
+         * @param back   The square one back on the row.
+         * @param side   The direction into the column.
+         * @return <code>true</code> iff the turn is forced.
+         */
+        private boolean isForced(Square square, Square back, Direction side) {
+            return isOpen(square.getSquareAt(side), traveller)
+                    && !isOpen(back.getSquareAt(side), traveller);
+        }
+
+        /**
+         * Queues a square entered in a direction if it was not reached as
+         * cheaply before in that direction.
+         *
+         * @param parent The state jumped from.
+         * @param square The square jumped to.
+         * @param d      The direction the square was entered in.
+         * @param cost   The cost to reach the square.
+         */
+        private void reach(int parent, Square square, Direction d, int cost) {
+            int state = indexOf(square) * DIRECTIONS.length + d.ordinal();
+            int known = scratch.getCost(state);
+            if (known == UNSEEN || cost < known) {
+                scratch.reach(state, cost, parent, d);
+                scratch.getOpen().add(entry(cost + estimate(square, to), state));
+            }
+        }
+
+        /**
+         * Reads the path back from the jumps that reached a state.
+         *
+         * @param goal The state of the destination.
+         * @param path The path to store the directions from the start to the
+         *             destination in.
+         */
+        private void trace(int goal, CompactPath path) {
+            for (int state = goal; state != start; state = scratch.getParent(state)) {
+                Direction d = DIRECTIONS[state % DIRECTIONS.length];
+                int parent = scratch.getParent(state);
+                for (int i = scratch.getCost(parent); i < scratch.getCost(state); i++) {
+                    path.add(d);
+                }
+            }
+            path.reverse();
+        }
+    }
+}
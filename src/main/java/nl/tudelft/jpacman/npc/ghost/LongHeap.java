@@ -0,0 +1,82 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive longs, which keeps its storage when it is
+ * emptied, so the searches reusing it do not allocate.
+ */
+final class LongHeap {
+
+    /**
+     * The initial capacity.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The heap, smallest first.
+     */
+    private long[] heap = new long[INITIAL_CAPACITY];
+
+    /**
+     * The amount of values in the heap.
+     */
+    private int size;
+
+    /**
+     * @return <code>true</code> iff the heap has no values.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value to add.
+     */
+    void add(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0 && heap[(i - 1) / 2] > value) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = value;
+    }
+
+    /**
+     * Removes the smallest value.
+     *
+     * @return The smallest value.
+     */
+    long poll() {
+        assert size > 0;
+        long smallest = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int child = 1;
+        while (child < size) {
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= last) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+            child = 2 * i + 1;
+        }
+        heap[i] = last;
+        return smallest;
+    }
+}
@@ -4,10 +4,11 @@ import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * Navigation provides utility to nagivate on {@link Square}s.
@@ -37,36 +38,118 @@ public final class Navigation {
      */
     public static List<Direction> shortestPath(Square from, Square to,
                                                Unit traveller) {
-        if (from == to) {
-            return new ArrayList<>();
+        CompactPath path = new CompactPath();
+        if (!shortestPath(from, to, traveller, path)) {
+            return null;
         }
+        return path.toList();
+    }
 
-        List<Node> targets = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
-        targets.add(new Node(null, from, null));
-        while (!targets.isEmpty()) {
-            Node n = targets.remove(0);
-            Square s = n.getSquare();
-            if (s == to) {
-                List<Direction> path = n.getPath();
-                return path;
-            }
-            visited.add(s);
-            addNewTargets(traveller, targets, visited, n, s);
+    /**
+     * Calculates the shortest path like
+     * {@link #shortestPath(Square, Square, Unit)}, into a path that is reused.
+     *
+     * @param from      The starting square.
+     * @param to        The destination.
+     * @param traveller The traveller attempting to reach the destination, or
+     *                  <code>null</code> to ignore terrain.
+     * @param path      The path to store the directions in. It is left empty
+     *                  when the destination is the current square.
+     * @return <code>true</code> iff a path was found.
+     */
+    public static boolean shortestPath(Square from, Square to, Unit traveller,
+                                       CompactPath path) {
+        path.clear();
+        Map<Square, Direction> via = search(from, to, traveller);
+        if (via == null) {
+            return false;
         }
-        return null;
+        for (Square s = to; s != from; s = s.getSquareAt(GridPathFinder.opposite(via.get(s)))) {
+            path.add(via.get(s));
+        }
+        path.reverse();
+        return true;
+    }
+
+    /**
+     * Determines the first step of the shortest path, without keeping the
+     * path.
+     *
+     * @param from      The starting square.
+     * @param to        The destination.
+     * @param traveller The traveller attempting to reach the destination, or
+     *                  <code>null</code> to ignore terrain.
+     * @return The direction of the first step, or <code>null</code> if no
+     * path could be found or the destination is the current square.
+     */
+    public static Direction firstStep(Square from, Square to, Unit traveller) {
+        Map<Square, Direction> via = search(from, to, traveller);
+        if (via == null || from == to) {
+            return null;
+        }
+        Square s = to;
+        Direction d = via.get(s);
+        while (s.getSquareAt(GridPathFinder.opposite(d)) != from) {
+            s = s.getSquareAt(GridPathFinder.opposite(d));
+            d = via.get(s);
+        }
+        return d;
+    }
+
+    /**
+     * Determines the length of the shortest path, without keeping the path.
+     *
+     * @param from      The starting square.
+     * @param to        The destination.
+     * @param traveller The traveller attempting to reach the destination, or
+     *                  <code>null</code> to ignore terrain.
+     * @return The amount of steps of the shortest path, or -1 if no path
+     * could be found.
+     */
+    public static int distance(Square from, Square to, Unit traveller) {
+        Map<Square, Direction> via = search(from, to, traveller);
+        if (via == null) {
+            return -1;
+        }
+        int steps = 0;
+        for (Square s = to; s != from; s = s.getSquareAt(GridPathFinder.opposite(via.get(s)))) {
+            steps++;
+        }
+        return steps;
     }
 
-    private static void addNewTargets(Unit traveller, List<Node> targets,
-                                      Set<Square> visited, Node n, Square s) {
-        for (Direction d : Direction.values()) {
-            Square target = s.getSquareAt(d);
-            if (!visited.contains(target)
-                    && (traveller == null || target
-                    .isAccessibleTo(traveller))) {
-                targets.add(new Node(d, target, n));
+    /**
+     * Searches breadth first from a square until the destination is reached.
+     *
+     * @param from      The starting square.
+     * @param to        The destination.
+     * @param traveller The traveller, or <code>null</code> to ignore terrain.
+     * @return The direction each square reached was entered in, which is
+     * <code>null</code> for the start, or <code>null</code> if the
+     * destination could not be reached.
+     */
+    private static Map<Square, Direction> search(Square from, Square to,
+                                                 Unit traveller) {
+        Map<Square, Direction> via = new IdentityHashMap<>();
+        Deque<Square> targets = new ArrayDeque<>();
+        via.put(from, null);
+        targets.add(from);
+        while (!targets.isEmpty() && !via.containsKey(to)) {
+            Square s = targets.poll();
+            for (Direction d : Direction.values()) {
+                Square target = s.getSquareAt(d);
+                if (!via.containsKey(target)
+                        && (traveller == null || target
+                        .isAccessibleTo(traveller))) {
+                    via.put(target, d);
+                    targets.add(target);
+                }
             }
         }
+        if (!via.containsKey(to)) {
+            return null;
+        }
+        return via;
     }
 
     /**
@@ -81,21 +164,21 @@ public final class Navigation {
      */
     public static Unit findNearest(Class<? extends Unit> type,
                                    Square currentLocation) {
-        List<Square> toDo = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
-
+        Map<Square, Direction> visited = new IdentityHashMap<>();
+        Deque<Square> toDo = new ArrayDeque<>();
+        visited.put(currentLocation, null);
         toDo.add(currentLocation);
 
         while (!toDo.isEmpty()) {
-            Square square = toDo.remove(0);
+            Square square = toDo.poll();
             Unit unit = findUnit(type, square);
             if (unit != null) {
                 return unit;
             }
-            visited.add(square);
             for (Direction d : Direction.values()) {
                 Square newTarget = square.getSquareAt(d);
-                if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
+                if (!visited.containsKey(newTarget)) {
+                    visited.put(newTarget, d);
                     toDo.add(newTarget);
                 }
             }
@@ -119,80 +202,4 @@ public final class Navigation {
         }
         return null;
     }
-
-    /**
-     * Helper class to keep track of the path.
-     *
-     * @author Jeroen Roosen
-     */
-    private static final class Node {
-
-        /**
-         * The direction for this node, which is <code>null</code> for the root
-         * node.
-         */
-        private final Direction direction;
-
-        /**
-         * The parent node, which is <code>null</code> for the root node.
-         */
-        private final Node parent;
-
-        /**
-         * The square associated with this node.
-         */
-        private final Square square;
-
-        /**
-         * Creates a new node.
-         *
-         * @param d The direction, which is <code>null</code> for the root
-         *          node.
-         * @param s The square.
-         * @param p The parent node, which is <code>null</code> for the root
-         *          node.
-         */
-        private Node(Direction d, Square s, Node p) {
-            this.direction = d;
-            this.square = s;
-            this.parent = p;
-        }
-
-        /**
-         * @return The direction for this node, or <code>null</code> if this
-         * node is a root node.
-         */
-        private Direction getDirection() {
-            return direction;
-        }
-
-        /**
-         * @return The square for this node.
-         */
-        private Square getSquare() {
-            return square;
-        }
-
-        /**
-         * @return The parent node, or <code>null</code> if this node is a root
-         * node.
-         */
-        private Node getParent() {
-            return parent;
-        }
-
-        /**
-         * Returns the list of values from the root of the tree to this node.
-         *
-         * @return The list of values from the root of the tree to this node.
-         */
-        private List<Direction> getPath() {
-            if (getParent() == null) {
-                return new ArrayList<>();
-            }
-            List<Direction> path = parent.getPath();
-            path.add(getDirection());
-            return path;
-        }
-    }
 }
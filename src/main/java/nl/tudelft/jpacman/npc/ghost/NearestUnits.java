@@ -0,0 +1,198 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The nearest unit of a type to every square of a board, found by a single
+ * breadth first search from all units of the type at once. Like
+ * {@link Navigation#findNearest(Class, Square)}, the search ignores terrain.
+ * Any number of ghosts looking for the nearest unit of the type share the
+ * search, which is run again only after one of the units moved. With a
+ * single unit of the type, nothing needs to be searched.
+ * <p>
+ * Only the units tracked by the {@link FlowFields} are considered. An
+ * instance is safe to share between the threads moving the ghosts.
+ */
+final class NearestUnits {
+
+    /**
+     * The board of the units.
+     */
+    private final Board board;
+
+    /**
+     * The type of units looked for.
+     */
+    private final Class<? extends Unit> type;
+
+    /**
+     * All units tracked on the board, of any type.
+     */
+    private final List<Unit> tracked;
+
+    /**
+     * The units of the type on the board, as last searched from.
+     */
+    private final List<Unit> sources = new ArrayList<>();
+
+    /**
+     * The squares of the units searched from, in the order of
+     * {@link #sources}.
+     */
+    private final List<Square> sourceSquares = new ArrayList<>();
+
+    /**
+     * The units of the type on the board now, reused for every query.
+     */
+    private final List<Unit> current = new ArrayList<>();
+
+    /**
+     * The position in {@link #sources} of the unit nearest to each square,
+     * by square index <code>x * height + y</code>, or <code>null</code>
+     * before the first search.
+     */
+    private int[] nearest;
+
+    /**
+     * The queue of the breadth first search, reused for every search.
+     */
+    private Square[] queue;
+
+    /**
+     * The amount of times the board was searched.
+     */
+    private long computations;
+
+    /**
+     * Creates a new index of the nearest units of a type. Nothing is
+     * searched until it is first used.
+     *
+     * @param board   The board of the units.
+     * @param type    The type of units looked for.
+     * @param tracked All units tracked on the board.
+     */
+    NearestUnits(Board board, Class<? extends Unit> type, List<Unit> tracked) {
+        assert board != null;
+        assert type != null;
+        assert tracked != null;
+        this.board = board;
+        this.type = type;
+        this.tracked = tracked;
+    }
+
+    /**
+     * @param from A square of the board.
+     * @return The unit of the type nearest to the square, or
+     * <code>null</code> if no such unit is on the board.
+     */
+    synchronized Unit nearestTo(Square from) {
+        current.clear();
+        for (Unit unit : tracked) {
+            if (type.isInstance(unit) && unit.getSquare() != null) {
+                current.add(unit);
+            }
+        }
+        if (current.size() <= 1) {
+            if (current.isEmpty()) {
+                return null;
+            }
+            return current.get(0);
+        }
+        if (moved()) {
+            compute();
+        }
+        int source = nearest[indexOf(from)];
+        if (source == FlowField.UNREACHABLE) {
+            return null;
+        }
+        return sources.get(source);
+    }
+
+    /**
+     * @return The amount of times the board was searched.
+     */
+    synchronized long getComputations() {
+        return computations;
+    }
+
+    /**
+     * @return <code>true</code> iff the units of the type are not the units
+     * last searched from, or not on the same squares.
+     */
+    private boolean moved() {
+        if (current.size() != sources.size()) {
+            return true;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            Unit unit = current.get(i);
+            if (unit != sources.get(i) || unit.getSquare() != sourceSquares.get(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the nearest of the current units to every square by a breadth
+     * first search from all of their squares.
+     */
+    private void compute() {
+        int squares = board.getWidth() * board.getHeight();
+        if (nearest == null) {
+            nearest = new int[squares];
+            queue = new Square[squares];
+        }
+        int tail = enqueueSources();
+        int head = 0;
+        while (head < tail) {
+            Square square = queue[head++];
+            int source = nearest[indexOf(square)];
+            for (Direction d : Direction.values()) {
+                Square neighbour = square.getSquareAt(d);
+                int index = indexOf(neighbour);
+                if (nearest[index] == FlowField.UNREACHABLE) {
+                    nearest[index] = source;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        computations++;
+    }
+
+    /**
+     * Starts a search from the squares of the current units.
+     *
+     * @return The amount of squares queued.
+     */
+    private int enqueueSources() {
+        sources.clear();
+        sourceSquares.clear();
+        Arrays.fill(nearest, FlowField.UNREACHABLE);
+        int tail = 0;
+        for (Unit unit : current) {
+            Square square = unit.getSquare();
+            sources.add(unit);
+            sourceSquares.add(square);
+            if (nearest[indexOf(square)] == FlowField.UNREACHABLE) {
+                nearest[indexOf(square)] = sources.size() - 1;
+                queue[tail++] = square;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * @param square A square of the board.
+     * @return The index of the square.
+     */
+    private int indexOf(Square square) {
+        return square.getX() * board.getHeight() + square.getY();
+    }
+}
@@ -0,0 +1,47 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.util.List;
+
+/**
+ * A strategy to find a shortest path between two squares of a board.
+ */
+public interface PathFinder {
+
+    /**
+     * Finds a shortest path between two squares, that the traveller is
+     * allowed to occupy on the way.
+     *
+     * @param from      The starting square.
+     * @param to        The destination.
+     * @param traveller The traveller attempting to reach the destination, or
+     *                  <code>null</code> to ignore terrain.
+     * @return A shortest path to the destination, or <code>null</code> if no
+     * such path could be found. When the destination is the starting square,
+     * an empty list is returned.
+     */
+    List<Direction> findPath(Square from, Square to, Unit traveller);
+
+    /**
+     * Finds a shortest path between two squares like
+     * {@link #findPath(Square, Square, Unit)}, into a path that is reused.
+     *
+     * @param from      The starting square.
+     * @param to        The destination.
+     * @param traveller The traveller attempting to reach the destination, or
+     *                  <code>null</code> to ignore terrain.
+     * @param path      The path to store the directions in. It is left empty
+     *                  when the destination is the starting square.
+     * @return <code>true</code> iff a path was found.
+     */
+    boolean findPath(Square from, Square to, Unit traveller, CompactPath path);
+
+    /**
+     * @return The total amount of squares expanded by all searches of this
+     * path finder so far.
+     */
+    long getExpansions();
+}
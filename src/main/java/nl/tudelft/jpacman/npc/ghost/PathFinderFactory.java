@@ -0,0 +1,21 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+
+/**
+ * Creates the {@link PathFinder} the ghosts of a board search with, once for
+ * every new level.
+ */
+public interface PathFinderFactory {
+
+    /**
+     * Creates a path finder for a board.
+     *
+     * @param board The board of a new level.
+     * @return The path finder shared by the ghosts on the board, or
+     * <code>null</code> to let them search with
+     * {@link Navigation#shortestPath(nl.tudelft.jpacman.board.Square,
+     * nl.tudelft.jpacman.board.Square, nl.tudelft.jpacman.board.Unit)}.
+     */
+    PathFinder createPathFinder(Board board);
+}
@@ -6,9 +6,8 @@ import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.level.PacManPlayer;
 import nl.tudelft.jpacman.sprite.Sprite;
 
-import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * <p>
@@ -70,9 +69,20 @@ public class Pinky extends Ghost {
         super(spriteMap);
     }
 
+    /**
+     * Creates a new Pinky that makes its random choices from the given source.
+     *
+     * @param spriteMap    The sprites for this ghost.
+     * @param randomSource The source of the random choices of this ghost,
+     *                     used by this ghost only.
+     */
+    public Pinky(Map<Direction, Sprite> spriteMap, SplittableRandom randomSource) {
+        super(spriteMap, randomSource);
+    }
+
     @Override
     public long getInterval() {
-        return MOVE_INTERVAL + new Random().nextInt(INTERVAL_VARIATION);
+        return MOVE_INTERVAL + getRandom().nextInt(INTERVAL_VARIATION);
     }
 
     /**
@@ -91,7 +101,7 @@ public class Pinky extends Ghost {
      */
     @Override
     public Direction nextMove() {
-        Unit player = Navigation.findNearest(PacManPlayer.class, getSquare());
+        Unit player = nearest(PacManPlayer.class);
         if (player == null) {
             Direction d = randomMove();
             return d;
@@ -103,13 +113,10 @@ public class Pinky extends Ghost {
             destination = destination.getSquareAt(targetDirection);
         }
 
-        List<Direction> path = Navigation.shortestPath(getSquare(),
-                destination, this);
-        if (path != null && !path.isEmpty()) {
-            Direction d = path.get(0);
+        Direction d = stepTowards(destination);
+        if (d != null) {
             return d;
         }
-        Direction d = randomMove();
-        return d;
+        return randomMove();
     }
 }
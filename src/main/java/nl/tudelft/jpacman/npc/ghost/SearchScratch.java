@@ -0,0 +1,179 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Direction;
+
+import java.util.Arrays;
+
+/**
+ * The buffers of a search over numbered states, kept by a thread from one
+ * search to the next. Every search stamps the states it reaches with a new
+ * generation, so the buffers never have to be cleared between searches.
+ */
+final class SearchScratch {
+
+    /**
+     * All directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The generation of the current search.
+     */
+    private int generation;
+
+    /**
+     * The generation that last reached each state.
+     */
+    private final int[] reached;
+
+    /**
+     * The generation that last expanded each state.
+     */
+    private final int[] closed;
+
+    /**
+     * The cheapest known cost to reach each state.
+     */
+    private final int[] costs;
+
+    /**
+     * The state each state was reached from.
+     */
+    private final int[] parents;
+
+    /**
+     * The ordinal of the direction each state was reached in.
+     */
+    private final byte[] via;
+
+    /**
+     * A queue of states, for searches that expand in order of discovery.
+     */
+    private final int[] queue;
+
+    /**
+     * A queue of states, for searches that expand by priority.
+     */
+    private final LongHeap open = new LongHeap();
+
+    /**
+     * Creates the buffers for a search.
+     *
+     * @param states The amount of states searched.
+     */
+    SearchScratch(int states) {
+        reached = new int[states];
+        closed = new int[states];
+        costs = new int[states];
+        parents = new int[states];
+        via = new byte[states];
+        queue = new int[states];
+    }
+
+    /**
+     * Starts a new search, forgetting every state reached before.
+     */
+    void begin() {
+        generation++;
+        if (generation == 0) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+        open.clear();
+    }
+
+    /**
+     * @return The amount of states the buffers hold.
+     */
+    int getStates() {
+        return reached.length;
+    }
+
+    /**
+     * @param state A state.
+     * @return <code>true</code> iff the current search reached the state.
+     */
+    boolean isReached(int state) {
+        return reached[state] == generation;
+    }
+
+    /**
+     * @param state A state.
+     * @return The cheapest known cost to reach the state, or
+     * {@value GridPathFinder#UNSEEN} if it was not reached.
+     */
+    int getCost(int state) {
+        if (!isReached(state)) {
+            return GridPathFinder.UNSEEN;
+        }
+        return costs[state];
+    }
+
+    /**
+     * Records that a state was reached.
+     *
+     * @param state  The state reached.
+     * @param cost   The cost to reach it.
+     * @param parent The state it was reached from.
+     * @param d      The direction it was reached in, or <code>null</code>
+     *               for the start.
+     */
+    void reach(int state, int cost, int parent, Direction d) {
+        reached[state] = generation;
+        costs[state] = cost;
+        parents[state] = parent;
+        if (d != null) {
+            via[state] = (byte) d.ordinal();
+        }
+    }
+
+    /**
+     * @param state A state reached.
+     * @return The state it was reached from.
+     */
+    int getParent(int state) {
+        return parents[state];
+    }
+
+    /**
+     * @param state A state reached, other than the start.
+     * @return The direction it was reached in.
+     */
+    Direction getVia(int state) {
+        return DIRECTIONS[via[state]];
+    }
+
+    /**
+     * @param state A state.
+     * @return <code>true</code> iff the current search expanded the state.
+     */
+    boolean isClosed(int state) {
+        return closed[state] == generation;
+    }
+
+    /**
+     * Records that a state was expanded.
+     *
+     * @param state The state expanded.
+     */
+    void close(int state) {
+        closed[state] = generation;
+    }
+
+    /**
+     * @return The queue of states for searches that expand in order of
+     * discovery, as long as the amount of states the buffers hold.
+     */
+    int[] getQueue() {
+        return queue;
+    }
+
+    /**
+     * @return The queue of states for searches that expand by priority,
+     * emptied when the search began.
+     */
+    LongHeap getOpen() {
+        return open;
+    }
+}
@@ -0,0 +1,193 @@
+package nl.tudelft.jpacman.server;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.GameSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The connection of a single client to a {@link GameServer}, playing a game
+ * of its own. Outgoing frames are queued in a buffer of fixed size; a client
+ * that does not read fast enough to keep it from overflowing is too far
+ * behind to be served.
+ * <p>
+ * Connections are only used by the thread of their server.
+ */
+class Connection {
+
+    /**
+     * The amount of frames of the largest size that fit in the outgoing
+     * buffer.
+     */
+    private static final int BACKLOG_FRAMES = 4;
+
+    /**
+     * The channel to the client.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The session of the game played by the client.
+     */
+    private final GameSession session;
+
+    /**
+     * The encoder of the state of the game.
+     */
+    private final DeltaEncoder encoder;
+
+    /**
+     * The bytes received but not yet handled.
+     */
+    private final ByteBuffer in;
+
+    /**
+     * The bytes waiting to be sent, ready to be written into.
+     */
+    private final ByteBuffer out;
+
+    /**
+     * Creates a new connection.
+     *
+     * @param channel The channel to the client.
+     * @param session The session of the game played by the client.
+     */
+    Connection(SocketChannel channel, GameSession session) {
+        assert channel != null;
+        assert session != null;
+        this.channel = channel;
+        this.session = session;
+        this.encoder = new DeltaEncoder(session.getGame());
+        this.in = ByteBuffer.allocate(Protocol.LENGTH_SIZE + Protocol.MAX_CLIENT_FRAME);
+        this.out = ByteBuffer.allocate(BACKLOG_FRAMES * encoder.getMaxFrameSize());
+    }
+
+    /**
+     * @return The channel to the client.
+     */
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return The session of the game played by the client.
+     */
+    GameSession getSession() {
+        return session;
+    }
+
+    /**
+     * Reads the bytes available on the channel and handles the complete
+     * frames among them.
+     *
+     * @return <code>false</code> iff the client closed the connection or
+     * sent a malformed frame, so the connection should be closed.
+     * @throws IOException When the channel could not be read.
+     */
+    boolean read() throws IOException {
+        if (channel.read(in) < 0) {
+            return false;
+        }
+        in.flip();
+        try {
+            while (in.remaining() >= Protocol.LENGTH_SIZE) {
+                int length = in.getInt(in.position());
+                if (length < 1 || length > Protocol.MAX_CLIENT_FRAME) {
+                    return false;
+                }
+                if (in.remaining() < Protocol.LENGTH_SIZE + length) {
+                    break;
+                }
+                int end = in.position() + Protocol.LENGTH_SIZE + length;
+                in.getInt();
+                boolean handled = handle(in.get(), length - 1);
+                in.position(end);
+                if (!handled) {
+                    return false;
+                }
+            }
+        } finally {
+            in.compact();
+        }
+        return true;
+    }
+
+    /**
+     * Handles a frame sent by the client.
+     *
+     * @param type   The type of the frame.
+     * @param length The amount of bytes of the payload, which follows in the
+     *               incoming buffer.
+     * @return <code>false</code> iff the frame is malformed.
+     */
+    private boolean handle(byte type, int length) {
+        Game game = session.getGame();
+        switch (type) {
+            case Protocol.MOVE:
+                Direction direction = null;
+                if (length == 1) {
+                    direction = Protocol.decode(in.get());
+                }
+                if (direction == null) {
+                    return false;
+                }
+                game.move(game.getPlayers().get(0), direction);
+                return true;
+            case Protocol.START:
+                session.start();
+                return true;
+            case Protocol.STOP:
+                session.pause();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Queues a frame with the changes of the game, if there are any, and
+     * sends as much of the queue as the channel accepts.
+     *
+     * @param tick The number of the current tick of the server.
+     * @return <code>false</code> iff the frame does not fit in the queue,
+     * because the client is too far behind.
+     * @throws IOException When the channel could not be written.
+     */
+    boolean send(long tick) throws IOException {
+        ByteBuffer frame = encoder.encode(tick);
+        if (frame != null) {
+            if (frame.remaining() > out.remaining()) {
+                return false;
+            }
+            out.put(frame);
+        }
+        flush();
+        return true;
+    }
+
+    /**
+     * Sends as much of the queued bytes as the channel accepts.
+     *
+     * @return <code>true</code> iff bytes remain queued.
+     * @throws IOException When the channel could not be written.
+     */
+    boolean flush() throws IOException {
+        out.flip();
+        try {
+            channel.write(out);
+            return out.hasRemaining();
+        } finally {
+            out.compact();
+        }
+    }
+
+    /**
+     * @return <code>true</code> iff bytes are queued to be sent.
+     */
+    boolean hasPending() {
+        return out.position() > 0;
+    }
+}
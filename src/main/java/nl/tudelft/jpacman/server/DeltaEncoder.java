@@ -0,0 +1,297 @@
+package nl.tudelft.jpacman.server;
+
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.PacManPlayer;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.level.Player;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Encodes the state of a game into the frames of the {@link Protocol}. The
+ * encoder remembers what it sent last, so every frame after the first only
+ * holds what changed since. Each client needs an encoder of its own.
+ * <p>
+ * Frames are written into a single buffer that is reused for every frame,
+ * so a frame must be sent or copied before the next one is encoded.
+ */
+class DeltaEncoder {
+
+    /**
+     * Upper bound of the amount of bytes of a frame that do not depend on
+     * the amount of units, pellets or players.
+     */
+    private static final int FIXED_SIZE = 32;
+
+    /**
+     * The amount of bytes of a move in a delta: unit, square and direction.
+     */
+    private static final int MOVE_SIZE = Short.BYTES + Integer.BYTES + 1;
+
+    /**
+     * The amount of bytes of a score change in a delta: player and score.
+     */
+    private static final int SCORE_SIZE = Short.BYTES + Integer.BYTES;
+
+    /**
+     * The game encoded.
+     */
+    private final Game game;
+
+    /**
+     * The level of the game.
+     */
+    private final Level level;
+
+    /**
+     * The players of the game followed by the NPCs of its level.
+     */
+    private final List<Unit> units;
+
+    /**
+     * The amount of players of the game, the first units.
+     */
+    private final int playerCount;
+
+    /**
+     * The square index of every unit as last sent.
+     */
+    private final int[] squares;
+
+    /**
+     * The direction of every unit as last sent.
+     */
+    private final byte[] directions;
+
+    /**
+     * The score of every player as last sent.
+     */
+    private final int[] scores;
+
+    /**
+     * The pellets that were eaten as last sent.
+     */
+    private final BitSet eaten = new BitSet();
+
+    /**
+     * The buffer the frames are written into.
+     */
+    private final ByteBuffer frame;
+
+    /**
+     * The version of the level as last sent, or -1 before the first frame.
+     */
+    private long sentVersion = -1L;
+
+    /**
+     * Creates a new encoder for a game.
+     *
+     * @param game The game to encode.
+     */
+    DeltaEncoder(Game game) {
+        assert game != null;
+        this.game = game;
+        this.level = game.getLevel();
+        this.units = new ArrayList<>();
+        units.addAll(game.getPlayers());
+        units.addAll(level.getNpcs());
+        assert units.size() <= Short.MAX_VALUE;
+        this.playerCount = game.getPlayers().size();
+        this.squares = new int[units.size()];
+        this.directions = new byte[units.size()];
+        this.scores = new int[playerCount];
+        this.frame = ByteBuffer.allocate(FIXED_SIZE + units.size() * MOVE_SIZE
+                + level.getPellets().size() * Integer.BYTES + playerCount * SCORE_SIZE);
+    }
+
+    /**
+     * @return The amount of bytes of the largest frame this encoder writes.
+     */
+    int getMaxFrameSize() {
+        return frame.capacity();
+    }
+
+    /**
+     * Encodes the next frame: the full state if nothing was sent yet, or the
+     * changes since the previous frame otherwise.
+     *
+     * @param tick The number of the current tick of the server.
+     * @return The buffer holding the frame, ready to be read, or
+     * <code>null</code> if the level did not change since the previous frame.
+     */
+    ByteBuffer encode(final long tick) {
+        final long version = level.getVersion();
+        if (version == sentVersion) {
+            return null;
+        }
+        level.inspect(new Runnable() {
+            @Override
+            public void run() {
+                frame.clear();
+                frame.putInt(0);
+                if (sentVersion < 0) {
+                    writeInit();
+                } else {
+                    writeDelta(tick);
+                }
+                frame.putInt(0, frame.position() - Protocol.LENGTH_SIZE);
+                frame.flip();
+            }
+        });
+        sentVersion = version;
+        return frame;
+    }
+
+    /**
+     * Writes the full state.
+     */
+    private void writeInit() {
+        frame.put(Protocol.INIT);
+        frame.putInt(level.getBoard().getWidth()).putInt(level.getBoard().getHeight());
+        frame.put(flags());
+        frame.putShort((short) units.size());
+        for (int i = 0; i < units.size(); i++) {
+            squares[i] = indexOf(units.get(i).getSquare());
+            directions[i] = Protocol.encode(units.get(i).getDirection());
+            frame.putInt(squares[i]).put(directions[i]);
+        }
+        int countAt = frame.position();
+        frame.putInt(0);
+        List<Pellet> pellets = level.getPellets();
+        for (int i = 0; i < pellets.size(); i++) {
+            if (pellets.get(i).getSquare() == null) {
+                eaten.set(i);
+            } else {
+                frame.putInt(indexOf(level.getPelletSquares().get(i)));
+            }
+        }
+        frame.putInt(countAt, pellets.size() - eaten.cardinality());
+        frame.putShort((short) playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            scores[i] = scoreOf(units.get(i));
+            frame.putInt(scores[i]);
+        }
+    }
+
+    /**
+     * Writes the changes since the previous frame.
+     *
+     * @param tick The number of the current tick of the server.
+     */
+    private void writeDelta(long tick) {
+        frame.put(Protocol.DELTA);
+        frame.putLong(tick).put(flags());
+        writeMoves();
+        writePellets(true);
+        writePellets(false);
+        writeScores();
+    }
+
+    /**
+     * Writes the units that moved or turned.
+     */
+    private void writeMoves() {
+        int countAt = frame.position();
+        short count = 0;
+        frame.putShort(count);
+        for (int i = 0; i < units.size(); i++) {
+            int square = indexOf(units.get(i).getSquare());
+            byte direction = Protocol.encode(units.get(i).getDirection());
+            if (square != squares[i] || direction != directions[i]) {
+                squares[i] = square;
+                directions[i] = direction;
+                frame.putShort((short) i).putInt(square).put(direction);
+                count++;
+            }
+        }
+        frame.putShort(countAt, count);
+    }
+
+    /**
+     * Writes the squares of the pellets that were eaten, or that were put
+     * back on the board.
+     *
+     * @param removed <code>true</code> to write the pellets eaten,
+     *                <code>false</code> to write the pellets put back.
+     */
+    private void writePellets(boolean removed) {
+        int countAt = frame.position();
+        int count = 0;
+        frame.putInt(count);
+        List<Pellet> pellets = level.getPellets();
+        for (int i = 0; i < pellets.size(); i++) {
+            boolean gone = pellets.get(i).getSquare() == null;
+            if (gone == removed && gone != eaten.get(i)) {
+                eaten.set(i, gone);
+                frame.putInt(indexOf(level.getPelletSquares().get(i)));
+                count++;
+            }
+        }
+        frame.putInt(countAt, count);
+    }
+
+    /**
+     * Writes the scores that changed.
+     */
+    private void writeScores() {
+        int countAt = frame.position();
+        short count = 0;
+        frame.putShort(count);
+        for (int i = 0; i < playerCount; i++) {
+            int score = scoreOf(units.get(i));
+            if (score != scores[i]) {
+                scores[i] = score;
+                frame.putShort((short) i).putInt(score);
+                count++;
+            }
+        }
+        frame.putShort(countAt, count);
+    }
+
+    /**
+     * @return The flags describing the state of the game.
+     */
+    private byte flags() {
+        int flags = 0;
+        if (game.isInProgress()) {
+            flags |= Protocol.IN_PROGRESS;
+        }
+        if (level.isAnyPlayerAlive()) {
+            flags |= Protocol.ANY_PLAYER_ALIVE;
+        }
+        if (level.remainingPellets() == 0) {
+            flags |= Protocol.ALL_PELLETS_EATEN;
+        }
+        return (byte) flags;
+    }
+
+    /**
+     * @param square A square of the level, or <code>null</code>.
+     * @return The index of the square, or {@value Protocol#NO_SQUARE} for
+     * <code>null</code>.
+     */
+    private int indexOf(Square square) {
+        if (square == null) {
+            return Protocol.NO_SQUARE;
+        }
+        return square.getX() * level.getBoard().getHeight() + square.getY();
+    }
+
+    /**
+     * @param player A player of the game.
+     * @return The score of the player, or 0 if it does not keep score.
+     */
+    private static int scoreOf(Unit player) {
+        assert player instanceof Player;
+        if (player instanceof PacManPlayer) {
+            return ((PacManPlayer) player).getScore();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,343 @@
+package nl.tudelft.jpacman.server;
+
+import nl.tudelft.jpacman.game.GameSession;
+import nl.tudelft.jpacman.game.SessionManager;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves games to remote clients over TCP, speaking the {@link Protocol}.
+ * Every client plays a game of its own, hosted by a {@link SessionManager}.
+ * <p>
+ * A single thread serves all clients: it waits on a selector for clients to
+ * connect and send commands, and on every tick sends each client the changes
+ * to its game since the previous tick. Games are played on the threads of
+ * the session manager, so the server thread only encodes and copies bytes.
+ */
+public class GameServer {
+
+    /**
+     * The default interval between two ticks, in milliseconds.
+     */
+    public static final long DEFAULT_TICK_INTERVAL = 50L;
+
+    /**
+     * The port listened on when none is given.
+     */
+    public static final int DEFAULT_PORT = 7531;
+
+    /**
+     * The sessions of the games served.
+     */
+    private final SessionManager sessions;
+
+    /**
+     * The interval between two ticks, in nanoseconds.
+     */
+    private final long tickInterval;
+
+    /**
+     * The selector waiting for all channels.
+     */
+    private final Selector selector;
+
+    /**
+     * The channel accepting new clients.
+     */
+    private final ServerSocketChannel server;
+
+    /**
+     * The thread serving the clients, or <code>null</code> if the server was
+     * not started.
+     */
+    private Thread thread;
+
+    /**
+     * <code>true</code> as long as the server should keep serving.
+     */
+    private volatile boolean running;
+
+    /**
+     * The number of the current tick.
+     */
+    private volatile long tick;
+
+    /**
+     * The amount of connected clients.
+     */
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    /**
+     * Creates a new server listening on the given address. The server does
+     * not serve any clients until it is started.
+     *
+     * @param sessions     The manager of the sessions of the games served.
+     * @param address      The address to listen on, with port 0 for any free
+     *                     port.
+     * @param tickInterval The interval between two ticks, in milliseconds.
+     * @throws IOException When the address could not be listened on.
+     */
+    public GameServer(SessionManager sessions, InetSocketAddress address, long tickInterval)
+            throws IOException {
+        assert sessions != null;
+        assert address != null;
+        assert tickInterval > 0;
+        this.sessions = sessions;
+        this.tickInterval = TimeUnit.MILLISECONDS.toNanos(tickInterval);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * @return The number of the current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The amount of connected clients.
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Starts serving clients on a thread of its own.
+     */
+    public synchronized void start() {
+        assert thread == null;
+        running = true;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "JPacman server");
+        thread.start();
+    }
+
+    /**
+     * Stops serving, disconnects all clients and closes their sessions.
+     *
+     * @throws InterruptedException When interrupted while waiting for the
+     *                              server thread to finish.
+     */
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        if (thread != null) {
+            thread.join();
+        }
+        close();
+    }
+
+    /**
+     * Serves the clients until the server is stopped.
+     */
+    private void serve() {
+        long nextTick = System.nanoTime() + tickInterval;
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait <= 0L) {
+                    tick();
+                    nextTick += tickInterval;
+                    continue;
+                }
+                selector.select(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(wait)));
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            running = false;
+        }
+    }
+
+    /**
+     * Handles a channel that is ready.
+     *
+     * @param key The key of the channel.
+     * @throws IOException When a new client could not be accepted.
+     */
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            boolean open = true;
+            if (key.isReadable()) {
+                open = connection.read();
+            }
+            if (open && key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+            if (open) {
+                updateInterest(key, connection);
+            } else {
+                disconnect(key);
+            }
+        } catch (IOException e) {
+            disconnect(key);
+        }
+    }
+
+    /**
+     * Accepts a new client and creates a session for it. The client is
+     * disconnected right away if the session manager refuses new sessions.
+     *
+     * @throws IOException When the server channel failed.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        GameSession session;
+        try {
+            session = sessions.create();
+        } catch (RejectedExecutionException e) {
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel, session));
+        connectionCount.incrementAndGet();
+    }
+
+    /**
+     * Advances to the next tick and sends every client the changes to its
+     * game. Clients whose session was closed, or that are too far behind,
+     * are disconnected.
+     */
+    private void tick() {
+        tick++;
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid() || !(key.attachment() instanceof Connection)) {
+                continue;
+            }
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (connection.getSession().isClosed() || !connection.send(tick)) {
+                    disconnect(key);
+                } else {
+                    updateInterest(key, connection);
+                }
+            } catch (IOException e) {
+                disconnect(key);
+            }
+        }
+    }
+
+    /**
+     * Waits for a channel to become writable only while bytes are queued
+     * for it.
+     *
+     * @param key        The key of the channel.
+     * @param connection The connection over the channel.
+     */
+    private static void updateInterest(SelectionKey key, Connection connection) {
+        int ops = SelectionKey.OP_READ;
+        if (connection.hasPending()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        if (key.interestOps() != ops) {
+            key.interestOps(ops);
+        }
+    }
+
+    /**
+     * Disconnects a client and closes its session.
+     *
+     * @param key The key of the channel to the client.
+     */
+    private void disconnect(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        key.cancel();
+        connectionCount.decrementAndGet();
+        try {
+            connection.getChannel().close();
+        } catch (IOException e) {
+            // the client is gone either way.
+        }
+        sessions.close(connection.getSession());
+    }
+
+    /**
+     * Disconnects all clients and releases the channels of the server.
+     */
+    private void close() {
+        if (!selector.isOpen()) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                disconnect(key);
+            }
+        }
+        try {
+            server.close();
+            selector.close();
+        } catch (IOException e) {
+            // nothing left to release.
+        }
+    }
+
+    /**
+     * Serves the default board on the port given as the only argument, or
+     * on {@value #DEFAULT_PORT} when none is given.
+     *
+     * @param args The port to listen on, optionally.
+     * @throws IOException When the board could not be read or the port could
+     *                     not be listened on.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            port = Integer.parseInt(args[0]);
+        }
+        LevelTemplate template;
+        try (InputStream board = GameServer.class.getResourceAsStream("/board.txt")) {
+            template = LevelTemplate.fromText(board);
+        }
+        SessionManager sessions = new SessionManager(template, new PacManSprites(),
+                Runtime.getRuntime().availableProcessors());
+        new GameServer(sessions, new InetSocketAddress(port), DEFAULT_TICK_INTERVAL).start();
+    }
+}
@@ -0,0 +1,118 @@
+package nl.tudelft.jpacman.server;
+
+import nl.tudelft.jpacman.board.Direction;
+
+/**
+ * The binary protocol spoken between a {@link GameServer} and its clients.
+ * Both directions send frames; all numbers are big-endian:
+ * <pre>
+ * int   length   amount of bytes that follow, type included
+ * byte  type     one of the frame types below
+ * ...   payload
+ * </pre>
+ * Squares are identified by their index <code>x * height + y</code>, units by
+ * their position in the list of players followed by the list of NPCs of the
+ * level, and directions by their ordinal. A square index of
+ * {@value #NO_SQUARE} means a unit is not on the board.
+ * <p>
+ * The server sends a single {@link #INIT} frame with the full state, followed
+ * by a {@link #DELTA} frame on every tick in which the level changed:
+ * <pre>
+ * INIT:  int width, int height, byte flags,
+ *        short units, units * (int square, byte direction),
+ *        int pellets, pellets * int square,
+ *        short players, players * int score
+ * DELTA: long tick, byte flags,
+ *        short moves, moves * (short unit, int square, byte direction),
+ *        int removed, removed * int square,
+ *        int added, added * int square,
+ *        short scores, scores * (short player, int score)
+ * </pre>
+ * Clients send {@link #MOVE} frames with a single direction byte to move
+ * their player, and empty {@link #START} and {@link #STOP} frames to start
+ * and pause their game.
+ */
+public final class Protocol {
+
+    /**
+     * Frame with the full state of a level, sent once.
+     */
+    public static final byte INIT = 1;
+
+    /**
+     * Frame with the changes to a level since the previous frame.
+     */
+    public static final byte DELTA = 2;
+
+    /**
+     * Frame asking to move the client's player.
+     */
+    public static final byte MOVE = 3;
+
+    /**
+     * Frame asking to start or resume the client's game.
+     */
+    public static final byte START = 4;
+
+    /**
+     * Frame asking to pause the client's game.
+     */
+    public static final byte STOP = 5;
+
+    /**
+     * Flag set when the game is in progress.
+     */
+    public static final byte IN_PROGRESS = 1;
+
+    /**
+     * Flag set when any player is still alive.
+     */
+    public static final byte ANY_PLAYER_ALIVE = 2;
+
+    /**
+     * Flag set when all pellets were eaten.
+     */
+    public static final byte ALL_PELLETS_EATEN = 4;
+
+    /**
+     * Square index of a unit that is not on the board.
+     */
+    public static final int NO_SQUARE = -1;
+
+    /**
+     * The amount of bytes of the length field of a frame.
+     */
+    public static final int LENGTH_SIZE = Integer.BYTES;
+
+    /**
+     * The largest frame a client may send, length field excluded.
+     */
+    public static final int MAX_CLIENT_FRAME = 16;
+
+    /**
+     * Prevents instantiation.
+     */
+    private Protocol() {
+    }
+
+    /**
+     * @param direction The direction to encode.
+     * @return The byte representing the direction.
+     */
+    public static byte encode(Direction direction) {
+        return (byte) direction.ordinal();
+    }
+
+    /**
+     * @param code A byte representing a direction.
+     * @return The direction represented, or <code>null</code> if the byte
+     * does not represent any.
+     */
+    public static Direction decode(byte code) {
+        Direction[] directions = Direction.values();
+        if (code < 0 || code >= directions.length) {
+            return null;
+        }
+        return directions[code];
+    }
+}
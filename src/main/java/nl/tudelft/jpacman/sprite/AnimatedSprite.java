@@ -98,6 +98,21 @@ public class AnimatedSprite implements Sprite {
         this.animating = isAnimating;
     }
 
+    /**
+     * @return <code>true</code> iff this sprite is currently animating.
+     */
+    public boolean isAnimating() {
+        return animating;
+    }
+
+    /**
+     * @return <code>true</code> iff this animation loops, i.e. never ends by
+     * itself.
+     */
+    public boolean isLooping() {
+        return looping;
+    }
+
     /**
      * (Re)starts the current animation.
      */
@@ -121,8 +136,9 @@ public class AnimatedSprite implements Sprite {
 
     /**
      * Updates the current frame index depending on the current system time.
+     * Synchronized, as tiles of large boards are drawn by multiple threads.
      */
-    private void update() {
+    private synchronized void update() {
         long now = System.currentTimeMillis();
         if (animating) {
             while (lastUpdate < now) {
@@ -48,13 +48,18 @@ public class ImageSprite implements Sprite {
 
     /**
      * Creates a new, empty image of the given width and height. Its
-     * transparency will be a bitmask, so no try ARGB image.
+     * transparency will be a bitmask, so no try ARGB image. Without a display
+     * there is no screen configuration to be compatible with, so a plain ARGB
+     * image is created instead.
      *
      * @param width  The width of the new image.
      * @param height The height of the new image.
      * @return The new, empty image.
      */
     private BufferedImage newImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
         GraphicsConfiguration gc = GraphicsEnvironment
                 .getLocalGraphicsEnvironment().getDefaultScreenDevice()
                 .getDefaultConfiguration();
@@ -4,8 +4,8 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility to load {@link Sprite}s.
@@ -24,7 +24,7 @@ public class SpriteStore {
      * Create a new sprite store.
      */
     public SpriteStore() {
-        spriteMap = new HashMap<String, Sprite>();
+        spriteMap = new ConcurrentHashMap<String, Sprite>();
     }
 
     /**
@@ -0,0 +1,131 @@
+package nl.tudelft.jpacman.ui;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.game.Game;
+
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Canvas displaying a game using active rendering. Instead of waiting for
+ * Swing's repaint manager, every frame is drawn into a back buffer of a
+ * {@link BufferStrategy} and shown immediately, flipping pages when the
+ * graphics device supports it.
+ */
+class BoardCanvas extends Canvas {
+
+    /**
+     * Default serialisation ID.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The game to display.
+     */
+    private final Game game;
+
+    /**
+     * The amount of buffers used, 2 for double and 3 for triple buffering.
+     */
+    private final int bufferCount;
+
+    /**
+     * The renderer drawing the board.
+     */
+    private final BoardRenderer renderer = new BoardRenderer();
+
+    /**
+     * The camera showing part of the board, or <code>null</code> if the
+     * whole board is shown.
+     */
+    private final Camera camera;
+
+    /**
+     * Creates a new board canvas that will display the provided game.
+     *
+     * @param game    The game to display.
+     * @param buffers The amount of buffers to render with, 2 for double and 3
+     *                for triple buffering.
+     * @param camera  The camera showing part of the board, or
+     *                <code>null</code> to show the whole board.
+     * @param size    The preferred size of the canvas, or <code>null</code>
+     *                for the size of the whole board.
+     */
+    BoardCanvas(Game game, int buffers, Camera camera, Dimension size) {
+        super();
+        assert game != null;
+        assert buffers >= 2;
+        this.game = game;
+        this.bufferCount = buffers;
+        this.camera = camera;
+
+        Board board = game.getLevel().getBoard();
+
+        Dimension preferred = size;
+        if (preferred == null) {
+            preferred = renderer.getImageSize(board);
+        }
+        setMinimumSize(preferred);
+        setPreferredSize(preferred);
+
+        // all painting is done by renderFrame().
+        setIgnoreRepaint(true);
+    }
+
+    /**
+     * @return <code>true</code> iff the contents of the last shown frame were
+     * lost, so the board has to be rendered again.
+     */
+    boolean contentsLost() {
+        BufferStrategy strategy = getBufferStrategy();
+        return strategy != null && strategy.contentsLost();
+    }
+
+    /**
+     * Renders the current state of the game into the back buffer and shows
+     * it. Does nothing as long as this canvas is not displayable.
+     */
+    void renderFrame() {
+        if (!isDisplayable()) {
+            return;
+        }
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createBufferStrategy(bufferCount);
+            strategy = getBufferStrategy();
+        }
+
+        // contents may be lost or restored while drawing, in which case the
+        // frame has to be drawn again.
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    draw(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /**
+     * Draws the board, or the part of it in view of the camera.
+     *
+     * @param g The graphics context to draw on.
+     */
+    private void draw(Graphics g) {
+        Board board = game.getLevel().getBoard();
+        if (camera == null) {
+            renderer.render(board, g, getSize());
+        } else {
+            renderer.render(board, g, getSize(), camera);
+        }
+    }
+}
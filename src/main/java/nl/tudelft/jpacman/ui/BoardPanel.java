@@ -1,8 +1,6 @@
 package nl.tudelft.jpacman.ui;
 
 import nl.tudelft.jpacman.board.Board;
-import nl.tudelft.jpacman.board.Square;
-import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.game.Game;
 
 import javax.swing.*;
@@ -21,20 +19,20 @@ class BoardPanel extends JPanel {
     private static final long serialVersionUID = 1L;
 
     /**
-     * The background colour of the board.
+     * The game to display.
      */
-    private static final Color BACKGROUND_COLOR = Color.BLACK;
+    private final Game game;
 
     /**
-     * The size (in pixels) of a square on the board. The initial size of this
-     * panel will scale to fit a board with square of this size.
+     * The renderer drawing the board.
      */
-    private static final int SQUARE_SIZE = 16;
+    private final BoardRenderer renderer = new BoardRenderer();
 
     /**
-     * The game to display.
+     * The camera showing part of the board, or <code>null</code> if the
+     * whole board is shown.
      */
-    private final Game game;
+    private final Camera camera;
 
     /**
      * Creates a new board panel that will display the provided game.
@@ -42,65 +40,43 @@ class BoardPanel extends JPanel {
      * @param game The game to display.
      */
     BoardPanel(Game game) {
+        this(game, null, null);
+    }
+
+    /**
+     * Creates a new board panel that will display the provided game through
+     * a camera.
+     *
+     * @param game   The game to display.
+     * @param camera The camera showing part of the board, or
+     *               <code>null</code> to show the whole board.
+     * @param size   The preferred size of the panel, or <code>null</code> for
+     *               the size of the whole board.
+     */
+    BoardPanel(Game game, Camera camera, Dimension size) {
         super();
         assert game != null;
         this.game = game;
+        this.camera = camera;
 
         Board board = game.getLevel().getBoard();
 
-        int w = board.getWidth() * SQUARE_SIZE;
-        int h = board.getHeight() * SQUARE_SIZE;
-
-        Dimension size = new Dimension(w, h);
-        setMinimumSize(size);
-        setPreferredSize(size);
+        Dimension preferred = size;
+        if (preferred == null) {
+            preferred = renderer.getImageSize(board);
+        }
+        setMinimumSize(preferred);
+        setPreferredSize(preferred);
     }
 
     @Override
     public void paint(Graphics g) {
         assert g != null;
-        render(game.getLevel().getBoard(), g, getSize());
-    }
-
-    /**
-     * Renders the board on the given graphics context to the given dimensions.
-     *
-     * @param board  The board to render.
-     * @param g      The graphics context to draw on.
-     * @param window The dimensions to scale the rendered board to.
-     */
-    private void render(Board board, Graphics g, Dimension window) {
-        int cellW = window.width / board.getWidth();
-        int cellH = window.height / board.getHeight();
-
-        g.setColor(BACKGROUND_COLOR);
-        g.fillRect(0, 0, window.width, window.height);
-
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
-                int cellX = x * cellW;
-                int cellY = y * cellH;
-                Square square = board.squareAt(x, y);
-                render(square, g, cellX, cellY, cellW, cellH);
-            }
-        }
-    }
-
-    /**
-     * Renders a single square on the given graphics context on the specified
-     * rectangle.
-     *
-     * @param square The square to render.
-     * @param g      The graphics context to draw on.
-     * @param x      The x position to start drawing.
-     * @param y      The y position to start drawing.
-     * @param w      The width of this square (in pixels.)
-     * @param h      The height of this square (in pixels.)
-     */
-    private void render(Square square, Graphics g, int x, int y, int w, int h) {
-        square.getSprite().draw(g, x, y, w, h);
-        for (Unit unit : square.getOccupants()) {
-            unit.getSprite().draw(g, x, y, w, h);
+        Board board = game.getLevel().getBoard();
+        if (camera == null) {
+            renderer.render(board, g, getSize());
+        } else {
+            renderer.render(board, g, getSize(), camera);
         }
     }
-}
\ No newline at end of file
+}
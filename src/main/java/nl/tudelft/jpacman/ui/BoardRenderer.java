@@ -0,0 +1,382 @@
+package nl.tudelft.jpacman.ui;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders a {@link Board} with all units on it. The renderer is not bound to
+ * any component: it draws on any graphics context, or into an off-screen
+ * image that is reused from frame to frame. Off-screen rendering does not
+ * require a display, so it also works when <code>java.awt.headless</code> is
+ * set.
+ * <p>
+ * Boards can be rendered completely, scaled to the drawing surface, or
+ * through a {@link Camera} that shows only the part of the board around the
+ * unit it follows. Either way, only the squares that end up on the drawing
+ * surface are visited, so scrolling over a huge board costs as much as
+ * drawing a board the size of the window.
+ * <p>
+ * When more squares are visible than the parallel threshold, they are
+ * rasterized in tiles by a fork-join pool. Every tile is drawn into a shared back buffer by
+ * its own graphics context, after which the back buffer is presented at once.
+ * <p>
+ * A renderer is not thread safe, as the off-screen images are shared by all
+ * calls to {@link #render(Board, Graphics, Dimension)} and
+ * {@link #renderImage(Board)}.
+ */
+public class BoardRenderer {
+
+    /**
+     * The default size (in pixels) of a square on the board.
+     */
+    public static final int SQUARE_SIZE = 16;
+
+    /**
+     * The default amount of squares above which boards are rasterized in
+     * parallel. Below this, splitting the work costs more than it saves.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 40_000;
+
+    /**
+     * The background colour of the board.
+     */
+    private static final Color BACKGROUND_COLOR = Color.BLACK;
+
+    /**
+     * The width and height (in squares) of a tile that is rasterized by a
+     * single task.
+     */
+    private static final int TILE_SIZE = 32;
+
+    /**
+     * The size (in pixels) of a square in rendered images.
+     */
+    private final int squareSize;
+
+    /**
+     * The amount of squares above which boards are rasterized in parallel.
+     */
+    private final int parallelThreshold;
+
+    /**
+     * The pool rasterizing the tiles of large boards.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The off-screen image boards are rendered into, or <code>null</code> if
+     * no image was rendered yet.
+     */
+    private BufferedImage image;
+
+    /**
+     * The back buffer large boards are rasterized into before they are drawn
+     * on a graphics context, or <code>null</code> if none was needed yet.
+     */
+    private BufferedImage backBuffer;
+
+    /**
+     * Creates a new renderer drawing squares of {@value #SQUARE_SIZE} pixels.
+     */
+    public BoardRenderer() {
+        this(SQUARE_SIZE);
+    }
+
+    /**
+     * Creates a new renderer.
+     *
+     * @param squareSize The size (in pixels) of a square in rendered images.
+     */
+    public BoardRenderer(int squareSize) {
+        this(squareSize, DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new renderer.
+     *
+     * @param squareSize        The size (in pixels) of a square in rendered
+     *                          images.
+     * @param parallelThreshold The amount of squares above which boards are
+     *                          rasterized in parallel.
+     * @param pool              The pool rasterizing the tiles of large boards.
+     */
+    public BoardRenderer(int squareSize, int parallelThreshold, ForkJoinPool pool) {
+        assert squareSize > 0;
+        assert parallelThreshold >= 0;
+        assert pool != null;
+        this.squareSize = squareSize;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the size of the image the given board is rendered into.
+     *
+     * @param board The board to render.
+     * @return The size of the image for this board.
+     */
+    public Dimension getImageSize(Board board) {
+        return new Dimension(board.getWidth() * squareSize,
+                board.getHeight() * squareSize);
+    }
+
+    /**
+     * Renders the board into an off-screen image. The same image is returned
+     * (and overwritten) on every call, unless the size of the board changes.
+     * Callers that want to keep a frame should copy it.
+     *
+     * @param board The board to render.
+     * @return The image containing the rendered board.
+     */
+    public BufferedImage renderImage(Board board) {
+        Dimension size = getImageSize(board);
+        if (image == null || image.getWidth() != size.width
+                || image.getHeight() != size.height) {
+            image = new BufferedImage(size.width, size.height,
+                    BufferedImage.TYPE_INT_RGB);
+        }
+        renderInto(board, image, size);
+        return image;
+    }
+
+    /**
+     * Renders the board on the given graphics context to the given dimensions.
+     *
+     * @param board  The board to render.
+     * @param g      The graphics context to draw on.
+     * @param window The dimensions to scale the rendered board to.
+     */
+    public void render(Board board, Graphics g, Dimension window) {
+        render(board, g, window, fullView(board, window));
+    }
+
+    /**
+     * Renders the part of the board in view of the camera on the given
+     * graphics context. Squares outside of the view are skipped altogether.
+     *
+     * @param board  The board to render.
+     * @param g      The graphics context to draw on.
+     * @param window The dimensions of the drawing surface.
+     * @param camera The camera determining which part of the board is shown
+     *               and at which zoom level.
+     */
+    public void render(Board board, Graphics g, Dimension window, Camera camera) {
+        render(board, g, window, camera.viewport(board, window));
+    }
+
+    /**
+     * Renders the squares in the viewport on the given graphics context.
+     *
+     * @param board  The board to render.
+     * @param g      The graphics context to draw on.
+     * @param window The dimensions of the drawing surface.
+     * @param view   The part of the board to render.
+     */
+    private void render(Board board, Graphics g, Dimension window, Viewport view) {
+        if (!isParallel(view)) {
+            g.setColor(BACKGROUND_COLOR);
+            g.fillRect(0, 0, window.width, window.height);
+            renderSquares(board, g, view);
+            return;
+        }
+        if (backBuffer == null || backBuffer.getWidth() != window.width
+                || backBuffer.getHeight() != window.height) {
+            backBuffer = new BufferedImage(window.width, window.height,
+                    BufferedImage.TYPE_INT_RGB);
+        }
+        renderTiles(board, backBuffer, window, view);
+        g.drawImage(backBuffer, 0, 0, null);
+    }
+
+    /**
+     * Renders the board into the given image, in parallel tiles if the board
+     * is large enough.
+     *
+     * @param board  The board to render.
+     * @param target The image to draw on.
+     * @param window The dimensions to scale the rendered board to.
+     */
+    private void renderInto(Board board, BufferedImage target, Dimension window) {
+        Viewport view = fullView(board, window);
+        if (isParallel(view)) {
+            renderTiles(board, target, window, view);
+            return;
+        }
+        Graphics2D g = target.createGraphics();
+        try {
+            render(board, g, window, view);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Creates a viewport showing the whole board, scaled to the window.
+     *
+     * @param board  The board to render.
+     * @param window The dimensions to scale the rendered board to.
+     * @return A viewport showing all squares of the board.
+     */
+    private static Viewport fullView(Board board, Dimension window) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        return new Viewport(new Rectangle(0, 0, width, height),
+                new Dimension(window.width / width, window.height / height),
+                new Point(0, 0));
+    }
+
+    /**
+     * @param view The part of the board to render.
+     * @return <code>true</code> iff enough squares are visible to rasterize
+     * them in parallel.
+     */
+    private boolean isParallel(Viewport view) {
+        return view.getSquareCount() > parallelThreshold;
+    }
+
+    /**
+     * Rasterizes the visible squares into the image in parallel tiles and
+     * waits until all tiles are done.
+     *
+     * @param board  The board to render.
+     * @param target The image to draw on.
+     * @param window The dimensions of the image.
+     * @param view   The part of the board to render.
+     */
+    private void renderTiles(Board board, BufferedImage target, Dimension window,
+                             Viewport view) {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(BACKGROUND_COLOR);
+            g.fillRect(0, 0, window.width, window.height);
+        } finally {
+            g.dispose();
+        }
+        pool.invoke(new TileTask(board, target, view));
+    }
+
+    /**
+     * Renders the squares in the viewport on the given graphics context.
+     *
+     * @param board The board to render.
+     * @param g     The graphics context to draw on.
+     * @param view  The squares to render and where to draw them.
+     */
+    private void renderSquares(Board board, Graphics g, Viewport view) {
+        int cellW = view.getCellWidth();
+        int cellH = view.getCellHeight();
+
+        for (int y = view.getFromY(); y < view.getToY(); y++) {
+            for (int x = view.getFromX(); x < view.getToX(); x++) {
+                Square square = board.squareAt(x, y);
+                render(square, g, view.pixelX(x), view.pixelY(y), cellW, cellH);
+            }
+        }
+    }
+
+    /**
+     * Renders a single square on the given graphics context on the specified
+     * rectangle.
+     *
+     * @param square The square to render.
+     * @param g      The graphics context to draw on.
+     * @param x      The x position to start drawing.
+     * @param y      The y position to start drawing.
+     * @param w      The width of this square (in pixels.)
+     * @param h      The height of this square (in pixels.)
+     */
+    private void render(Square square, Graphics g, int x, int y, int w, int h) {
+        square.getSprite().draw(g, x, y, w, h);
+        for (Unit unit : square.getOccupants()) {
+            unit.getSprite().draw(g, x, y, w, h);
+        }
+    }
+
+    /**
+     * Task rasterizing a region of the board, splitting it in halves until
+     * the region is no larger than a single tile.
+     */
+    private final class TileTask extends RecursiveAction {
+
+        /**
+         * Default serialisation ID.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The board to render.
+         */
+        private final transient Board board;
+
+        /**
+         * The image to draw on.
+         */
+        private final transient BufferedImage target;
+
+        /**
+         * The region of the board to rasterize.
+         */
+        private final transient Viewport view;
+
+        /**
+         * Creates a new task rasterizing a region of the board.
+         *
+         * @param board  The board to render.
+         * @param target The image to draw on.
+         * @param view   The region of the board to rasterize.
+         */
+        private TileTask(Board board, BufferedImage target, Viewport view) {
+            this.board = board;
+            this.target = target;
+            this.view = view;
+        }
+
+        @Override
+        protected void compute() {
+            int fromX = view.getFromX();
+            int fromY = view.getFromY();
+            int toX = view.getToX();
+            int toY = view.getToY();
+            int width = toX - fromX;
+            int height = toY - fromY;
+            if (width > TILE_SIZE && width >= height) {
+                int half = fromX + width / 2;
+                invokeAll(split(fromX, fromY, half, toY), split(half, fromY, toX, toY));
+            } else if (height > TILE_SIZE) {
+                int half = fromY + height / 2;
+                invokeAll(split(fromX, fromY, toX, half), split(fromX, half, toX, toY));
+            } else {
+                Graphics2D g = target.createGraphics();
+                try {
+                    renderSquares(board, g, view);
+                } finally {
+                    g.dispose();
+                }
+            }
+        }
+
+        /**
+         * Creates a task rasterizing part of this task's region.
+         *
+         * @param x1 The first column of the part.
+         * @param y1 The first row of the part.
+         * @param x2 The column after the last column of the part.
+         * @param y2 The row after the last row of the part.
+         * @return The task rasterizing the part.
+         */
+        private TileTask split(int x1, int y1, int x2, int y2) {
+            return new TileTask(board, target, view.part(x1, y1, x2, y2));
+        }
+    }
+}
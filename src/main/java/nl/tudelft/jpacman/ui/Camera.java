@@ -0,0 +1,157 @@
+package nl.tudelft.jpacman.ui;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * A camera looking at part of a board, centred on the unit it follows as far
+ * as the edges of the board allow. Only the squares in view of the camera
+ * are rendered, so the cost of drawing a frame depends on the size of the
+ * window rather than the size of the board.
+ */
+public class Camera {
+
+    /**
+     * The size (in pixels) of a square at a zoom level of 1.
+     */
+    private final int squareSize;
+
+    /**
+     * The magnification of the board.
+     */
+    private volatile double zoom = 1.0;
+
+    /**
+     * The unit followed by this camera, or <code>null</code> if it follows
+     * nothing.
+     */
+    private volatile Unit target;
+
+    /**
+     * The column the camera was last centred on.
+     */
+    private int centreX;
+
+    /**
+     * The row the camera was last centred on.
+     */
+    private int centreY;
+
+    /**
+     * Creates a new camera showing squares of
+     * {@value BoardRenderer#SQUARE_SIZE} pixels at zoom level 1.
+     */
+    public Camera() {
+        this(BoardRenderer.SQUARE_SIZE);
+    }
+
+    /**
+     * Creates a new camera.
+     *
+     * @param squareSize The size (in pixels) of a square at zoom level 1.
+     */
+    public Camera(int squareSize) {
+        assert squareSize > 0;
+        this.squareSize = squareSize;
+    }
+
+    /**
+     * Lets the camera follow a unit.
+     *
+     * @param unit The unit to follow, or <code>null</code> to stay put.
+     */
+    public void follow(Unit unit) {
+        this.target = unit;
+    }
+
+    /**
+     * @return The unit followed by this camera, or <code>null</code> if it
+     * follows nothing.
+     */
+    public Unit getTarget() {
+        return target;
+    }
+
+    /**
+     * Sets the magnification of the board, 1 showing squares at their
+     * original size.
+     *
+     * @param magnification The new zoom level.
+     */
+    public void setZoom(double magnification) {
+        assert magnification > 0;
+        this.zoom = magnification;
+    }
+
+    /**
+     * @return The magnification of the board.
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Determines the part of the board in view, centred on the followed unit
+     * as far as the edges of the board allow. Boards smaller than the window
+     * are centred in the window.
+     *
+     * @param board  The board to look at.
+     * @param window The size of the drawing surface.
+     * @return The part of the board in view.
+     */
+    Viewport viewport(Board board, Dimension window) {
+        updateCentre();
+        int cell = Math.max(1, (int) Math.round(squareSize * zoom));
+        int originX = origin(centreX, cell, board.getWidth(), window.width);
+        int originY = origin(centreY, cell, board.getHeight(), window.height);
+
+        int fromX = Math.max(0, -originX / cell);
+        int fromY = Math.max(0, -originY / cell);
+        int toX = Math.min(board.getWidth(), (window.width - originX + cell - 1) / cell);
+        int toY = Math.min(board.getHeight(), (window.height - originY + cell - 1) / cell);
+
+        return new Viewport(new Rectangle(fromX, fromY,
+                Math.max(0, toX - fromX), Math.max(0, toY - fromY)),
+                new Dimension(cell, cell), new Point(originX, originY));
+    }
+
+    /**
+     * Moves the centre of the camera to the followed unit, if it is on the
+     * board.
+     */
+    private void updateCentre() {
+        Unit unit = target;
+        if (unit == null) {
+            return;
+        }
+        Square square = unit.getSquare();
+        if (square != null && square.getX() >= 0) {
+            centreX = square.getX();
+            centreY = square.getY();
+        }
+    }
+
+    /**
+     * Determines where square 0 ends up along one axis.
+     *
+     * @param centre  The square to centre on.
+     * @param cell    The size of a square in pixels.
+     * @param squares The amount of squares along the axis.
+     * @param visible The amount of visible pixels along the axis.
+     * @return The pixel position of square 0.
+     */
+    private static int origin(int centre, int cell, int squares, int visible) {
+        int total = squares * cell;
+        if (total <= visible) {
+            return (visible - total) / 2;
+        }
+        int offset = centre * cell + cell / 2 - visible / 2;
+        offset = Math.max(0, Math.min(offset, total - visible));
+        return -offset;
+    }
+}
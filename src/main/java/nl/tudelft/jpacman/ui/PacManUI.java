@@ -1,14 +1,18 @@
 package nl.tudelft.jpacman.ui;
 
+import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.Sprite;
 import nl.tudelft.jpacman.ui.ScorePanel.ScoreFormatter;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * The default JPacMan UI frame. The PacManUI consists of the following
@@ -31,10 +35,19 @@ public class PacManUI extends JFrame {
     private static final long serialVersionUID = 1L;
 
     /**
-     * The desired frame rate interval for the graphics in milliseconds, 40
-     * being 25 fps.
+     * The default maximum frame rate when Swing paints the board.
      */
-    private static final int FRAME_INTERVAL = 40;
+    private static final int DEFAULT_FRAME_RATE = 25;
+
+    /**
+     * The default maximum frame rate when the board is actively rendered.
+     */
+    private static final int DEFAULT_ACTIVE_FRAME_RATE = 60;
+
+    /**
+     * The game displayed by this UI.
+     */
+    private final Game game;
 
     /**
      * The panel displaying the player scores.
@@ -42,10 +55,39 @@ public class PacManUI extends JFrame {
     private final ScorePanel scorePanel;
 
     /**
-     * The panel displaying the game.
+     * The panel displaying the game, or <code>null</code> if the game is
+     * actively rendered on {@link #boardCanvas}.
      */
     private final BoardPanel boardPanel;
 
+    /**
+     * The canvas actively rendering the game, or <code>null</code> if the game
+     * is painted by Swing on {@link #boardPanel}.
+     */
+    private final BoardCanvas boardCanvas;
+
+    /**
+     * The camera following the first player, or <code>null</code> if the
+     * whole board is shown.
+     */
+    private final Camera camera;
+
+    /**
+     * The loop redrawing the interface.
+     */
+    private final RenderLoop renderLoop;
+
+    /**
+     * The version of the level shown in the last frame.
+     */
+    private long renderedVersion = -1L;
+
+    /**
+     * <code>true</code> iff the board view was resized or shown since the
+     * last frame, and thus has to be drawn regardless of the level state.
+     */
+    private volatile boolean invalidated = true;
+
     /**
      * Creates a new UI for a JPac-Man game.
      *
@@ -58,10 +100,56 @@ public class PacManUI extends JFrame {
      */
     public PacManUI(final Game game, final Map<String, Action> buttons,
                     final Map<Integer, Action> keyMappings, ScoreFormatter sf) {
+        this(game, buttons, keyMappings, sf, 0, 0);
+    }
+
+    /**
+     * Creates a new UI for a JPac-Man game.
+     *
+     * @param game        The game to play.
+     * @param buttons     The map of caption-to-action entries that will appear as
+     *                    buttons on the interface.
+     * @param keyMappings The map of keyCode-to-action entries that will be added as key
+     *                    listeners to the interface.
+     * @param sf          The formatter used to display the current score.
+     * @param buffers     The amount of buffers to actively render the board with,
+     *                    or 0 to let Swing paint the board.
+     * @param maxFps      The maximum amount of frames drawn per second, or 0 for
+     *                    the default frame rate.
+     */
+    public PacManUI(final Game game, final Map<String, Action> buttons,
+                    final Map<Integer, Action> keyMappings, ScoreFormatter sf,
+                    int buffers, int maxFps) {
+        this(game, buttons, keyMappings, sf, buffers, maxFps, null);
+    }
+
+    /**
+     * Creates a new UI for a JPac-Man game.
+     *
+     * @param game        The game to play.
+     * @param buttons     The map of caption-to-action entries that will appear as
+     *                    buttons on the interface.
+     * @param keyMappings The map of keyCode-to-action entries that will be added as key
+     *                    listeners to the interface.
+     * @param sf          The formatter used to display the current score.
+     * @param buffers     The amount of buffers to actively render the board with,
+     *                    or 0 to let Swing paint the board.
+     * @param maxFps      The maximum amount of frames drawn per second, or 0 for
+     *                    the default frame rate.
+     * @param viewport    The amount of columns and rows shown at once by a
+     *                    camera following the first player, or <code>null</code>
+     *                    to show the whole board.
+     */
+    public PacManUI(final Game game, final Map<String, Action> buttons,
+                    final Map<Integer, Action> keyMappings, ScoreFormatter sf,
+                    int buffers, int maxFps, Dimension viewport) {
         super("JPac-Man");
         assert game != null;
         assert buttons != null;
         assert keyMappings != null;
+        assert maxFps >= 0;
+
+        this.game = game;
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
 
@@ -75,42 +163,166 @@ public class PacManUI extends JFrame {
             scorePanel.setScoreFormatter(sf);
         }
 
-        boardPanel = new BoardPanel(game);
+        Dimension viewSize = null;
+        if (viewport == null) {
+            camera = null;
+        } else {
+            camera = new Camera();
+            if (!game.getPlayers().isEmpty()) {
+                camera.follow(game.getPlayers().get(0));
+            }
+            viewSize = viewSize(game.getLevel().getBoard(), viewport);
+        }
+
+        Component boardView;
+        if (buffers > 0) {
+            boardPanel = null;
+            boardCanvas = new BoardCanvas(game, buffers, camera, viewSize);
+            boardView = boardCanvas;
+        } else {
+            boardPanel = new BoardPanel(game, camera, viewSize);
+            boardCanvas = null;
+            boardView = boardPanel;
+        }
 
         Container contentPanel = getContentPane();
         contentPanel.setLayout(new BorderLayout());
         contentPanel.add(buttonPanel, BorderLayout.SOUTH);
         contentPanel.add(scorePanel, BorderLayout.NORTH);
-        contentPanel.add(boardPanel, BorderLayout.CENTER);
+        contentPanel.add(boardView, BorderLayout.CENTER);
+
+        boardView.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                invalidated = true;
+            }
+
+            @Override
+            public void componentShown(ComponentEvent e) {
+                invalidated = true;
+            }
+        });
+
+        renderLoop = new RenderLoop(new RenderLoop.Scene() {
+            @Override
+            public boolean needsFrame() {
+                return isFrameNeeded();
+            }
+
+            @Override
+            public void drawFrame() {
+                nextFrame();
+            }
+        }, frameRate(maxFps));
 
         pack();
     }
 
     /**
-     * Starts the "engine", the thread that redraws the interface at set
-     * intervals.
+     * Determines the size of the board view showing the given amount of
+     * squares, but no more than the board has.
+     *
+     * @param board    The board shown.
+     * @param viewport The amount of columns and rows to show.
+     * @return The size (in pixels) of the board view.
+     */
+    private static Dimension viewSize(Board board, Dimension viewport) {
+        int columns = Math.min(viewport.width, board.getWidth());
+        int rows = Math.min(viewport.height, board.getHeight());
+        return new Dimension(columns * BoardRenderer.SQUARE_SIZE,
+                rows * BoardRenderer.SQUARE_SIZE);
+    }
+
+    /**
+     * @return The camera following the first player, or <code>null</code> if
+     * the whole board is shown.
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Determines the frame rate to draw the interface at.
+     *
+     * @param maxFps The requested maximum frame rate, or 0 for the default.
+     * @return The frame rate to draw the interface at.
+     */
+    private int frameRate(int maxFps) {
+        if (maxFps > 0) {
+            return maxFps;
+        }
+        if (boardCanvas != null) {
+            return DEFAULT_ACTIVE_FRAME_RATE;
+        }
+        return DEFAULT_FRAME_RATE;
+    }
+
+    /**
+     * Starts the "engine", the thread that redraws the interface whenever the
+     * game changed, at most at the configured frame rate. While the level is
+     * in progress all units are animated, so a frame is drawn every interval;
+     * an idle game is only redrawn when its state changes.
      */
     public void start() {
         setVisible(true);
+        renderLoop.start();
+    }
 
-        ScheduledExecutorService service = Executors
-                .newSingleThreadScheduledExecutor();
+    /**
+     * Stops redrawing the interface and disposes of the frame.
+     */
+    @Override
+    public void dispose() {
+        renderLoop.stop();
+        super.dispose();
+    }
 
-        service.scheduleAtFixedRate(new Runnable() {
+    /**
+     * Determines whether the interface has to be redrawn, i.e. the level
+     * changed, its units are animating or the board view was invalidated.
+     *
+     * @return <code>true</code> iff a new frame has to be drawn.
+     */
+    private boolean isFrameNeeded() {
+        Level level = game.getLevel();
+        return invalidated
+                || level.getVersion() != renderedVersion
+                || level.isInProgress()
+                || isAnimationRunning()
+                || (boardCanvas != null && boardCanvas.contentsLost());
+    }
 
-            @Override
-            public void run() {
-                nextFrame();
+    /**
+     * Determines whether any of the players shows an animation that has not
+     * finished yet, such as Pac-Man dying. Looping animations are not taken
+     * into account, as they never finish.
+     *
+     * @return <code>true</code> iff a player shows an unfinished animation.
+     */
+    private boolean isAnimationRunning() {
+        for (Player p : game.getPlayers()) {
+            Sprite sprite = p.getSprite();
+            if (sprite instanceof AnimatedSprite) {
+                AnimatedSprite animation = (AnimatedSprite) sprite;
+                if (animation.isAnimating() && !animation.isLooping()) {
+                    return true;
+                }
             }
-        }, 0, FRAME_INTERVAL, TimeUnit.MILLISECONDS);
-
+        }
+        return false;
     }
 
     /**
      * Draws the next frame, i.e. refreshes the scores and game.
      */
     private void nextFrame() {
-        boardPanel.repaint();
+        invalidated = false;
+        renderedVersion = game.getLevel().getVersion();
+        if (boardCanvas != null) {
+            boardCanvas.renderFrame();
+        } else {
+            boardPanel.repaint();
+        }
         scorePanel.refresh();
     }
 }
@@ -3,6 +3,7 @@ package nl.tudelft.jpacman.ui;
 import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.ui.ScorePanel.ScoreFormatter;
 
+import java.awt.Dimension;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -44,6 +45,23 @@ public class PacManUiBuilder {
      */
     private ScoreFormatter scoreFormatter = null;
 
+    /**
+     * The amount of buffers to actively render the board with, or 0 to let
+     * Swing paint the board.
+     */
+    private int renderBuffers = 0;
+
+    /**
+     * The maximum frame rate of the UI, or 0 for the default frame rate.
+     */
+    private int maxFrameRate = 0;
+
+    /**
+     * The amount of columns and rows shown at once, or <code>null</code> to
+     * show the whole board.
+     */
+    private Dimension viewport = null;
+
     /**
      * Creates a new Pac-Man UI builder without any mapped keys or buttons.
      */
@@ -66,7 +84,8 @@ public class PacManUiBuilder {
             addStartButton(game);
             addStopButton(game);
         }
-        return new PacManUI(game, buttons, keyMappings, scoreFormatter);
+        return new PacManUI(game, buttons, keyMappings, scoreFormatter, renderBuffers,
+                maxFrameRate, viewport);
     }
 
     /**
@@ -157,4 +176,47 @@ public class PacManUiBuilder {
         scoreFormatter = sf;
         return this;
     }
+
+    /**
+     * Actively render the board on a canvas using a buffer strategy, instead
+     * of letting Swing paint it.
+     *
+     * @param buffers The amount of buffers, 2 for double and 3 for triple
+     *                buffering.
+     * @return The builder.
+     */
+    public PacManUiBuilder withActiveRendering(int buffers) {
+        assert buffers >= 2;
+        renderBuffers = buffers;
+        return this;
+    }
+
+    /**
+     * Limits the amount of frames the UI draws per second. Frames are only
+     * drawn when the game changed, so this is an upper bound.
+     *
+     * @param fps The maximum amount of frames per second.
+     * @return The builder.
+     */
+    public PacManUiBuilder withMaxFrameRate(int fps) {
+        assert fps > 0;
+        maxFrameRate = fps;
+        return this;
+    }
+
+    /**
+     * Shows only part of the board, scrolling along with the first player.
+     * Only the visible squares are drawn, which keeps boards much larger than
+     * the screen playable.
+     *
+     * @param columns The amount of columns shown at once.
+     * @param rows    The amount of rows shown at once.
+     * @return The builder.
+     */
+    public PacManUiBuilder withViewport(int columns, int rows) {
+        assert columns > 0;
+        assert rows > 0;
+        viewport = new Dimension(columns, rows);
+        return this;
+    }
 }
@@ -0,0 +1,162 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A render loop that draws frames on its own thread, at most at a configured
+ * frame rate. A frame is only drawn when the scene reports that something
+ * changed since the last frame. When drawing a frame takes longer than the
+ * frame interval, the frames that should have been drawn in the meantime are
+ * skipped, so the loop stays aligned to its frame interval instead of
+ * falling further behind.
+ */
+class RenderLoop implements Runnable {
+
+    /**
+     * The scene drawn by this loop.
+     */
+    private final Scene scene;
+
+    /**
+     * The minimal interval between the start of two frames, in nanoseconds.
+     */
+    private final long frameInterval;
+
+    /**
+     * <code>true</code> iff this loop should keep on rendering.
+     */
+    private volatile boolean running;
+
+    /**
+     * The time it took to draw the last frame, in nanoseconds.
+     */
+    private volatile long lastFrameTime;
+
+    /**
+     * The amount of frames drawn so far.
+     */
+    private volatile long renderedFrames;
+
+    /**
+     * The amount of frames skipped so far because a frame overran.
+     */
+    private volatile long skippedFrames;
+
+    /**
+     * The thread executing this loop, or <code>null</code> if it was never
+     * started.
+     */
+    private Thread thread;
+
+    /**
+     * Creates a new render loop.
+     *
+     * @param scene        The scene to draw.
+     * @param maxFrameRate The maximum amount of frames per second.
+     */
+    RenderLoop(Scene scene, int maxFrameRate) {
+        assert scene != null;
+        assert maxFrameRate > 0;
+        this.scene = scene;
+        this.frameInterval = TimeUnit.SECONDS.toNanos(1) / maxFrameRate;
+    }
+
+    /**
+     * Starts rendering on a new daemon thread.
+     */
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "JPacman render loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops rendering. The frame currently being drawn, if any, is finished.
+     */
+    synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return The time it took to draw the last frame, in nanoseconds.
+     */
+    long getLastFrameTime() {
+        return lastFrameTime;
+    }
+
+    /**
+     * @return The amount of frames drawn so far.
+     */
+    long getRenderedFrames() {
+        return renderedFrames;
+    }
+
+    /**
+     * @return The amount of frames skipped so far because drawing a frame took
+     * longer than the frame interval.
+     */
+    long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    @Override
+    public void run() {
+        long nextFrame = System.nanoTime();
+        while (running) {
+            if (scene.needsFrame()) {
+                long begin = System.nanoTime();
+                scene.drawFrame();
+                lastFrameTime = System.nanoTime() - begin;
+                renderedFrames++;
+            }
+
+            nextFrame += frameInterval;
+            long now = System.nanoTime();
+            if (now >= nextFrame) {
+                long missed = (now - nextFrame) / frameInterval + 1;
+                skippedFrames += missed;
+                nextFrame += missed * frameInterval;
+            }
+            sleep(nextFrame - now);
+        }
+    }
+
+    /**
+     * Sleeps for the given amount of time, stopping the loop when
+     * interrupted.
+     *
+     * @param nanos The time to sleep in nanoseconds.
+     */
+    private void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Something that is drawn frame by frame.
+     */
+    interface Scene {
+
+        /**
+         * @return <code>true</code> iff anything changed since the last frame
+         * was drawn.
+         */
+        boolean needsFrame();
+
+        /**
+         * Draws a single frame.
+         */
+        void drawFrame();
+    }
+}
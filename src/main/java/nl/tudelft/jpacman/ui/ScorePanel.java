@@ -6,6 +6,7 @@ import nl.tudelft.jpacman.level.Player;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,11 @@ import java.util.Map;
 /**
  * A panel consisting of a column for each player, with the numbered players on
  * top and their respective scores underneath.
+ * <p>
+ * Labels are only updated when the state they show changed since the last
+ * refresh, as every change of a label's text makes Swing revalidate the
+ * panel. The default formatter keeps the formatted text of common scores, so
+ * refreshing does not produce garbage either.
  *
  * @author Jeroen Roosen
  */
@@ -26,9 +32,27 @@ public class ScorePanel extends JPanel {
             // player) -> String.format("Score: %3d", player.getScore());
             new ScoreFormatter() {
                 public String format(PacManPlayer p) {
-                    return String.format("Score: %3d", p.getScore());
+                    return formatScore(p.getScore());
                 }
             };
+
+    /**
+     * The amount of scores, starting at 0, whose formatted text is cached.
+     */
+    private static final int CACHED_SCORES = 4096;
+
+    /**
+     * The formatted text of the scores below {@value #CACHED_SCORES}, filled
+     * when a score is first shown. Shared by all panels.
+     */
+    private static final String[] SCORE_TEXTS = new String[CACHED_SCORES];
+
+    /**
+     * State shown for players whose label was not refreshed yet. No player
+     * is ever in this state.
+     */
+    private static final long NOT_SHOWN = Long.MIN_VALUE;
+
     /**
      * Default serialisation ID.
      */
@@ -42,6 +66,12 @@ public class ScorePanel extends JPanel {
      */
     private ScoreFormatter scoreFormatter = DEFAULT_SCORE_FORMATTER;
 
+    /**
+     * The state of each player as shown on its label, or
+     * {@value #NOT_SHOWN} until its label is first refreshed.
+     */
+    private final Map<Player, Long> shownStates;
+
     /**
      * Creates a new score panel with a column for each player.
      *
@@ -57,36 +87,94 @@ public class ScorePanel extends JPanel {
             add(new JLabel("Player " + i, JLabel.CENTER));
         }
         scoreLabels = new LinkedHashMap<>();
+        shownStates = new HashMap<>();
         for (Player p : players) {
             JLabel scoreLabel = new JLabel("0", JLabel.CENTER);
             scoreLabels.put(p, scoreLabel);
+            shownStates.put(p, NOT_SHOWN);
             add(scoreLabel);
         }
     }
 
     /**
-     * Refreshes the scores of the players.
+     * Formats a score the default way, reusing the text of scores that were
+     * shown before.
+     *
+     * @param score The score to format.
+     * @return The formatted score.
+     */
+    static String formatScore(int score) {
+        if (score < 0 || score >= CACHED_SCORES) {
+            return String.format("Score: %3d", score);
+        }
+        // racing threads at worst both format the same, immutable text.
+        String text = SCORE_TEXTS[score];
+        if (text == null) {
+            text = String.format("Score: %3d", score);
+            SCORE_TEXTS[score] = text;
+        }
+        return text;
+    }
+
+    /**
+     * Refreshes the scores of the players whose state changed since the last
+     * refresh.
      */
     protected void refresh() {
-        for (Player p : scoreLabels.keySet()) {
-            String score = "";
-            if (p instanceof PacManPlayer) {
-                PacManPlayer p2 = (PacManPlayer) p;
-                if (!p2.isAlive()) {
-                    score = "You died. ";
-                }
-                score += scoreFormatter.format(p2);
-                scoreLabels.get(p).setText(score);
-            } else if (p instanceof GhostPlayer) {
-                GhostPlayer p2 = (GhostPlayer) p;
-                if (p2.isWon()) {
-                    score = "Ghost Player, you win !";
-                } else {
-                    score = "Ghost Player";
-                }
-                scoreLabels.get(p).setText(score);
+        for (Map.Entry<Player, JLabel> entry : scoreLabels.entrySet()) {
+            Player p = entry.getKey();
+            long state = stateOf(p);
+            if (shownStates.get(p) != state) {
+                shownStates.put(p, state);
+                entry.getValue().setText(textOf(p));
+            }
+        }
+    }
+
+    /**
+     * Condenses everything shown on a player's label into a single number.
+     *
+     * @param p The player.
+     * @return The state of the player as shown on its label.
+     */
+    private static long stateOf(Player p) {
+        if (p instanceof PacManPlayer) {
+            PacManPlayer p2 = (PacManPlayer) p;
+            long alive = 0L;
+            if (p2.isAlive()) {
+                alive = 1L;
             }
+            return ((long) p2.getScore() << 1) | alive;
+        }
+        if (p instanceof GhostPlayer && ((GhostPlayer) p).isWon()) {
+            return 1L;
         }
+        return 0L;
+    }
+
+    /**
+     * Determines the text on a player's label.
+     *
+     * @param p The player.
+     * @return The text describing the player's score.
+     */
+    private String textOf(Player p) {
+        String score = "";
+        if (p instanceof PacManPlayer) {
+            PacManPlayer p2 = (PacManPlayer) p;
+            if (!p2.isAlive()) {
+                score = "You died. ";
+            }
+            score += scoreFormatter.format(p2);
+        } else if (p instanceof GhostPlayer) {
+            GhostPlayer p2 = (GhostPlayer) p;
+            if (p2.isWon()) {
+                score = "Ghost Player, you win !";
+            } else {
+                score = "Ghost Player";
+            }
+        }
+        return score;
     }
 
     /**
@@ -97,6 +185,9 @@ public class ScorePanel extends JPanel {
     public void setScoreFormatter(ScoreFormatter sf) {
         assert sf != null;
         scoreFormatter = sf;
+        for (Map.Entry<Player, Long> entry : shownStates.entrySet()) {
+            entry.setValue(NOT_SHOWN);
+        }
     }
 
     /**
@@ -0,0 +1,123 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.awt.Rectangle;
+
+/**
+ * The part of a board that is drawn: the range of visible squares, the size
+ * each square is drawn at and where the board's top-left corner ends up on
+ * the drawing surface.
+ */
+final class Viewport {
+
+    /**
+     * The visible squares, in board coordinates.
+     */
+    private final Rectangle squares;
+
+    /**
+     * The size (in pixels) each square is drawn at.
+     */
+    private final Dimension cell;
+
+    /**
+     * The position (in pixels) of the top-left corner of square 0,0 on the
+     * drawing surface, which may well be outside of it.
+     */
+    private final Point origin;
+
+    /**
+     * Creates a new viewport.
+     *
+     * @param squares The visible squares, in board coordinates.
+     * @param cell    The size (in pixels) each square is drawn at.
+     * @param origin  The position (in pixels) of square 0,0 on the drawing
+     *                surface.
+     */
+    Viewport(Rectangle squares, Dimension cell, Point origin) {
+        this.squares = squares;
+        this.cell = cell;
+        this.origin = origin;
+    }
+
+    /**
+     * @return The first visible column.
+     */
+    int getFromX() {
+        return squares.x;
+    }
+
+    /**
+     * @return The first visible row.
+     */
+    int getFromY() {
+        return squares.y;
+    }
+
+    /**
+     * @return The column after the last visible column.
+     */
+    int getToX() {
+        return squares.x + squares.width;
+    }
+
+    /**
+     * @return The row after the last visible row.
+     */
+    int getToY() {
+        return squares.y + squares.height;
+    }
+
+    /**
+     * @return The amount of visible squares.
+     */
+    long getSquareCount() {
+        return (long) squares.width * squares.height;
+    }
+
+    /**
+     * @param column The column of a square.
+     * @return The horizontal pixel position at which the square is drawn.
+     */
+    int pixelX(int column) {
+        return origin.x + column * cell.width;
+    }
+
+    /**
+     * @param row The row of a square.
+     * @return The vertical pixel position at which the square is drawn.
+     */
+    int pixelY(int row) {
+        return origin.y + row * cell.height;
+    }
+
+    /**
+     * @return The width (in pixels) each square is drawn at.
+     */
+    int getCellWidth() {
+        return cell.width;
+    }
+
+    /**
+     * @return The height (in pixels) each square is drawn at.
+     */
+    int getCellHeight() {
+        return cell.height;
+    }
+
+    /**
+     * Returns a viewport showing only the given part of this viewport, drawn
+     * at the same position.
+     *
+     * @param fromX The first column of the part.
+     * @param fromY The first row of the part.
+     * @param toX   The column after the last column of the part.
+     * @param toY   The row after the last row of the part.
+     * @return A viewport showing the part.
+     */
+    Viewport part(int fromX, int fromY, int toX, int toY) {
+        return new Viewport(new Rectangle(fromX, fromY, toX - fromX, toY - fromY),
+                cell, origin);
+    }
+}
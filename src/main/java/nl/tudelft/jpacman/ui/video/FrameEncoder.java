@@ -0,0 +1,20 @@
+package nl.tudelft.jpacman.ui.video;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes a sequence of frames to some destination, one frame at a time.
+ */
+public interface FrameEncoder extends Closeable {
+
+    /**
+     * Encodes the next frame of the sequence. The frame is not retained, so
+     * callers may reuse the image once this method returns.
+     *
+     * @param frame The frame to encode.
+     * @throws IOException When the frame could not be written.
+     */
+    void encode(BufferedImage frame) throws IOException;
+}
@@ -0,0 +1,89 @@
+package nl.tudelft.jpacman.ui.video;
+
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.ui.BoardRenderer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a game by rendering its board off-screen and passing every frame to
+ * a {@link FrameEncoder}. No display is needed, so games can be recorded on
+ * headless servers.
+ */
+public class FrameRecorder {
+
+    /**
+     * The game being recorded.
+     */
+    private final Game game;
+
+    /**
+     * The renderer drawing the frames.
+     */
+    private final BoardRenderer renderer;
+
+    /**
+     * The encoder writing the frames.
+     */
+    private final FrameEncoder encoder;
+
+    /**
+     * The amount of frames recorded so far.
+     */
+    private long frameCount;
+
+    /**
+     * Creates a new recorder.
+     *
+     * @param game     The game to record.
+     * @param renderer The renderer drawing the frames.
+     * @param encoder  The encoder writing the frames.
+     */
+    public FrameRecorder(Game game, BoardRenderer renderer, FrameEncoder encoder) {
+        assert game != null;
+        assert renderer != null;
+        assert encoder != null;
+        this.game = game;
+        this.renderer = renderer;
+        this.encoder = encoder;
+    }
+
+    /**
+     * Renders the current state of the game and encodes it as the next frame.
+     *
+     * @throws IOException When the frame could not be written.
+     */
+    public void captureFrame() throws IOException {
+        encoder.encode(renderer.renderImage(game.getLevel().getBoard()));
+        frameCount++;
+    }
+
+    /**
+     * Captures the given amount of frames at a fixed interval, while the game
+     * keeps running on its own threads.
+     *
+     * @param frames   The amount of frames to capture.
+     * @param interval The interval between two frames.
+     * @param unit     The unit of the interval.
+     * @throws IOException          When a frame could not be written.
+     * @throws InterruptedException When interrupted while waiting for the next
+     *                              frame.
+     */
+    public void record(int frames, long interval, TimeUnit unit)
+            throws IOException, InterruptedException {
+        long next = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            captureFrame();
+            next += unit.toNanos(interval);
+            TimeUnit.NANOSECONDS.sleep(next - System.nanoTime());
+        }
+    }
+
+    /**
+     * @return The amount of frames recorded so far.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+}
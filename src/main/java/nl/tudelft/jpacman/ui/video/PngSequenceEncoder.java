@@ -0,0 +1,60 @@
+package nl.tudelft.jpacman.ui.video;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Encodes frames as a sequence of numbered PNG files in a directory, e.g.
+ * <code>frame-000000.png</code>, <code>frame-000001.png</code>, ...
+ */
+public class PngSequenceEncoder implements FrameEncoder {
+
+    /**
+     * The directory the frames are written to.
+     */
+    private final File directory;
+
+    /**
+     * The prefix of every file name.
+     */
+    private final String prefix;
+
+    /**
+     * The number of the next frame.
+     */
+    private int frameNumber;
+
+    /**
+     * Creates a new encoder writing into the given directory, which is created
+     * if it does not exist yet.
+     *
+     * @param directory The directory to write the frames to.
+     * @param prefix    The prefix of the file name of every frame.
+     * @throws IOException When the directory could not be created.
+     */
+    public PngSequenceEncoder(File directory, String prefix) throws IOException {
+        assert directory != null;
+        assert prefix != null;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public void encode(BufferedImage frame) throws IOException {
+        File file = new File(directory, String.format("%s%06d.png", prefix, frameNumber));
+        if (!ImageIO.write(frame, "png", file)) {
+            throw new IOException("No PNG writer available for " + file);
+        }
+        frameNumber++;
+    }
+
+    @Override
+    public void close() {
+        // every frame is a file of its own, nothing left to flush.
+    }
+}
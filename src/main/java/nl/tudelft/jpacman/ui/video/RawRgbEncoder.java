@@ -0,0 +1,86 @@
+package nl.tudelft.jpacman.ui.video;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes frames as raw, headerless RGB data: three bytes per pixel, row by
+ * row, frame after frame. This is the <code>rgb24</code> format most video
+ * encoders accept on their standard input.
+ * <p>
+ * The buffers used to convert frames are kept and reused for all following
+ * frames of the same size.
+ */
+public class RawRgbEncoder implements FrameEncoder {
+
+    /**
+     * The amount of bytes written for a single pixel.
+     */
+    private static final int BYTES_PER_PIXEL = 3;
+
+    /**
+     * The offset of the red component in a packed RGB value.
+     */
+    private static final int RED_SHIFT = 16;
+
+    /**
+     * The offset of the green component in a packed RGB value.
+     */
+    private static final int GREEN_SHIFT = 8;
+
+    /**
+     * The stream the frames are written to.
+     */
+    private final OutputStream out;
+
+    /**
+     * The packed RGB values of a single row of the current frame.
+     */
+    private int[] row = new int[0];
+
+    /**
+     * The bytes of the current frame.
+     */
+    private byte[] bytes = new byte[0];
+
+    /**
+     * Creates a new encoder writing to the given stream.
+     *
+     * @param output The stream to write the frames to.
+     */
+    public RawRgbEncoder(OutputStream output) {
+        assert output != null;
+        this.out = output;
+    }
+
+    @Override
+    public void encode(BufferedImage frame) throws IOException {
+        int width = frame.getWidth();
+        int height = frame.getHeight();
+        int size = width * height * BYTES_PER_PIXEL;
+        if (row.length < width) {
+            row = new int[width];
+        }
+        if (bytes.length < size) {
+            bytes = new byte[size];
+        }
+
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            frame.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                bytes[i++] = (byte) (rgb >> RED_SHIFT);
+                bytes[i++] = (byte) (rgb >> GREEN_SHIFT);
+                bytes[i++] = (byte) rgb;
+            }
+        }
+        out.write(bytes, 0, size);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -63,4 +63,15 @@ public class SquareTest {
         Object[] occupantsAsArray = square.getOccupants().toArray();
         assertArrayEquals(new Object[]{o1, o2}, occupantsAsArray);
     }
+
+    /**
+     * Assert that a square that was never occupied has no occupants and can
+     * be left safely.
+     */
+    @Test
+    public void testNeverOccupied() {
+        square.remove(mock(Unit.class));
+
+        assertTrue(square.getOccupants().isEmpty());
+    }
 }
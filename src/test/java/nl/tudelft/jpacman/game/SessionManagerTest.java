@@ -0,0 +1,135 @@
+package nl.tudelft.jpacman.game;
+
+import nl.tudelft.jpacman.level.CompactMap;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.level.PacManPlayer;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests hosting games in a {@link SessionManager}.
+ */
+@SuppressWarnings("magicnumber")
+public class SessionManagerTest {
+
+    /**
+     * The manager under test.
+     */
+    private SessionManager manager;
+
+    /**
+     * Creates a manager for a small level with two threads.
+     */
+    @Before
+    public void setUp() {
+        LevelTemplate template = new LevelTemplate(CompactMap.fromText(Arrays.asList(
+                "#######", "#P...G#", "#######")));
+        manager = new SessionManager(template, new PacManSprites(), 2);
+    }
+
+    /**
+     * Stops the manager.
+     */
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    /**
+     * Verifies sessions are created, started and accounted for.
+     */
+    @Test
+    public void createAndStart() {
+        GameSession session = manager.create();
+        session.start();
+        assertTrue(session.getGame().isInProgress());
+        assertFalse(session.isFinished());
+        assertEquals(1, manager.getSessionCount());
+        assertEquals(session.getEstimatedBytes(), manager.getEstimatedBytes());
+
+        session.pause();
+        assertFalse(session.getGame().isInProgress());
+    }
+
+    /**
+     * Verifies closing a session releases its accounting.
+     */
+    @Test
+    public void close() {
+        GameSession session = manager.create();
+        manager.close(session);
+        assertTrue(session.isFinished());
+        assertNull(manager.get(session.getId()));
+        assertEquals(0, manager.getSessionCount());
+        assertEquals(0L, manager.getEstimatedBytes());
+    }
+
+    /**
+     * Verifies a session that could not be created is not accounted for, so
+     * it does not take up a slot of the session limit.
+     */
+    @Test
+    public void failedCreateReleasesAccounting() {
+        // without a start for Pac-Man, creating the game fails.
+        SessionManager broken = new SessionManager(new LevelTemplate(CompactMap.fromText(
+                Arrays.asList("#######", "#....G#", "#######"))), new PacManSprites(), 1);
+        try {
+            broken.setMaxSessions(1);
+            for (int i = 0; i < 2; i++) {
+                boolean created = true;
+                try {
+                    broken.create();
+                } catch (IndexOutOfBoundsException | AssertionError e) {
+                    created = false;
+                }
+                assertFalse(created);
+                assertEquals(0, broken.getSessionCount());
+                assertEquals(0L, broken.getEstimatedBytes());
+            }
+        } finally {
+            broken.shutdown();
+        }
+    }
+
+    /**
+     * Verifies finished sessions are reaped.
+     */
+    @Test
+    public void reapFinished() {
+        GameSession session = manager.create();
+        manager.create();
+        ((PacManPlayer) session.getGame().getPlayers().get(0)).setAlive(false);
+        assertEquals(1, manager.reap());
+        assertEquals(1, manager.getSessionCount());
+    }
+
+    /**
+     * Verifies no more sessions are created than allowed.
+     */
+    @Test(expected = RejectedExecutionException.class)
+    public void sessionLimit() {
+        manager.setMaxSessions(2);
+        manager.create();
+        manager.create();
+        manager.create();
+    }
+
+    /**
+     * Verifies no sessions are created beyond the memory budget.
+     */
+    @Test(expected = RejectedExecutionException.class)
+    public void memoryBudget() {
+        manager.setMemoryBudget(1L);
+        manager.create();
+    }
+}
@@ -0,0 +1,73 @@
+package nl.tudelft.jpacman.level;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the conversion of maps to and from the binary {@link CompactMap}
+ * format.
+ */
+@SuppressWarnings("magicnumber")
+public class CompactMapTest {
+
+    /**
+     * Verifies the squares of a text map end up in the right planes and
+     * spawn lists.
+     */
+    @Test
+    public void fromText() {
+        CompactMap map = CompactMap.fromText(Lists.newArrayList("#.G", "P #"));
+        assertEquals(3, map.getWidth());
+        assertEquals(2, map.getHeight());
+        assertTrue(map.isWall(0, 0));
+        assertTrue(map.isWall(2, 1));
+        assertFalse(map.isWall(1, 1));
+        assertTrue(map.hasPellet(1, 0));
+        assertEquals(1, map.getPelletCount());
+        assertArrayEquals(new int[] {4}, map.getGhostSpawns());
+        assertArrayEquals(new int[] {1}, map.getPlayerSpawns());
+    }
+
+    /**
+     * Verifies a map survives writing and reading its binary form.
+     *
+     * @throws IOException never.
+     */
+    @Test
+    public void roundTrip() throws IOException {
+        CompactMap map = CompactMap.fromText(MazeGenerator.maze(70, 9, 3L));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        map.write(out);
+        CompactMap read = CompactMap.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(map.toBytes(), read.toBytes());
+    }
+
+    /**
+     * Verifies bytes without the magic header are rejected.
+     */
+    @Test(expected = PacmanConfigurationException.class)
+    public void badMagic() {
+        CompactMap.read(ByteBuffer.wrap("JPMX and more".getBytes()));
+    }
+
+    /**
+     * Verifies a truncated map is rejected.
+     */
+    @Test(expected = PacmanConfigurationException.class)
+    public void truncated() {
+        ByteBuffer bytes = CompactMap.fromText(Lists.newArrayList("#.G", "P #")).toBytes();
+        bytes.limit(bytes.limit() - 1);
+        CompactMap.read(bytes);
+    }
+}
@@ -0,0 +1,125 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests recording games in a {@link GameJournal} and replaying them.
+ */
+@SuppressWarnings("magicnumber")
+public class GameReplayerTest {
+
+    /**
+     * A map with a player, pellets and two ghosts chasing the player.
+     */
+    private static final List<String> MAP = Arrays.asList(
+            "##########",
+            "#P....G..#",
+            "#.######.#",
+            "#....G...#",
+            "##########");
+
+    /**
+     * The sprites of the levels.
+     */
+    private final PacManSprites sprites = new PacManSprites();
+
+    /**
+     * Verifies replaying the journal of a game played in real time ends in
+     * the same state as the game itself.
+     *
+     * @throws Exception When the journal could not be written or read.
+     */
+    @Test
+    public void replayMatchesRecording() throws Exception {
+        Level recorded = createLevel();
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        GameJournal recorder = new GameJournal(recorded, 42L, journal);
+        recorded.start();
+        recorded.move(recorded.getPlayers().get(0), Direction.EAST);
+        Thread.sleep(700L);
+        recorded.move(recorded.getPlayers().get(0), Direction.WEST);
+        Thread.sleep(500L);
+        recorded.stop();
+        recorder.close();
+        long ticks = recorded.getTick();
+        ByteBuffer expected = copy(new LevelSnapshot(recorded).take());
+        recorded.dispose();
+
+        Level replayed = createLevel();
+        assertEquals(ticks, new GameReplayer(replayed).replay(
+                new ByteArrayInputStream(journal.toByteArray())));
+        assertTrue(ticks > 0);
+        assertEquals(ticks, replayed.getTick());
+        assertEquals(expected, new LevelSnapshot(replayed).take());
+    }
+
+    /**
+     * Verifies a replay stops at the tick asked for.
+     *
+     * @throws IOException When the journal could not be written or read.
+     */
+    @Test
+    public void replayUpToTick() throws IOException {
+        Level recorded = createLevel();
+        ByteArrayOutputStream journal = new ByteArrayOutputStream();
+        GameJournal recorder = new GameJournal(recorded, 7L, journal);
+        recorder.directionChosen(0, Direction.EAST);
+        for (int i = 1; i <= 4; i++) {
+            recorder.ticked(i);
+        }
+        recorder.close();
+
+        Level replayed = createLevel();
+        assertEquals(2L, new GameReplayer(replayed).replay(
+                new ByteArrayInputStream(journal.toByteArray()), 2L));
+        assertEquals(3, replayed.getPlayers().get(0).getSquare().getX());
+        assertEquals(replayed.getPellets().size() - 2, replayed.remainingPellets());
+    }
+
+    /**
+     * Verifies anything but a journal is rejected.
+     *
+     * @throws IOException When the journal could not be read.
+     */
+    @Test(expected = PacmanConfigurationException.class)
+    public void rejectsOtherData() throws IOException {
+        new GameReplayer(createLevel()).replay(new ByteArrayInputStream(
+                "JPML".getBytes("US-ASCII")));
+    }
+
+    /**
+     * @return A fresh level of the map with a registered player.
+     */
+    private Level createLevel() {
+        Level level = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites)).parseMap(MAP);
+        level.registerPacManPlayer(new PlayerFactory(sprites).createPacMan());
+        return level;
+    }
+
+    /**
+     * @param snapshot A snapshot that is about to be overwritten.
+     * @return A copy of the snapshot.
+     */
+    private static ByteBuffer copy(ByteBuffer snapshot) {
+        ByteBuffer copy = ByteBuffer.allocate(snapshot.remaining());
+        copy.put(snapshot.duplicate());
+        copy.flip();
+        return copy;
+    }
+}
@@ -0,0 +1,128 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests taking and restoring snapshots of a level.
+ */
+@SuppressWarnings("magicnumber")
+public class LevelSnapshotTest {
+
+    /**
+     * The sprites of the levels.
+     */
+    private final PacManSprites sprites = new PacManSprites();
+
+    /**
+     * The level snapshots are taken of.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private PacManPlayer player;
+
+    /**
+     * Creates a level with a player, a ghost and three pellets.
+     */
+    @Before
+    public void setUp() {
+        level = parse(Arrays.asList("#######", "#P.G..#"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPacManPlayer(player);
+    }
+
+    /**
+     * Verifies restoring a snapshot undoes moves, eaten pellets and points.
+     */
+    @Test
+    public void restoreUndoesChanges() {
+        LevelSnapshot snapshots = new LevelSnapshot(level);
+        ByteBuffer snapshot = copy(snapshots.take());
+        Square start = player.getSquare();
+        NPC ghost = level.getNpcs().get(0);
+        long version = level.getVersion();
+
+        Pellet pellet = level.getPellets().get(0);
+        Square pelletSquare = pellet.getSquare();
+        pellet.leaveSquare();
+        player.occupy(pelletSquare);
+        player.addPoints(10);
+        player.setAlive(false);
+        ghost.setDirection(Direction.WEST);
+
+        snapshots.restore(snapshot);
+        assertEquals(start, player.getSquare());
+        assertEquals(pelletSquare, pellet.getSquare());
+        assertEquals(3, level.remainingPellets());
+        assertEquals(0, player.getScore());
+        assertTrue(player.isAlive());
+        assertEquals(Direction.EAST, ghost.getDirection());
+        assertTrue(level.getVersion() > version);
+        assertEquals(snapshot, snapshots.take());
+    }
+
+    /**
+     * Verifies eaten pellets stay eaten when restored.
+     */
+    @Test
+    public void restoreRemovesEatenPellets() {
+        LevelSnapshot snapshots = new LevelSnapshot(level);
+        level.getPellets().get(2).leaveSquare();
+        ByteBuffer snapshot = copy(snapshots.take());
+        level.resetPellets();
+        assertEquals(3, level.remainingPellets());
+
+        snapshots.restore(snapshot);
+        assertEquals(2, level.remainingPellets());
+        assertFalse(level.getPelletSquares().get(2).getOccupants().contains(
+                level.getPellets().get(2)));
+    }
+
+    /**
+     * Verifies a snapshot of another level is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherLevel() {
+        Level other = parse(Arrays.asList("#######", "#P....#"));
+        other.registerPacManPlayer(new PlayerFactory(sprites).createPacMan());
+        ByteBuffer snapshot = copy(new LevelSnapshot(other).take());
+        new LevelSnapshot(level).restore(snapshot);
+    }
+
+    /**
+     * @param rows The rows of a map.
+     * @return The level of the map.
+     */
+    private Level parse(List<String> rows) {
+        return new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites)).parseMap(rows);
+    }
+
+    /**
+     * @param snapshot A snapshot that is about to be overwritten.
+     * @return A copy of the snapshot.
+     */
+    private static ByteBuffer copy(ByteBuffer snapshot) {
+        ByteBuffer copy = ByteBuffer.allocate(snapshot.remaining());
+        copy.put(snapshot.duplicate());
+        copy.flip();
+        return copy;
+    }
+}
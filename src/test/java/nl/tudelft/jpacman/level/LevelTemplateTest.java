@@ -0,0 +1,90 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Tests the levels stamped out by a {@link LevelTemplate}.
+ */
+@SuppressWarnings("magicnumber")
+public class LevelTemplateTest {
+
+    /**
+     * The sprites of the created squares and units.
+     */
+    private final PacManSprites sprites = new PacManSprites();
+
+    /**
+     * @return A parser with fresh factories.
+     */
+    private MapParser newParser() {
+        return new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies every level gets its own squares and pellets.
+     *
+     * @throws IOException never.
+     */
+    @Test
+    public void levelsAreIndependent() throws IOException {
+        LevelTemplate template = LevelTemplate.fromText(new ByteArrayInputStream(
+                "#####\n#P..#\n#####\n".getBytes(StandardCharsets.US_ASCII)));
+        Level first = template.createLevel(newParser());
+        Level second = template.createLevel(newParser());
+
+        Board board = first.getBoard();
+        assertNotSame(board.squareAt(2, 1), second.getBoard().squareAt(2, 1));
+        assertEquals(5, board.getWidth());
+        assertEquals(2, first.remainingPellets());
+
+        board.squareAt(2, 1).getOccupants().get(0).leaveSquare();
+        assertEquals(1, first.remainingPellets());
+        assertEquals(2, second.remainingPellets());
+    }
+
+    /**
+     * Verifies a template read from a stream, with Windows line endings and
+     * no final line end, holds the same map as the rows of its text.
+     *
+     * @throws IOException never.
+     */
+    @Test
+    public void streamMatchesRows() throws IOException {
+        List<String> rows = MazeGenerator.maze(31, 21, 7L);
+        StringBuilder text = new StringBuilder();
+        for (String row : rows) {
+            text.append(row).append("\r\n");
+        }
+        text.setLength(text.length() - 2);
+        LevelTemplate template = LevelTemplate.fromText(new ByteArrayInputStream(
+                text.toString().getBytes(StandardCharsets.US_ASCII)));
+        assertArrayEquals(CompactMap.fromText(rows).toBytes().array(),
+                template.getMap().toBytes().array());
+    }
+
+    /**
+     * Verifies a stream with rows of unequal width is rejected.
+     *
+     * @throws IOException never.
+     */
+    @Test(expected = PacmanConfigurationException.class)
+    public void unequalWidth() throws IOException {
+        LevelTemplate.fromText(new ByteArrayInputStream(
+                "###\n#P\n".getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -7,6 +7,7 @@ import nl.tudelft.jpacman.npc.NPC;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
@@ -210,4 +211,27 @@ public class LevelTest {
         verify(p3).occupy(square3);
     }
 
+    /**
+     * Verifies that starting and stopping the level changes its version, so
+     * observers notice that something changed.
+     */
+    @Test
+    public void startStopChangesVersion() {
+        long initial = level.getVersion();
+        level.start();
+        long started = level.getVersion();
+        level.stop();
+        assertTrue(started > initial);
+        assertTrue(level.getVersion() > started);
+    }
+
+    /**
+     * Verifies that nothing changes the version of an idle level.
+     */
+    @Test
+    public void idleLevelKeepsVersion() {
+        long initial = level.getVersion();
+        level.stop();
+        assertEquals(initial, level.getVersion());
+    }
 }
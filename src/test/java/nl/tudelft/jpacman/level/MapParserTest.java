@@ -0,0 +1,206 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the streaming parsers of the {@link MapParser} build the same
+ * levels as parsing a list of rows.
+ */
+@SuppressWarnings("magicnumber")
+public class MapParserTest {
+
+    /**
+     * Folder for map files.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * The sprites of the created squares and units.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * Sets up the sprites.
+     */
+    @Before
+    public void setUp() {
+        sprites = new PacManSprites();
+    }
+
+    /**
+     * @return A parser with fresh factories, so ghosts are created in the
+     * same order as by any other new parser.
+     */
+    private MapParser newParser() {
+        return new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites));
+    }
+
+    /**
+     * Joins the rows of a map into a stream.
+     *
+     * @param rows       The rows of the map.
+     * @param terminator The end of each row.
+     * @return A stream with the bytes of the map.
+     */
+    private static InputStream stream(List<String> rows, String terminator) {
+        StringBuilder text = new StringBuilder();
+        for (String row : rows) {
+            text.append(row).append(terminator);
+        }
+        return new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Verifies two boards have the same squares with the same occupants.
+     *
+     * @param expected The expected board.
+     * @param actual   The actual board.
+     */
+    private static void assertSameBoard(Board expected, Board actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                Square e = expected.squareAt(x, y);
+                Square a = actual.squareAt(x, y);
+                assertEquals(e.getClass(), a.getClass());
+                List<Unit> occupants = a.getOccupants();
+                assertEquals(e.getOccupants().size(), occupants.size());
+                for (int i = 0; i < occupants.size(); i++) {
+                    assertEquals(e.getOccupants().get(i).getClass(),
+                            occupants.get(i).getClass());
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies a streamed maze equals the maze parsed from its rows, with the
+     * same ghost at every spawn.
+     *
+     * @throws IOException never.
+     */
+    @Test
+    public void streamMatchesRows() throws IOException {
+        List<String> rows = MazeGenerator.maze(41, 23, 7L);
+        Level expected = newParser().parseMap(rows);
+        Level actual = newParser().parseMap(stream(rows, "\n"));
+        assertSameBoard(expected.getBoard(), actual.getBoard());
+        assertEquals(expected.remainingPellets(), actual.remainingPellets());
+    }
+
+    /**
+     * Verifies a memory-mapped maze equals the maze parsed from its rows.
+     *
+     * @throws IOException if the map file could not be written.
+     */
+    @Test
+    public void mappedFileMatchesRows() throws IOException {
+        List<String> rows = MazeGenerator.maze(57, 31, 11L);
+        Path file = folder.newFile("maze.txt").toPath();
+        Files.write(file, rows, StandardCharsets.US_ASCII);
+        Level expected = newParser().parseMap(rows);
+        Level actual = newParser().parseMap(file);
+        assertSameBoard(expected.getBoard(), actual.getBoard());
+        assertEquals(expected.remainingPellets(), actual.remainingPellets());
+    }
+
+    /**
+     * Verifies a maze loaded from its binary form equals the maze parsed
+     * from its rows.
+     */
+    @Test
+    public void compactMapMatchesRows() {
+        List<String> rows = MazeGenerator.maze(33, 45, 13L);
+        ByteBuffer bytes = CompactMap.fromText(rows).toBytes();
+        Level expected = newParser().parseMap(rows);
+        Level actual = newParser().parseMap(CompactMap.read(bytes));
+        assertSameBoard(expected.getBoard(), actual.getBoard());
+        assertEquals(expected.remainingPellets(), actual.remainingPellets());
+    }
+
+    /**
+     * Verifies squares created and linked in parallel make up the same board
+     * as when created one by one.
+     */
+    @Test
+    public void parallelMatchesSequential() {
+        List<String> rows = MazeGenerator.maze(300, 20, 5L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MapParser parallel = new MapParser(new LevelFactory(sprites,
+                    new GhostFactory(sprites)), new BoardFactory(sprites, 0, pool));
+            Board expected = newParser().parseMap(rows).getBoard();
+            Board actual = parallel.parseMap(rows).getBoard();
+            assertSameBoard(expected, actual);
+            for (int x = 0; x < actual.getWidth(); x++) {
+                for (int y = 0; y < actual.getHeight(); y++) {
+                    for (Direction dir : Direction.values()) {
+                        Square neighbour = actual.squareAt(x, y).getSquareAt(dir);
+                        assertEquals(expected.squareAt(x, y).getSquareAt(dir).getX(),
+                                neighbour.getX());
+                        assertEquals(expected.squareAt(x, y).getSquareAt(dir).getY(),
+                                neighbour.getY());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies Windows line endings and a missing final line end are
+     * accepted.
+     */
+    @Test
+    public void carriageReturns() {
+        Level level = newParser().parseMap(ByteBuffer.wrap(
+                "#.#\r\n#P#\r\n# #".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(3, level.getBoard().getWidth());
+        assertEquals(3, level.getBoard().getHeight());
+        assertEquals(1, level.remainingPellets());
+    }
+
+    /**
+     * Verifies rows of unequal width are rejected.
+     */
+    @Test(expected = PacmanConfigurationException.class)
+    public void unequalWidth() {
+        newParser().parseMap(ByteBuffer.wrap(
+                "###\n##\n".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Verifies an empty map is rejected.
+     */
+    @Test(expected = PacmanConfigurationException.class)
+    public void emptyMap() {
+        newParser().parseMap(ByteBuffer.allocate(0));
+    }
+}
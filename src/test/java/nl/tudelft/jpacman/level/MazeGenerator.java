@@ -0,0 +1,111 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates large maps in the text format read by {@link MapParser}, for
+ * tests and benchmarks that need more than the default board.
+ */
+public final class MazeGenerator {
+
+    /**
+     * The percentage of free squares that randomly become a wall.
+     */
+    private static final int WALL_PERCENTAGE = 15;
+
+    /**
+     * The percentage of free squares that hold a pellet.
+     */
+    private static final int PELLET_PERCENTAGE = 80;
+
+    private MazeGenerator() {
+    }
+
+    /**
+     * Generates a maze with pillars on every other square, random walls in
+     * between, a player in the centre and ghosts in the corners. The result
+     * is deterministic for a given seed.
+     *
+     * @param width  The amount of columns.
+     * @param height The amount of rows.
+     * @param seed   The seed of the random walls and pellets.
+     * @return The rows of the maze, top row first.
+     */
+    public static List<String> maze(int width, int height, long seed) {
+        Random random = new Random(seed);
+        char[][] rows = new char[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                rows[y][x] = mazeSquare(x, y, random);
+            }
+        }
+        return place(rows);
+    }
+
+    /**
+     * Generates an open arena: walls only around the edges, every other
+     * square free, a player in the centre and ghosts in the corners.
+     *
+     * @param width  The amount of columns.
+     * @param height The amount of rows.
+     * @return The rows of the arena, top row first.
+     */
+    public static List<String> arena(int width, int height) {
+        char[][] rows = new char[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (x == 0 || y == 0 || x == width - 1 || y == height - 1) {
+                    rows[y][x] = '#';
+                } else {
+                    rows[y][x] = ' ';
+                }
+            }
+        }
+        return place(rows);
+    }
+
+    /**
+     * Picks the character of a single square of a maze.
+     *
+     * @param x      The column of the square.
+     * @param y      The row of the square.
+     * @param random The source of randomness.
+     * @return The character for the square.
+     */
+    private static char mazeSquare(int x, int y, Random random) {
+        if (x % 2 == 0 && y % 2 == 0) {
+            return '#';
+        }
+        if (random.nextInt(100) < WALL_PERCENTAGE) {
+            return '#';
+        }
+        if (random.nextInt(100) < PELLET_PERCENTAGE) {
+            return '.';
+        }
+        return ' ';
+    }
+
+    /**
+     * Places a player in the centre and four ghosts near the corners.
+     *
+     * @param rows The squares of the map, rows[y][x] being column x of row y.
+     * @return The rows as strings.
+     */
+    private static List<String> place(char[][] rows) {
+        int height = rows.length;
+        int width = rows[0].length;
+        rows[height / 2 | 1][width / 2 | 1] = 'P';
+        rows[1][1] = 'G';
+        rows[1][width - 2] = 'G';
+        rows[height - 2][1] = 'G';
+        rows[height - 2][width - 2] = 'G';
+
+        List<String> result = new ArrayList<>(height);
+        for (char[] row : rows) {
+            result.add(new String(row));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+package nl.tudelft.jpacman.level;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the pooling and counting of pellets.
+ */
+@SuppressWarnings("magicnumber")
+public class PelletPoolTest {
+
+    /**
+     * The pool shared by the levels.
+     */
+    private PelletPool pool;
+
+    /**
+     * The parser creating levels with pooled pellets.
+     */
+    private MapParser parser;
+
+    /**
+     * Sets up the pool and parser.
+     */
+    @Before
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        pool = LevelFactory.createPelletPool(sprites);
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites), pool),
+                new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies eaten pellets are no longer counted and return on reset.
+     */
+    @Test
+    public void eatAndReset() {
+        Level level = parser.parseMap(Lists.newArrayList("#..P#"));
+        assertEquals(2, level.remainingPellets());
+
+        Square square = level.getBoard().squareAt(1, 0);
+        Pellet pellet = (Pellet) square.getOccupants().get(0);
+        pellet.leaveSquare();
+        assertEquals(1, level.remainingPellets());
+
+        level.resetPellets();
+        assertEquals(2, level.remainingPellets());
+        assertSame(square, pellet.getSquare());
+    }
+
+    /**
+     * Verifies the pellets of a released level are reused by the next one.
+     */
+    @Test
+    public void releasedPelletsAreReused() {
+        Level first = parser.parseMap(Lists.newArrayList("#..P#"));
+        Pellet pellet = (Pellet) first.getBoard().squareAt(1, 0).getOccupants().get(0);
+        first.releasePellets(pool);
+        assertEquals(0, first.remainingPellets());
+        assertEquals(2, pool.getIdleCount());
+        assertNull(pellet.getSquare());
+
+        Level second = parser.parseMap(Lists.newArrayList("#..P#"));
+        assertEquals(0, pool.getIdleCount());
+        assertEquals(2, second.remainingPellets());
+        assertEquals(0, first.remainingPellets());
+    }
+}
@@ -0,0 +1,75 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Direction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests storing directions in a {@link CompactPath}.
+ */
+@SuppressWarnings("magicnumber")
+public class CompactPathTest {
+
+    /**
+     * Verifies directions are kept in order past the first words.
+     */
+    @Test
+    public void keepsLongPaths() {
+        CompactPath path = new CompactPath();
+        List<Direction> expected = directions(300);
+        for (Direction d : expected) {
+            path.add(d);
+        }
+        assertEquals(300, path.size());
+        assertEquals(expected, path.toList());
+        assertEquals(Direction.NORTH, path.firstStep());
+    }
+
+    /**
+     * Verifies reversing a path reverses its directions.
+     */
+    @Test
+    public void reverses() {
+        CompactPath path = new CompactPath();
+        List<Direction> expected = directions(65);
+        for (Direction d : expected) {
+            path.add(d);
+        }
+        path.reverse();
+        for (int i = 0; i < 65; i++) {
+            assertEquals(expected.get(64 - i), path.get(i));
+        }
+    }
+
+    /**
+     * Verifies a cleared path is empty and overwrites its old directions.
+     */
+    @Test
+    public void clears() {
+        CompactPath path = new CompactPath();
+        path.add(Direction.EAST);
+        path.add(Direction.EAST);
+        path.clear();
+        assertNull(path.firstStep());
+        path.add(Direction.NORTH);
+        assertEquals(1, path.size());
+        assertEquals(Direction.NORTH, path.get(0));
+    }
+
+    /**
+     * @param length The amount of directions.
+     * @return All directions in turn, as many as asked for.
+     */
+    private static List<Direction> directions(int length) {
+        List<Direction> directions = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            directions.add(Direction.values()[i * 7 % 4]);
+        }
+        return directions;
+    }
+}
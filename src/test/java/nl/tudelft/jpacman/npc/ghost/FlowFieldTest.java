@@ -0,0 +1,141 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.level.PacManPlayer;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests chasing a unit by the {@link FlowField} leading to it.
+ */
+@SuppressWarnings("magicnumber")
+public class FlowFieldTest {
+
+    /**
+     * The sprites of the levels.
+     */
+    private final PacManSprites sprites = new PacManSprites();
+
+    /**
+     * The parser of the levels.
+     */
+    private MapParser parser;
+
+    /**
+     * Creates the parser.
+     */
+    @Before
+    public void setUp() {
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies Blinky and Clyde, both chasing the player, share a single
+     * search until the player moves.
+     */
+    @Test
+    public void ghostsShareOneSearch() {
+        Level level = parser.parseMap(Lists.newArrayList(
+                "##########################",
+                "#GGG        P           G#",
+                "##########################"));
+        PacManPlayer player = new PlayerFactory(sprites).createPacMan();
+        level.registerPacManPlayer(player);
+        FlowField field = level.getFlowFields().towards(player);
+
+        List<NPC> ghosts = level.getNpcs();
+        NPC blinky = ghosts.get(0);
+        NPC clyde = ghosts.get(ghosts.size() - 1);
+        assertEquals(Direction.EAST, blinky.nextMove());
+        assertEquals(Direction.WEST, clyde.nextMove());
+        assertEquals(1L, field.getComputations());
+
+        player.occupy(player.getSquare().getSquareAt(Direction.EAST));
+        blinky.nextMove();
+        clyde.nextMove();
+        assertEquals(2L, field.getComputations());
+    }
+
+    /**
+     * Verifies the distances equal the lengths of the shortest paths in a
+     * maze, and following the field leads to the target.
+     */
+    @Test
+    public void distancesMatchShortestPaths() {
+        Level level = parser.parseMap(MazeGenerator.maze(41, 23, 3L));
+        PacManPlayer player = new PlayerFactory(sprites).createPacMan();
+        level.registerPacManPlayer(player);
+        NPC ghost = level.getNpcs().get(0);
+        FlowField field = level.getFlowFields().towards(player);
+        Board board = level.getBoard();
+
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                Square square = board.squareAt(x, y);
+                if (!square.isAccessibleTo(ghost)) {
+                    continue;
+                }
+                List<Direction> path = Navigation.shortestPath(square, player.getSquare(), ghost);
+                int expected = FlowField.UNREACHABLE;
+                if (path != null) {
+                    expected = path.size();
+                }
+                assertEquals(expected, field.distanceFrom(square, ghost));
+                assertEquals(expected, walk(field, square, ghost));
+            }
+        }
+    }
+
+    /**
+     * Verifies a ghost on the target square does not move.
+     */
+    @Test
+    public void noDirectionOnTarget() {
+        Level level = parser.parseMap(Lists.newArrayList("#P G#"));
+        PacManPlayer player = new PlayerFactory(sprites).createPacMan();
+        level.registerPacManPlayer(player);
+        NPC ghost = level.getNpcs().get(0);
+        assertNull(level.getFlowFields().towards(player).directionFrom(player.getSquare(), ghost));
+    }
+
+    /**
+     * Follows a flow field to its target.
+     *
+     * @param field     The field to follow.
+     * @param from      The square to start on.
+     * @param traveller The unit following the field.
+     * @return The amount of steps taken, or {@value FlowField#UNREACHABLE}
+     * if the field leads nowhere.
+     */
+    private static int walk(FlowField field, Square from, NPC traveller) {
+        Square square = from;
+        int steps = 0;
+        Direction d = field.directionFrom(square, traveller);
+        while (d != null) {
+            square = square.getSquareAt(d);
+            steps++;
+            d = field.directionFrom(square, traveller);
+        }
+        if (square != field.getTarget().getSquare()) {
+            return FlowField.UNREACHABLE;
+        }
+        return steps;
+    }
+}
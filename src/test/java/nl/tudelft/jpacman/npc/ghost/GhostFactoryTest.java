@@ -0,0 +1,125 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the random choices of the ghosts created by a {@link GhostFactory}.
+ */
+@SuppressWarnings("magicnumber")
+public class GhostFactoryTest {
+
+    /**
+     * The sprites of the ghosts.
+     */
+    private final PacManSprites sprites = new PacManSprites();
+
+    /**
+     * Verifies factories with the same seed create ghosts with the same
+     * intervals.
+     */
+    @Test
+    public void sameSeedSameIntervals() {
+        assertEquals(intervals(new GhostFactory(sprites, new SplittableRandom(42L))),
+                intervals(new GhostFactory(sprites, new SplittableRandom(42L))));
+    }
+
+    /**
+     * Verifies every ghost of a factory gets a stream of its own.
+     */
+    @Test
+    public void ghostsHaveOwnStreams() {
+        GhostFactory factory = new GhostFactory(sprites, new SplittableRandom(42L));
+        assertNotEquals(intervals(factory), intervals(factory));
+    }
+
+    /**
+     * Verifies ghosts with the same seed wander the same way.
+     */
+    @Test
+    public void sameSeedSameRandomMoves() {
+        assertEquals(randomMoves(7L), randomMoves(7L));
+    }
+
+    /**
+     * Verifies the ghosts of a level share the path finder created for its
+     * board, which Pinky searches with and Blinky, chasing through the flow
+     * fields, does not.
+     */
+    @Test
+    public void ghostsUseInjectedPathFinder() {
+        final List<PathFinder> created = new ArrayList<>();
+        PathFinderFactory finders = new PathFinderFactory() {
+            @Override
+            public PathFinder createPathFinder(Board board) {
+                PathFinder finder = new BreadthFirstPathFinder(board);
+                created.add(finder);
+                return finder;
+            }
+        };
+        MapParser parser = new MapParser(new LevelFactory(sprites,
+                new GhostFactory(sprites, new SplittableRandom(1L), finders)),
+                new BoardFactory(sprites));
+        Level level = parser.parseMap(Lists.newArrayList(
+                "############",
+                "#GGG     P #",
+                "#          #",
+                "############"));
+        level.registerPacManPlayer(new PlayerFactory(sprites).createPacMan());
+        assertEquals(1, created.size());
+        assertNotNull(level.getFlowFields());
+        PathFinder finder = created.get(0);
+        level.getNpcs().get(0).nextMove();
+        assertEquals(0L, finder.getExpansions());
+        Ghost pinky = (Ghost) level.getNpcs().get(1);
+        assertTrue(pinky instanceof Pinky);
+        pinky.nextMove();
+        assertNotEquals(0L, finder.getExpansions());
+    }
+
+    /**
+     * @param factory The factory to create a ghost with.
+     * @return The first intervals of a new Blinky.
+     */
+    private static List<Long> intervals(GhostFactory factory) {
+        Ghost blinky = factory.createBlinky();
+        List<Long> intervals = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            intervals.add(blinky.getInterval());
+        }
+        return intervals;
+    }
+
+    /**
+     * @param seed The seed of the ghost factory.
+     * @return The first random moves of a ghost in an open square.
+     */
+    private List<Direction> randomMoves(long seed) {
+        MapParser parser = new MapParser(new LevelFactory(sprites,
+                new GhostFactory(sprites, new SplittableRandom(seed))), new BoardFactory(sprites));
+        Ghost ghost = (Ghost) parser.parseMap(Lists.newArrayList("   ", " G ", "   "))
+                .getNpcs().get(0);
+        List<Direction> moves = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            moves.add(ghost.randomMove());
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,170 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PacManPlayer;
+import nl.tudelft.jpacman.level.PlayerCollisions;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the path a {@link Ghost} remembers between moves.
+ */
+@SuppressWarnings("magicnumber")
+public class GhostTest {
+
+    /**
+     * Blinky, chasing the player.
+     */
+    private Ghost blinky;
+
+    /**
+     * The player chased.
+     */
+    private PacManPlayer player;
+
+    /**
+     * Creates a room with Blinky at one end of the top row and the player at
+     * the other. Blinky does not share the flow fields of the level, so he
+     * searches paths himself.
+     */
+    @Before
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites));
+        Level level = parser.parseMap(Lists.newArrayList(
+                "##########",
+                "#G      P#",
+                "#        #",
+                "##########"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPacManPlayer(player);
+        blinky = (Ghost) level.getNpcs().get(0);
+        blinky.setFlowFields(null);
+    }
+
+    /**
+     * Verifies the path is searched once while the player stands still.
+     */
+    @Test
+    public void reusesPathWhileTargetStays() {
+        for (int i = 0; i < 6; i++) {
+            assertEquals(Direction.EAST, step());
+        }
+        assertEquals(1L, blinky.getPathSearches());
+    }
+
+    /**
+     * Verifies the path is searched again once the player moved.
+     */
+    @Test
+    public void searchesAgainWhenTargetMoves() {
+        step();
+        Square square = player.getSquare();
+        player.occupy(square.getSquareAt(Direction.WEST));
+        step();
+        assertEquals(2L, blinky.getPathSearches());
+    }
+
+    /**
+     * Verifies the path is searched again when the ghost left it.
+     */
+    @Test
+    public void searchesAgainWhenOffPath() {
+        step();
+        blinky.occupy(blinky.getSquare().getSquareAt(Direction.SOUTH));
+        blinky.nextMove();
+        assertEquals(2L, blinky.getPathSearches());
+    }
+
+    /**
+     * Verifies ghosts on a level share the search for the nearest player and
+     * the path to it: the board is searched as often in a round of moves
+     * after the players moved, whether one or four ghosts chase.
+     */
+    @Test
+    public void searchesDoNotGrowWithGhosts() {
+        assertEquals(2L, searchesPerRound(1));
+        assertEquals(2L, searchesPerRound(4));
+    }
+
+    /**
+     * Creates a level with two players and Blinkies near the first, lets the
+     * players move and the ghosts choose their moves.
+     *
+     * @param count The amount of Blinkies.
+     * @return The amount of times the board was searched in the round of
+     * moves after the players moved.
+     */
+    private static long searchesPerRound(int count) {
+        PacManSprites sprites = new PacManSprites();
+        GhostFactory ghostFactory = new GhostFactory(sprites);
+        Board board = new MapParser(new LevelFactory(sprites, ghostFactory),
+                new BoardFactory(sprites)).parseMap(Lists.newArrayList(
+                "##############",
+                "#            #",
+                "#            #",
+                "#            #",
+                "##############")).getBoard();
+        List<NPC> ghosts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Ghost ghost = ghostFactory.createBlinky();
+            ghost.occupy(board.squareAt(2 + i / 2, 2 + i % 2));
+            ghosts.add(ghost);
+        }
+        FlowFields fields = ghostFactory.equipGhosts(board, ghosts);
+        Level level = new Level(board, ghosts,
+                Lists.newArrayList(board.squareAt(1, 1), board.squareAt(12, 1)),
+                Collections.<Square>emptyList(), new PlayerCollisions(), null, fields);
+        PlayerFactory players = new PlayerFactory(sprites);
+        PacManPlayer first = players.createPacMan();
+        PacManPlayer second = players.createPacMan();
+        level.registerPacManPlayer(first);
+        level.registerPacManPlayer(second);
+        chooseMoves(ghosts);
+        long before = fields.getSearches();
+        first.occupy(first.getSquare().getSquareAt(Direction.SOUTH));
+        second.occupy(second.getSquare().getSquareAt(Direction.WEST));
+        chooseMoves(ghosts);
+        long searches = fields.getSearches() - before;
+        assertEquals(first, fields.nearest(PacManPlayer.class, board.squareAt(2, 2)));
+        assertEquals(second, fields.nearest(PacManPlayer.class, board.squareAt(10, 2)));
+        return searches;
+    }
+
+    /**
+     * @param ghosts The ghosts to let choose a move, without making it.
+     */
+    private static void chooseMoves(List<NPC> ghosts) {
+        for (NPC ghost : ghosts) {
+            ghost.nextMove();
+        }
+    }
+
+    /**
+     * Lets Blinky choose a move and makes it.
+     *
+     * @return The direction Blinky moved in.
+     */
+    private Direction step() {
+        Direction direction = blinky.nextMove();
+        blinky.occupy(blinky.getSquare().getSquareAt(direction));
+        return direction;
+    }
+}
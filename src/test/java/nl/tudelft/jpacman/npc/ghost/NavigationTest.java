@@ -111,6 +111,39 @@ public class NavigationTest {
                 path.toArray(new Direction[]{}));
     }
 
+    /**
+     * Verifies the first step and the length of a path are found without
+     * keeping the path.
+     */
+    @Test
+    public void testFirstStepAndDistance() {
+        Board b = parser.parseMap(
+                Lists.newArrayList("####", "#  #", "## #", "####")).getBoard();
+        Square s1 = b.squareAt(1, 1);
+        Square s2 = b.squareAt(2, 2);
+        Unit traveller = mock(Unit.class);
+        assertEquals(Direction.EAST, Navigation.firstStep(s1, s2, traveller));
+        assertEquals(2, Navigation.distance(s1, s2, traveller));
+        assertNull(Navigation.firstStep(s1, s1, traveller));
+        assertEquals(0, Navigation.distance(s1, s1, traveller));
+    }
+
+    /**
+     * Verifies a path searched into a reused path replaces its steps.
+     */
+    @Test
+    public void testReusedPath() {
+        Board b = parser.parseMap(
+                Lists.newArrayList("####", "#  #", "## #", "####")).getBoard();
+        CompactPath path = new CompactPath();
+        Unit traveller = mock(Unit.class);
+        assertTrue(Navigation.shortestPath(b.squareAt(1, 1), b.squareAt(2, 2), traveller, path));
+        assertTrue(Navigation.shortestPath(b.squareAt(2, 2), b.squareAt(2, 1), traveller, path));
+        assertEquals(Lists.newArrayList(Direction.NORTH), path.toList());
+        assertFalse(Navigation.shortestPath(b.squareAt(1, 1), b.squareAt(1, 2), traveller, path));
+        assertTrue(path.isEmpty());
+    }
+
     /**
      * Verifies that the nearest object is detected.
      */
@@ -0,0 +1,140 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the node expansions and latency of the path finders on the
+ * bundled board, on generated mazes and on open arenas of increasing size. Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=nl.tudelft.jpacman.npc.ghost.PathFinderBenchmark
+ * </pre>
+ */
+@SuppressWarnings("magicnumber")
+public final class PathFinderBenchmark {
+
+    /**
+     * The maze sizes (in squares per side) to measure.
+     */
+    private static final int[] SIDES = {51, 201, 401, 1001};
+
+    /**
+     * The amount of random searches on each board.
+     */
+    private static final int SEARCHES = 200;
+
+    /**
+     * The amount of rounds of searches run before measuring.
+     */
+    private static final int WARMUP = 3;
+
+    private PathFinderBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the average expansions and time per
+     * search.
+     *
+     * @param args Ignored.
+     * @throws IOException When the bundled board could not be read.
+     */
+    public static void main(String[] args) throws IOException {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites,
+                new GhostFactory(sprites)), new BoardFactory(sprites));
+
+        System.out.printf("%8s %-12s %12s %12s%n", "squares", "finder", "expansions", "us/search");
+        try (InputStream board = PathFinderBenchmark.class.getResourceAsStream("/board.txt")) {
+            run(parser.parseMap(board));
+        }
+        for (int side : SIDES) {
+            run(parser.parseMap(MazeGenerator.maze(side, side, side)));
+        }
+        for (int side : SIDES) {
+            run(parser.parseMap(MazeGenerator.arena(side, side)));
+        }
+    }
+
+    /**
+     * Measures all path finders on a level.
+     *
+     * @param level The level to search.
+     */
+    private static void run(Level level) {
+        Board board = level.getBoard();
+        NPC ghost = level.getNpcs().get(0);
+        List<Square> squares = openSquares(board, ghost);
+        measure(new BreadthFirstPathFinder(board), squares, ghost);
+        measure(new AStarPathFinder(board), squares, ghost);
+        measure(new JumpPointPathFinder(board), squares, ghost);
+        measure(new HierarchicalPathFinder(board), squares, ghost);
+    }
+
+    /**
+     * Measures a path finder on searches between random pairs of squares.
+     *
+     * @param finder  The path finder to measure.
+     * @param squares The squares to search between.
+     * @param ghost   The traveller.
+     */
+    private static void measure(PathFinder finder, List<Square> squares, NPC ghost) {
+        for (int i = 0; i < WARMUP; i++) {
+            search(finder, squares, ghost);
+        }
+        long expansions = finder.getExpansions();
+        long start = System.nanoTime();
+        search(finder, squares, ghost);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%8d %-12s %12d %12.1f%n", squares.size(),
+                finder.getClass().getSimpleName().replace("PathFinder", ""),
+                (finder.getExpansions() - expansions) / SEARCHES,
+                (double) elapsed / SEARCHES / TimeUnit.MICROSECONDS.toNanos(1));
+    }
+
+    /**
+     * Searches paths between the same random pairs of squares every time.
+     *
+     * @param finder  The path finder to search with.
+     * @param squares The squares to search between.
+     * @param ghost   The traveller.
+     */
+    private static void search(PathFinder finder, List<Square> squares, NPC ghost) {
+        Random random = new Random(SEARCHES);
+        for (int i = 0; i < SEARCHES; i++) {
+            finder.findPath(squares.get(random.nextInt(squares.size())),
+                    squares.get(random.nextInt(squares.size())), ghost);
+        }
+    }
+
+    /**
+     * @param board The board.
+     * @param ghost The traveller.
+     * @return The squares of the board the traveller may enter.
+     */
+    private static List<Square> openSquares(Board board, NPC ghost) {
+        List<Square> squares = new ArrayList<>();
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                if (board.squareAt(x, y).isAccessibleTo(ghost)) {
+                    squares.add(board.squareAt(x, y));
+                }
+            }
+        }
+        return squares;
+    }
+}
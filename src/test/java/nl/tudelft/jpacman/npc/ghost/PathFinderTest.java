@@ -0,0 +1,367 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.NPC;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the {@link PathFinder} strategies against
+ * {@link Navigation#shortestPath(Square, Square, nl.tudelft.jpacman.board.Unit)}.
+ */
+@SuppressWarnings("magicnumber")
+public class PathFinderTest {
+
+    /**
+     * The parser of the levels.
+     */
+    private MapParser parser;
+
+    /**
+     * Creates the parser.
+     */
+    @Before
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+                new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies both strategies find paths as short as breadth first search
+     * in a maze, that lead to the destination.
+     */
+    @Test
+    public void pathsAreShortest() {
+        Level level = parser.parseMap(MazeGenerator.maze(31, 21, 11L));
+        Board board = level.getBoard();
+        NPC ghost = level.getNpcs().get(0);
+        Square from = ghost.getSquare();
+        List<PathFinder> finders = Arrays.<PathFinder>asList(
+                new BreadthFirstPathFinder(board), new AStarPathFinder(board),
+                new JumpPointPathFinder(board));
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                Square to = board.squareAt(x, y);
+                List<Direction> expected = Navigation.shortestPath(from, to, ghost);
+                for (PathFinder finder : finders) {
+                    List<Direction> path = finder.findPath(from, to, ghost);
+                    if (expected == null) {
+                        assertNull(path);
+                    } else {
+                        assertEquals(expected.size(), path.size());
+                        assertEquals(to, follow(from, path));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies Jump Point Search finds paths as short as breadth first
+     * search between every pair of squares of an open arena with pillars,
+     * and expands fewer squares.
+     */
+    @Test
+    public void jumpPointsMatchBreadthFirst() {
+        List<String> map = MazeGenerator.arena(13, 11);
+        map.set(4, "#  #  #  #  #");
+        map.set(7, "#   ##   #  #");
+        Level level = parser.parseMap(map);
+        Board board = level.getBoard();
+        NPC ghost = level.getNpcs().get(0);
+        PathFinder breadthFirst = new BreadthFirstPathFinder(board);
+        PathFinder jumpPoint = new JumpPointPathFinder(board);
+        for (int i = 0; i < board.getWidth() * board.getHeight(); i++) {
+            for (int j = 0; j < board.getWidth() * board.getHeight(); j++) {
+                Square from = board.squareAt(i / board.getHeight(), i % board.getHeight());
+                Square to = board.squareAt(j / board.getHeight(), j % board.getHeight());
+                List<Direction> expected = breadthFirst.findPath(from, to, ghost);
+                List<Direction> path = jumpPoint.findPath(from, to, ghost);
+                if (expected == null) {
+                    assertNull(path);
+                } else {
+                    assertEquals(expected.size(), path.size());
+                    assertEquals(to, follow(from, path));
+                }
+            }
+        }
+        Square corner = board.squareAt(1, 1);
+        Square opposite = board.squareAt(11, 9);
+        long breadthFirstBefore = breadthFirst.getExpansions();
+        long jumpPointBefore = jumpPoint.getExpansions();
+        breadthFirst.findPath(corner, opposite, ghost);
+        jumpPoint.findPath(corner, opposite, ghost);
+        assertTrue(jumpPoint.getExpansions() - jumpPointBefore
+                < breadthFirst.getExpansions() - breadthFirstBefore);
+    }
+
+    /**
+     * Verifies hierarchical paths in a maze and in an open arena lead to the
+     * destination, exist exactly when a shortest path exists, and are at most
+     * five percent longer in total.
+     */
+    @Test
+    public void hierarchicalPathsAreNearShortest() {
+        assertNearShortest(parser.parseMap(MazeGenerator.maze(45, 37, 5L)));
+        assertNearShortest(parser.parseMap(MazeGenerator.arena(45, 37)));
+    }
+
+    /**
+     * Compares hierarchical paths between random squares of a level to
+     * shortest paths.
+     *
+     * @param level The level to search.
+     */
+    private void assertNearShortest(Level level) {
+        Board board = level.getBoard();
+        NPC ghost = level.getNpcs().get(0);
+        PathFinder breadthFirst = new BreadthFirstPathFinder(board);
+        PathFinder hierarchical = new HierarchicalPathFinder(board, 8);
+        Random random = new Random(5L);
+        int total = 0;
+        int shortest = 0;
+        for (int i = 0; i < 500; i++) {
+            Square from = board.squareAt(random.nextInt(45), random.nextInt(37));
+            if (!from.isAccessibleTo(ghost)) {
+                continue;
+            }
+            Square to = board.squareAt(random.nextInt(45), random.nextInt(37));
+            List<Direction> expected = breadthFirst.findPath(from, to, ghost);
+            List<Direction> path = hierarchical.findPath(from, to, ghost);
+            if (expected == null) {
+                assertNull(path);
+            } else {
+                assertEquals(to, follow(from, path));
+                assertTrue(path.size() >= expected.size());
+                total += path.size();
+                shortest += expected.size();
+            }
+        }
+        assertTrue(total <= shortest * 1.05);
+    }
+
+    /**
+     * Verifies hierarchical paths still lead to the destination for a ghost
+     * when the entrances were found for a traveller that ignores the walls.
+     */
+    @Test
+    public void hierarchicalPathsSurviveOtherTraveller() {
+        Level level = parser.parseMap(MazeGenerator.maze(31, 21, 11L));
+        Board board = level.getBoard();
+        NPC ghost = level.getNpcs().get(0);
+        PathFinder breadthFirst = new BreadthFirstPathFinder(board);
+        PathFinder hierarchical = new HierarchicalPathFinder(board, 8);
+        Square from = ghost.getSquare();
+        hierarchical.findPath(from, board.squareAt(29, 19), null);
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                Square to = board.squareAt(x, y);
+                List<Direction> expected = breadthFirst.findPath(from, to, ghost);
+                List<Direction> path = hierarchical.findPath(from, to, ghost);
+                if (expected == null) {
+                    assertNull(path);
+                } else {
+                    assertEquals(to, follow(from, path));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies incremental paths stay shortest while a ghost follows them
+     * after a target wandering through a maze, and that repairing the search
+     * expands fewer squares than A* searching anew.
+     */
+    @Test
+    public void incrementalPathsFollowMovingTarget() {
+        Level level = parser.parseMap(MazeGenerator.maze(61, 41, 9L));
+        Board board = level.getBoard();
+        List<NPC> npcs = level.getNpcs();
+        NPC ghost = npcs.get(0);
+        PathFinder breadthFirst = new BreadthFirstPathFinder(board);
+        PathFinder aStar = new AStarPathFinder(board);
+        IncrementalPathFinder incremental = new IncrementalPathFinder(board);
+        Random random = new Random(9L);
+        Square chaser = ghost.getSquare();
+        Square target = npcs.get(npcs.size() - 1).getSquare();
+        for (int i = 0; i < 200; i++) {
+            Square next = target.getSquareAt(Direction.values()[random.nextInt(4)]);
+            if (next.isAccessibleTo(ghost)) {
+                target = next;
+            }
+            List<Direction> expected = breadthFirst.findPath(chaser, target, ghost);
+            List<Direction> path = incremental.findPath(chaser, target, ghost);
+            assertEquals(expected.size(), path.size());
+            assertEquals(target, follow(chaser, path));
+            aStar.findPath(chaser, target, ghost);
+            if (i % 2 == 0 && !path.isEmpty()) {
+                chaser = chaser.getSquareAt(path.get(0));
+            }
+        }
+        assertTrue(incremental.getExpansions() < aStar.getExpansions());
+    }
+
+    /**
+     * Verifies paths go around blocked squares, and through them again once
+     * they are opened.
+     */
+    @Test
+    public void incrementalPathsAvoidBlockedSquares() {
+        Board board = parser.parseMap(Lists.newArrayList(
+                "#####",
+                "#   #",
+                "# # #",
+                "#   #",
+                "#####")).getBoard();
+        IncrementalPathFinder incremental = new IncrementalPathFinder(board);
+        Square from = board.squareAt(1, 1);
+        Square to = board.squareAt(3, 1);
+        NPC ghost = new GhostFactory(new PacManSprites()).createBlinky();
+        assertEquals(3, incremental.findPath(from, board.squareAt(3, 2), ghost).size());
+        assertEquals(2, incremental.findPath(from, to, ghost).size());
+        incremental.block(board.squareAt(2, 1));
+        assertEquals(6, incremental.findPath(from, to, ghost).size());
+        incremental.block(board.squareAt(2, 3));
+        assertNull(incremental.findPath(from, to, ghost));
+        incremental.unblock(board.squareAt(2, 1));
+        assertEquals(Lists.newArrayList(Direction.EAST, Direction.EAST),
+                incremental.findPath(from, to, ghost));
+    }
+
+    /**
+     * Verifies the incremental path finder finds shortest paths when the
+     * destination steps over a wall, as the squares ahead of Pac-Man that
+     * Pinky and Inky head for often do.
+     */
+    @Test
+    public void incrementalPathsFollowTargetOverWall() {
+        Board board = parser.parseMap(Lists.newArrayList(
+                "#######",
+                "#  #  #",
+                "#  #  #",
+                "#     #",
+                "#######")).getBoard();
+        NPC ghost = new GhostFactory(new PacManSprites()).createBlinky();
+        PathFinder breadthFirst = new BreadthFirstPathFinder(board);
+        IncrementalPathFinder incremental = new IncrementalPathFinder(board);
+        Square from = board.squareAt(1, 1);
+        for (int x = 2; x <= 4; x++) {
+            Square to = board.squareAt(x, 1);
+            assertEquals(breadthFirst.findPath(from, to, ghost),
+                    incremental.findPath(from, to, ghost));
+        }
+        assertEquals(7, incremental.findPath(from, board.squareAt(4, 1), ghost).size());
+    }
+
+    /**
+     * Verifies the incremental path finder keeps the searches of the
+     * travellers that searched last only, and drops a search released.
+     */
+    @Test
+    public void incrementalSearchesAreBounded() {
+        Board board = parser.parseMap(MazeGenerator.maze(31, 21, 3L)).getBoard();
+        IncrementalPathFinder incremental = new IncrementalPathFinder(board, 2);
+        GhostFactory factory = new GhostFactory(new PacManSprites());
+        NPC first = factory.createBlinky();
+        NPC second = factory.createBlinky();
+        NPC third = factory.createBlinky();
+        Square from = board.squareAt(1, 1);
+        Square to = board.squareAt(29, 19);
+        assertTrue(expansions(incremental, from, to, first) > 0L);
+        assertTrue(expansions(incremental, from, to, second) > 0L);
+        assertEquals(0L, expansions(incremental, from, to, first));
+        assertTrue(expansions(incremental, from, to, third) > 0L);
+        assertEquals(0L, expansions(incremental, from, to, first));
+        assertTrue(expansions(incremental, from, to, second) > 0L);
+        incremental.release(first);
+        assertTrue(expansions(incremental, from, to, first) > 0L);
+    }
+
+    /**
+     * @param finder    The path finder.
+     * @param from      The square to start on.
+     * @param to        The destination.
+     * @param traveller The traveller.
+     * @return The amount of states the finder expanded to find a path.
+     */
+    private static long expansions(PathFinder finder, Square from, Square to, NPC traveller) {
+        long before = finder.getExpansions();
+        assertEquals(to, follow(from, finder.findPath(from, to, traveller)));
+        return finder.getExpansions() - before;
+    }
+
+    /**
+     * Verifies A* takes the tunnel around the board when it is shorter.
+     */
+    @Test
+    public void takesWraparound() {
+        Board board = parser.parseMap(Lists.newArrayList("          ")).getBoard();
+        List<Direction> path = new AStarPathFinder(board)
+                .findPath(board.squareAt(1, 0), board.squareAt(8, 0), null);
+        assertEquals(Lists.newArrayList(Direction.WEST, Direction.WEST, Direction.WEST), path);
+    }
+
+    /**
+     * Verifies A* expands fewer squares than breadth first search when
+     * crossing an open arena.
+     */
+    @Test
+    public void aStarExpandsLess() {
+        Board board = parser.parseMap(MazeGenerator.arena(41, 41)).getBoard();
+        PathFinder breadthFirst = new BreadthFirstPathFinder(board);
+        PathFinder aStar = new AStarPathFinder(board);
+        breadthFirst.findPath(board.squareAt(1, 1), board.squareAt(20, 20), null);
+        aStar.findPath(board.squareAt(1, 1), board.squareAt(20, 20), null);
+        assertTrue(aStar.getExpansions() < breadthFirst.getExpansions());
+    }
+
+    /**
+     * Verifies path finders searching on one thread share a single set of
+     * buffers, grown to the largest board searched, and still find paths on
+     * a smaller board afterwards.
+     */
+    @Test
+    public void findersShareThreadBuffers() {
+        Board small = parser.parseMap(MazeGenerator.arena(11, 11)).getBoard();
+        Board large = parser.parseMap(MazeGenerator.arena(41, 41)).getBoard();
+        GridPathFinder first = new AStarPathFinder(small);
+        GridPathFinder second = new BreadthFirstPathFinder(small);
+        GridPathFinder third = new JumpPointPathFinder(large);
+        assertSame(first.beginSearch(), second.beginSearch());
+        SearchScratch grown = third.beginSearch();
+        assertSame(grown, first.beginSearch());
+        assertEquals(4, first.findPath(small.squareAt(1, 1), small.squareAt(3, 3), null).size());
+    }
+
+    /**
+     * @param from The square to start on.
+     * @param path The directions to take.
+     * @return The square the path ends on.
+     */
+    private static Square follow(Square from, List<Direction> path) {
+        Square square = from;
+        for (Direction d : path) {
+            square = square.getSquareAt(d);
+        }
+        return square;
+    }
+}
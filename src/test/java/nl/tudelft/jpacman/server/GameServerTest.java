@@ -0,0 +1,195 @@
+package nl.tudelft.jpacman.server;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.game.SessionManager;
+import nl.tudelft.jpacman.level.CompactMap;
+import nl.tudelft.jpacman.level.LevelTemplate;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests serving games over a loopback connection.
+ */
+@SuppressWarnings("magicnumber")
+public class GameServerTest {
+
+    /**
+     * The longest time the client waits for a frame, in milliseconds.
+     */
+    private static final int TIMEOUT = 3000;
+
+    /**
+     * The manager of the sessions served.
+     */
+    private SessionManager sessions;
+
+    /**
+     * The server under test.
+     */
+    private GameServer server;
+
+    /**
+     * The client connected to the server.
+     */
+    private Socket client;
+
+    /**
+     * Starts a server for a level with a player and two pellets to the east,
+     * and connects a client to it.
+     *
+     * @throws IOException When the client could not connect.
+     */
+    @Before
+    public void setUp() throws IOException {
+        LevelTemplate template = new LevelTemplate(CompactMap.fromText(Arrays.asList(
+                "#####", "#P..#")));
+        sessions = new SessionManager(template, new PacManSprites(), 1);
+        server = new GameServer(sessions, new InetSocketAddress("127.0.0.1", 0), 10L);
+        server.start();
+        client = new Socket("127.0.0.1", server.getPort());
+        client.setSoTimeout(TIMEOUT);
+    }
+
+    /**
+     * Disconnects the client and stops the server.
+     *
+     * @throws Exception When the server could not be stopped.
+     */
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.stop();
+        sessions.shutdown();
+    }
+
+    /**
+     * Verifies the client first receives the full state of its level.
+     *
+     * @throws IOException When the connection failed.
+     */
+    @Test
+    public void initialState() throws IOException {
+        ByteBuffer frame = readFrame();
+        assertEquals(Protocol.INIT, frame.get());
+        assertEquals(5, frame.getInt());
+        assertEquals(2, frame.getInt());
+        assertEquals(Protocol.ANY_PLAYER_ALIVE, frame.get());
+        assertEquals(1, frame.getShort());
+        assertEquals(1 * 2 + 1, frame.getInt());
+        assertEquals(Protocol.encode(Direction.EAST), frame.get());
+        assertEquals(2, frame.getInt());
+        assertEquals(2 * 2 + 1, frame.getInt());
+        assertEquals(3 * 2 + 1, frame.getInt());
+        assertEquals(1, frame.getShort());
+        assertEquals(0, frame.getInt());
+        assertEquals(1, sessions.getSessionCount());
+    }
+
+    /**
+     * Verifies moving the player east sends deltas with the move, the pellet
+     * eaten and the new score.
+     *
+     * @throws IOException When the connection failed.
+     */
+    @Test
+    public void moveEastEatsPellet() throws IOException {
+        assertEquals(Protocol.INIT, readFrame().get());
+        send(Protocol.START);
+        send(Protocol.MOVE, Protocol.encode(Direction.EAST));
+
+        ByteBuffer frame = readFrame();
+        while (!eatsPellet(frame)) {
+            frame = readFrame();
+        }
+        frame.position(1 + Long.BYTES + 1);
+        assertEquals(1, frame.getShort());
+        assertEquals(0, frame.getShort());
+        assertEquals(2 * 2 + 1, frame.getInt());
+        assertEquals(Protocol.encode(Direction.EAST), frame.get());
+        assertEquals(1, frame.getInt());
+        assertEquals(2 * 2 + 1, frame.getInt());
+        assertEquals(0, frame.getInt());
+        assertEquals(1, frame.getShort());
+        assertEquals(0, frame.getShort());
+        assertTrue(frame.getInt() > 0);
+    }
+
+    /**
+     * Verifies a client sending a malformed frame is disconnected and its
+     * session closed.
+     *
+     * @throws Exception When the connection failed.
+     */
+    @Test
+    public void malformedFrameDisconnects() throws Exception {
+        assertEquals(Protocol.INIT, readFrame().get());
+        send(Protocol.MOVE, (byte) 42);
+
+        DataInputStream in = new DataInputStream(client.getInputStream());
+        int read = in.read();
+        while (read >= 0) {
+            read = in.read();
+        }
+        for (int i = 0; i < TIMEOUT && sessions.getSessionCount() > 0; i++) {
+            Thread.sleep(1L);
+        }
+        assertEquals(0, sessions.getSessionCount());
+        assertEquals(0, server.getConnectionCount());
+    }
+
+    /**
+     * @param frame A frame received, positioned at its type.
+     * @return <code>true</code> iff the frame is a delta in which a pellet
+     * was eaten.
+     */
+    private static boolean eatsPellet(ByteBuffer frame) {
+        if (frame.get(0) != Protocol.DELTA) {
+            return false;
+        }
+        int moves = frame.getShort(1 + Long.BYTES + 1);
+        int removedAt = 1 + Long.BYTES + 1 + Short.BYTES
+                + moves * (Short.BYTES + Integer.BYTES + 1);
+        return frame.getInt(removedAt) > 0;
+    }
+
+    /**
+     * Reads the next frame sent by the server.
+     *
+     * @return The frame without its length, positioned at its type.
+     * @throws IOException When no frame arrived in time.
+     */
+    private ByteBuffer readFrame() throws IOException {
+        DataInputStream in = new DataInputStream(client.getInputStream());
+        byte[] frame = new byte[in.readInt()];
+        in.readFully(frame);
+        return ByteBuffer.wrap(frame);
+    }
+
+    /**
+     * Sends a frame to the server.
+     *
+     * @param type    The type of the frame.
+     * @param payload The payload of the frame.
+     * @throws IOException When the frame could not be sent.
+     */
+    private void send(byte type, byte... payload) throws IOException {
+        DataOutputStream out = new DataOutputStream(client.getOutputStream());
+        out.writeInt(1 + payload.length);
+        out.writeByte(type);
+        out.write(payload);
+        out.flush();
+    }
+}
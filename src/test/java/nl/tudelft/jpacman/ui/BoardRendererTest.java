@@ -0,0 +1,79 @@
+package nl.tudelft.jpacman.ui;
+
+import com.google.common.collect.Lists;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests off-screen rendering of boards by the {@link BoardRenderer}.
+ */
+@SuppressWarnings("magicnumber")
+public class BoardRendererTest {
+
+    /**
+     * Map parser used to construct boards.
+     */
+    private MapParser parser;
+
+    /**
+     * The renderer under test.
+     */
+    private BoardRenderer renderer;
+
+    /**
+     * Sets up the map parser and renderer.
+     */
+    @Before
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(
+                sprites)), new BoardFactory(sprites));
+        renderer = new BoardRenderer();
+    }
+
+    /**
+     * Verifies the image is sized to fit every square of the board.
+     */
+    @Test
+    public void imageFitsBoard() {
+        Board board = parser.parseMap(Lists.newArrayList("#. ", "#P#")).getBoard();
+        BufferedImage image = renderer.renderImage(board);
+        assertEquals(3 * BoardRenderer.SQUARE_SIZE, image.getWidth());
+        assertEquals(2 * BoardRenderer.SQUARE_SIZE, image.getHeight());
+    }
+
+    /**
+     * Verifies the same image is reused for consecutive frames.
+     */
+    @Test
+    public void imageIsReused() {
+        Board board = parser.parseMap(Lists.newArrayList("#. ")).getBoard();
+        BufferedImage first = renderer.renderImage(board);
+        assertSame(first, renderer.renderImage(board));
+    }
+
+    /**
+     * Verifies a new image is used once the size of the board changes.
+     */
+    @Test
+    public void imageFollowsBoardSize() {
+        BufferedImage first = renderer.renderImage(
+                parser.parseMap(Lists.newArrayList("#. ")).getBoard());
+        BufferedImage second = renderer.renderImage(
+                parser.parseMap(Lists.newArrayList("#.  ")).getBoard());
+        assertNotSame(first, second);
+        assertEquals(4 * BoardRenderer.SQUARE_SIZE, second.getWidth());
+    }
+}
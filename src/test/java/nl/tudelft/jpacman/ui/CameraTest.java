@@ -0,0 +1,133 @@
+package nl.tudelft.jpacman.ui;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Dimension;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests which part of a board is in view of a {@link Camera}.
+ */
+@SuppressWarnings("magicnumber")
+public class CameraTest {
+
+    /**
+     * A board of 100 by 80 squares.
+     */
+    private Board board;
+
+    /**
+     * The unit followed by the camera.
+     */
+    private Unit unit;
+
+    /**
+     * The camera under test, with squares of 10 pixels.
+     */
+    private Camera camera;
+
+    /**
+     * Sets up the board, unit and camera.
+     */
+    @Before
+    public void setUp() {
+        board = mock(Board.class);
+        when(board.getWidth()).thenReturn(100);
+        when(board.getHeight()).thenReturn(80);
+        unit = mock(Unit.class);
+        camera = new Camera(10);
+        camera.follow(unit);
+    }
+
+    /**
+     * Places the followed unit on a square.
+     *
+     * @param x The column of the square.
+     * @param y The row of the square.
+     */
+    private void placeAt(int x, int y) {
+        Square square = mock(Square.class);
+        when(square.getX()).thenReturn(x);
+        when(square.getY()).thenReturn(y);
+        when(unit.getSquare()).thenReturn(square);
+    }
+
+    /**
+     * Verifies only the squares around the unit are visible, including the
+     * squares cut off at the edges of the window.
+     */
+    @Test
+    public void centresOnUnit() {
+        placeAt(50, 40);
+        Viewport view = camera.viewport(board, new Dimension(200, 100));
+        assertEquals(40, view.getFromX());
+        assertEquals(61, view.getToX());
+        assertEquals(35, view.getFromY());
+        assertEquals(46, view.getToY());
+        assertEquals(231L, view.getSquareCount());
+        assertEquals(-5, view.pixelX(40));
+        assertEquals(95, view.pixelX(50));
+    }
+
+    /**
+     * Verifies the camera does not scroll past the edges of the board.
+     */
+    @Test
+    public void clampsToEdges() {
+        placeAt(99, 0);
+        Viewport view = camera.viewport(board, new Dimension(200, 100));
+        assertEquals(80, view.getFromX());
+        assertEquals(100, view.getToX());
+        assertEquals(0, view.getFromY());
+        assertEquals(10, view.getToY());
+        assertEquals(0, view.pixelX(80));
+        assertEquals(0, view.pixelY(0));
+    }
+
+    /**
+     * Verifies zooming in shows fewer, larger squares.
+     */
+    @Test
+    public void zoomShowsFewerSquares() {
+        placeAt(50, 40);
+        camera.setZoom(2.0);
+        Viewport view = camera.viewport(board, new Dimension(200, 100));
+        assertEquals(20, view.getCellWidth());
+        assertEquals(11, view.getToX() - view.getFromX());
+        assertEquals(5, view.getToY() - view.getFromY());
+    }
+
+    /**
+     * Verifies a board smaller than the window is shown completely and
+     * centred.
+     */
+    @Test
+    public void smallBoardIsCentred() {
+        placeAt(50, 40);
+        Viewport view = camera.viewport(board, new Dimension(1200, 1000));
+        assertEquals(0, view.getFromX());
+        assertEquals(100, view.getToX());
+        assertEquals(80, view.getToY());
+        assertEquals(100, view.pixelX(0));
+        assertEquals(100, view.pixelY(0));
+    }
+
+    /**
+     * Verifies the camera stays put while the unit is off the board.
+     */
+    @Test
+    public void keepsCentreWithoutSquare() {
+        placeAt(50, 40);
+        camera.viewport(board, new Dimension(200, 100));
+        when(unit.getSquare()).thenReturn(null);
+        Viewport view = camera.viewport(board, new Dimension(200, 100));
+        assertEquals(40, view.getFromX());
+    }
+}
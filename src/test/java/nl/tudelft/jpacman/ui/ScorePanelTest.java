@@ -0,0 +1,92 @@
+package nl.tudelft.jpacman.ui;
+
+import nl.tudelft.jpacman.level.PacManPlayer;
+import nl.tudelft.jpacman.level.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that the {@link ScorePanel} only formats scores that changed.
+ */
+@SuppressWarnings("magicnumber")
+public class ScorePanelTest {
+
+    /**
+     * The player whose score is shown.
+     */
+    private PacManPlayer player;
+
+    /**
+     * The texts produced by the formatter, in order.
+     */
+    private List<String> formatted;
+
+    /**
+     * The panel under test.
+     */
+    private ScorePanel panel;
+
+    /**
+     * Sets up a panel for a single player, recording every format.
+     */
+    @Before
+    public void setUp() {
+        player = mock(PacManPlayer.class);
+        when(player.isAlive()).thenReturn(true);
+        List<Player> players = new ArrayList<>();
+        players.add(player);
+        panel = new ScorePanel(players);
+        formatted = new ArrayList<>();
+        panel.setScoreFormatter(new ScorePanel.ScoreFormatter() {
+            @Override
+            public String format(PacManPlayer p) {
+                String text = Integer.toString(p.getScore());
+                formatted.add(text);
+                return text;
+            }
+        });
+    }
+
+    /**
+     * Verifies an unchanged score is not formatted again.
+     */
+    @Test
+    public void unchangedScoreIsNotFormatted() {
+        when(player.getScore()).thenReturn(10);
+        panel.refresh();
+        panel.refresh();
+        assertEquals(1, formatted.size());
+    }
+
+    /**
+     * Verifies a changed score or death is formatted again.
+     */
+    @Test
+    public void changesAreFormatted() {
+        when(player.getScore()).thenReturn(10);
+        panel.refresh();
+        when(player.getScore()).thenReturn(20);
+        panel.refresh();
+        when(player.isAlive()).thenReturn(false);
+        panel.refresh();
+        assertEquals(3, formatted.size());
+        assertEquals("20", formatted.get(2));
+    }
+
+    /**
+     * Verifies the default formatter reuses the text of a score.
+     */
+    @Test
+    public void defaultTextIsCached() {
+        assertEquals("Score:  42", ScorePanel.formatScore(42));
+        assertSame(ScorePanel.formatScore(42), ScorePanel.formatScore(42));
+    }
+}
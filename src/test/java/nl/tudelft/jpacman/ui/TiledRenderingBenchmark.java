@@ -0,0 +1,85 @@
+package nl.tudelft.jpacman.ui;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MazeGenerator;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and tiled parallel rasterization of boards of
+ * increasing size, off-screen. Run it with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=nl.tudelft.jpacman.ui.TiledRenderingBenchmark
+ * </pre>
+ */
+@SuppressWarnings("magicnumber")
+public final class TiledRenderingBenchmark {
+
+    /**
+     * The board sizes (in squares per side) to measure.
+     */
+    private static final int[] SIDES = {25, 100, 200, 400};
+
+    /**
+     * The amount of frames rendered before measuring.
+     */
+    private static final int WARMUP = 20;
+
+    /**
+     * The amount of frames measured.
+     */
+    private static final int FRAMES = 30;
+
+    private TiledRenderingBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the average time per frame.
+     *
+     * @param args Ignored.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites,
+                new GhostFactory(sprites)), new BoardFactory(sprites));
+        BoardRenderer sequential = new BoardRenderer(BoardRenderer.SQUARE_SIZE,
+                Integer.MAX_VALUE, ForkJoinPool.commonPool());
+        BoardRenderer parallel = new BoardRenderer(BoardRenderer.SQUARE_SIZE,
+                0, ForkJoinPool.commonPool());
+
+        System.out.printf("%8s %14s %14s%n", "squares", "sequential ms", "parallel ms");
+        for (int side : SIDES) {
+            Board board = parser.parseMap(MazeGenerator.maze(side, side, side))
+                    .getBoard();
+            System.out.printf("%8d %14.2f %14.2f%n", side * side,
+                    measure(sequential, board), measure(parallel, board));
+        }
+    }
+
+    /**
+     * Measures the average time to render the board.
+     *
+     * @param renderer The renderer to measure.
+     * @param board    The board to render.
+     * @return The average time per frame in milliseconds.
+     */
+    private static double measure(BoardRenderer renderer, Board board) {
+        for (int i = 0; i < WARMUP; i++) {
+            renderer.renderImage(board);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < FRAMES; i++) {
+            renderer.renderImage(board);
+        }
+        long elapsed = System.nanoTime() - start;
+        return (double) elapsed / FRAMES / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,58 @@
+package nl.tudelft.jpacman.ui.video;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Tests the byte layout written by the {@link RawRgbEncoder}.
+ */
+@SuppressWarnings("magicnumber")
+public class RawRgbEncoderTest {
+
+    /**
+     * Verifies pixels are written row by row as red, green and blue bytes.
+     *
+     * @throws IOException if writing fails.
+     */
+    @Test
+    public void writesRowsOfRgbBytes() throws IOException {
+        BufferedImage frame = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        frame.setRGB(0, 0, 0x112233);
+        frame.setRGB(1, 0, 0x445566);
+        frame.setRGB(0, 1, 0x778899);
+        frame.setRGB(1, 1, 0xAABBCC);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RawRgbEncoder encoder = new RawRgbEncoder(out)) {
+            encoder.encode(frame);
+        }
+
+        assertArrayEquals(new byte[]{
+                0x11, 0x22, 0x33, 0x44, 0x55, 0x66,
+                0x77, (byte) 0x88, (byte) 0x99, (byte) 0xAA, (byte) 0xBB, (byte) 0xCC},
+                out.toByteArray());
+    }
+
+    /**
+     * Verifies consecutive frames are appended to the stream.
+     *
+     * @throws IOException if writing fails.
+     */
+    @Test
+    public void appendsFrames() throws IOException {
+        BufferedImage frame = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RawRgbEncoder encoder = new RawRgbEncoder(out)) {
+            frame.setRGB(0, 0, 0x010203);
+            encoder.encode(frame);
+            frame.setRGB(0, 0, 0x040506);
+            encoder.encode(frame);
+        }
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, out.toByteArray());
+    }
+}